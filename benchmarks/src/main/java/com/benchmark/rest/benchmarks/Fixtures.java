@@ -0,0 +1,51 @@
+package com.benchmark.rest.benchmarks;
+
+import com.benchmark.rest.benchmarks.model.Category;
+import com.benchmark.rest.benchmarks.model.Item;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rows shaped like the benchmark database: 5 categories, items spread round-robin.
+ */
+final class Fixtures {
+
+    static final int CATEGORIES = 5;
+    private static final Instant UPDATED_AT = Instant.parse("2025-11-10T12:00:00Z");
+
+    private Fixtures() {
+    }
+
+    static List<Category> categories() {
+        List<Category> categories = new ArrayList<>(CATEGORIES);
+        for (int i = 1; i <= CATEGORIES; i++) {
+            categories.add(Category.builder()
+                    .id((long) i)
+                    .code("CAT" + i)
+                    .name("Category " + i)
+                    .updatedAt(UPDATED_AT)
+                    .build());
+        }
+        return categories;
+    }
+
+    static List<Item> items(int count) {
+        List<Category> categories = categories();
+        List<Item> items = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            items.add(Item.builder()
+                    .id((long) i)
+                    .sku("SKU" + i)
+                    .name("Item " + i)
+                    .price(BigDecimal.valueOf(i * 100L + 99, 2))
+                    .stock(i)
+                    .category(categories.get(i % CATEGORIES))
+                    .updatedAt(UPDATED_AT)
+                    .build());
+        }
+        return items;
+    }
+}
@@ -0,0 +1,114 @@
+package com.benchmark.rest.benchmarks;
+
+import com.benchmark.rest.benchmarks.dto.ItemDTO;
+import com.benchmark.rest.benchmarks.model.Category;
+import com.benchmark.rest.benchmarks.model.Item;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hibernate read paths against an in-memory H2 database, so that only ORM work is
+ * measured: managed entities (with and without dirty-checking snapshots), a stateless
+ * session and the {@code SELECT new ItemDTO(...)} projection used by variants A and C.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HydrationBenchmark {
+
+    private static final int ROWS = 2000;
+    private static final String ENTITY_QUERY = "SELECT i FROM Item i JOIN FETCH i.category ORDER BY i.id";
+    private static final String DTO_QUERY = "SELECT new com.benchmark.rest.benchmarks.dto.ItemDTO("
+            + "i.id, i.sku, i.name, i.price, i.stock, c.code, i.updatedAt) "
+            + "FROM Item i JOIN i.category c ORDER BY i.id";
+
+    @Param({"20", "500"})
+    int size;
+
+    private SessionFactory sessionFactory;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(Category.class)
+                .addAnnotatedClass(Item.class)
+                .setProperty(AvailableSettings.JAKARTA_JDBC_URL, "jdbc:h2:mem:hydration;DB_CLOSE_DELAY=-1;MODE=PostgreSQL")
+                .setProperty(AvailableSettings.JAKARTA_JDBC_USER, "sa")
+                .setProperty(AvailableSettings.POOL_SIZE, "4")
+                .setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                .setProperty(AvailableSettings.STATEMENT_BATCH_SIZE, "50")
+                .buildSessionFactory();
+
+        sessionFactory.inTransaction(session -> {
+            List<Category> categories = new ArrayList<>();
+            for (Category category : Fixtures.categories()) {
+                category.setId(null);
+                session.persist(category);
+                categories.add(category);
+            }
+            for (Item item : Fixtures.items(ROWS)) {
+                item.setId(null);
+                item.setCategory(categories.get((int) (item.getStock() % Fixtures.CATEGORIES)));
+                session.persist(item);
+            }
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public List<ItemDTO> managedEntities() {
+        return sessionFactory.fromSession(session -> session
+                .createSelectionQuery(ENTITY_QUERY, Item.class)
+                .setMaxResults(size)
+                .getResultList()
+                .stream()
+                .map(ItemDTO::from)
+                .toList());
+    }
+
+    @Benchmark
+    public List<ItemDTO> readOnlyEntities() {
+        return sessionFactory.fromSession(session -> session
+                .createSelectionQuery(ENTITY_QUERY, Item.class)
+                .setReadOnly(true)
+                .setMaxResults(size)
+                .getResultList()
+                .stream()
+                .map(ItemDTO::from)
+                .toList());
+    }
+
+    @Benchmark
+    public List<ItemDTO> statelessSession() {
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            return session.createSelectionQuery(ENTITY_QUERY, Item.class)
+                    .setMaxResults(size)
+                    .getResultList()
+                    .stream()
+                    .map(ItemDTO::from)
+                    .toList();
+        }
+    }
+
+    @Benchmark
+    public List<ItemDTO> dtoProjection() {
+        return sessionFactory.fromSession(session -> session
+                .createSelectionQuery(DTO_QUERY, ItemDTO.class)
+                .setMaxResults(size)
+                .getResultList());
+    }
+}
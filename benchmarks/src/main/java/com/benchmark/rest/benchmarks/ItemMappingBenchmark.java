@@ -0,0 +1,56 @@
+package com.benchmark.rest.benchmarks;
+
+import com.benchmark.rest.benchmarks.dto.ItemDTO;
+import com.benchmark.rest.benchmarks.model.Item;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to {@link ItemDTO} mapping as done by the write endpoints and by any
+ * {@code page.map(ItemDTO::from)} on an entity page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemMappingBenchmark {
+
+    @Param({"1", "20", "1000"})
+    int size;
+
+    private List<Item> items;
+    private Page<Item> page;
+
+    @Setup
+    public void setup() {
+        items = Fixtures.items(size);
+        page = new PageImpl<>(items, PageRequest.of(0, size), 1000);
+    }
+
+    @Benchmark
+    public List<ItemDTO> loop() {
+        List<ItemDTO> dtos = new ArrayList<>(items.size());
+        for (Item item : items) {
+            dtos.add(ItemDTO.from(item));
+        }
+        return dtos;
+    }
+
+    @Benchmark
+    public List<ItemDTO> stream() {
+        return items.stream().map(ItemDTO::from).toList();
+    }
+
+    @Benchmark
+    public Page<ItemDTO> pageMap() {
+        return page.map(ItemDTO::from);
+    }
+}
@@ -0,0 +1,117 @@
+package com.benchmark.rest.benchmarks;
+
+import com.benchmark.rest.benchmarks.dto.ItemDTO;
+import com.benchmark.rest.benchmarks.dto.LeanPage;
+import com.benchmark.rest.benchmarks.model.Item;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.hateoas.mediatype.MessageResolver;
+import org.springframework.hateoas.mediatype.hal.CurieProvider;
+import org.springframework.hateoas.mediatype.hal.Jackson2HalModule;
+import org.springframework.hateoas.server.core.DefaultLinkRelationProvider;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Body cost of one list response: variants A/C write {@code PageImpl<ItemDTO>}, variant D
+ * writes a pretty-printed HAL {@code PagedModel} of entities with per-row links. The
+ * {@code assembled} benchmark also builds the models and links, as Data REST does on
+ * every request; {@code leanPage} is the opt-in {@link LeanPage} envelope.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PageSerializationBenchmark {
+
+    private static final String BASE_URI = "http://localhost:8083/api";
+
+    @Param({"20", "100"})
+    int size;
+
+    private List<Item> items;
+    private ObjectWriter pageWriter;
+    private ObjectWriter halWriter;
+    private Page<ItemDTO> page;
+    private LeanPage<ItemDTO> leanPage;
+    private PagedModel<EntityModel<Item>> pagedModel;
+
+    @JsonIgnoreProperties({"category", "hibernateLazyInitializer", "handler"})
+    abstract static class HalItemMixin {
+    }
+
+    @Setup
+    public void setup() {
+        items = Fixtures.items(size);
+
+        pageWriter = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .writer();
+
+        ObjectMapper halMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .registerModule(new Jackson2HalModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .addMixIn(Item.class, HalItemMixin.class);
+        halMapper.setHandlerInstantiator(new Jackson2HalModule.HalHandlerInstantiator(
+                new DefaultLinkRelationProvider(), CurieProvider.NONE, MessageResolver.DEFAULTS_ONLY));
+        halWriter = halMapper.writer();
+
+        page = new PageImpl<>(items.stream().map(ItemDTO::from).toList(), PageRequest.of(0, size), 1000);
+        leanPage = LeanPage.of(page);
+        pagedModel = assemble();
+    }
+
+    @Benchmark
+    public byte[] pageImplOfItemDto() throws JsonProcessingException {
+        return pageWriter.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] leanPageOfItemDto() throws JsonProcessingException {
+        return pageWriter.writeValueAsBytes(leanPage);
+    }
+
+    @Benchmark
+    public byte[] halPagedModelOfItem() throws JsonProcessingException {
+        return halWriter.writeValueAsBytes(pagedModel);
+    }
+
+    @Benchmark
+    public byte[] halPagedModelOfItemAssembled() throws JsonProcessingException {
+        return halWriter.writeValueAsBytes(assemble());
+    }
+
+    private PagedModel<EntityModel<Item>> assemble() {
+        List<EntityModel<Item>> content = new ArrayList<>(items.size());
+        for (Item item : items) {
+            String self = BASE_URI + "/items/" + item.getId();
+            content.add(EntityModel.of(item,
+                    Link.of(self),
+                    Link.of(self, "item"),
+                    Link.of(self + "/category", "category")));
+        }
+        return PagedModel.of(content,
+                new PagedModel.PageMetadata(size, 0, 1000),
+                Link.of(BASE_URI + "/items?page=0&size=" + size),
+                Link.of(BASE_URI + "/items?page=1&size=" + size, "next"),
+                Link.of(BASE_URI + "/profile/items", "profile"));
+    }
+}
@@ -0,0 +1,65 @@
+package com.benchmark.rest.benchmarks;
+
+import com.benchmark.rest.benchmarks.dto.ItemDTO;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the {@code price} column on the wire: Jackson's default {@link BigDecimal}
+ * output versus plain notation, a JSON string and a lossy double.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PriceSerializationBenchmark {
+
+    public enum Shape { DEFAULT, PLAIN, STRING, DOUBLE }
+
+    @Param
+    Shape shape;
+
+    private ObjectWriter writer;
+    private List<ItemDTO> dtos;
+
+    @Setup
+    public void setup() {
+        ObjectMapper mapper = new ObjectMapper();
+        switch (shape) {
+            case PLAIN -> mapper.enable(JsonGenerator.Feature.WRITE_BIGDECIMAL_AS_PLAIN);
+            case STRING -> mapper.configOverride(BigDecimal.class)
+                    .setFormat(JsonFormat.Value.forShape(JsonFormat.Shape.STRING));
+            case DOUBLE -> mapper.registerModule(new SimpleModule().addSerializer(BigDecimal.class,
+                    new JsonSerializer<>() {
+                        @Override
+                        public void serialize(BigDecimal value, JsonGenerator gen, SerializerProvider provider)
+                                throws IOException {
+                            gen.writeNumber(value.doubleValue());
+                        }
+                    }));
+            default -> {
+            }
+        }
+        writer = mapper.writerFor(mapper.getTypeFactory().constructCollectionType(List.class, ItemDTO.class));
+        dtos = Fixtures.items(100).stream().map(ItemDTO::from).toList();
+    }
+
+    @Benchmark
+    public byte[] items() throws JsonProcessingException {
+        return writer.writeValueAsBytes(dtos);
+    }
+}
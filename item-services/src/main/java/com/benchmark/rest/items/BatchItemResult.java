@@ -0,0 +1,17 @@
+package com.benchmark.rest.items;
+
+public record BatchItemResult<D>(
+        int index,
+        int status,
+        D item,
+        String error
+) {
+
+    public static <D> BatchItemResult<D> ok(int index, int status, D item) {
+        return new BatchItemResult<>(index, status, item, null);
+    }
+
+    public static <D> BatchItemResult<D> rejected(int index, int status, String error) {
+        return new BatchItemResult<>(index, status, null, error);
+    }
+}
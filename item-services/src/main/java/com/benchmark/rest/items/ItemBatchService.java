@@ -0,0 +1,187 @@
+package com.benchmark.rest.items;
+
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Writes item batches in a single transaction. Categories are resolved with one
+ * IN query and rows are flushed through Hibernate JDBC batching, so the number of
+ * round trips grows with {@code batch_size} chunks rather than with rows. A constraint
+ * violation rolls the whole transaction back, so the rows are then written again one
+ * transaction each and only the rows that fail on their own are rejected.
+ */
+public class ItemBatchService<I extends ItemEntity<C>, C, D> {
+
+    private final JpaRepository<I, Long> itemRepository;
+    private final Function<Collection<Long>, List<I>> findWithCategory;
+    private final JpaRepository<C, Long> categoryRepository;
+    private final Function<C, Long> categoryId;
+    private final Function<I, D> toDto;
+    private final TransactionTemplate transaction;
+
+    /**
+     * @param findWithCategory loads the items with their category fetched
+     * @param toDto            the body of an accepted row
+     */
+    public ItemBatchService(
+            JpaRepository<I, Long> itemRepository,
+            Function<Collection<Long>, List<I>> findWithCategory,
+            JpaRepository<C, Long> categoryRepository,
+            Function<C, Long> categoryId,
+            Function<I, D> toDto,
+            PlatformTransactionManager transactionManager) {
+        this.itemRepository = itemRepository;
+        this.findWithCategory = findWithCategory;
+        this.categoryRepository = categoryRepository;
+        this.categoryId = categoryId;
+        this.toDto = toDto;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    public List<BatchItemResult<D>> createAll(List<I> items) {
+        return write(items, this::create);
+    }
+
+    /**
+     * A row carrying a {@code version} is only applied while the item still has that version,
+     * like a single PUT with {@code If-Match}.
+     */
+    public List<BatchItemResult<D>> updateAll(List<I> items) {
+        return write(items, this::update);
+    }
+
+    private List<BatchItemResult<D>> write(List<I> items, BiFunction<List<I>, Integer, List<BatchItemResult<D>>> rows) {
+        try {
+            return transaction.execute(status -> rows.apply(items, 0));
+        } catch (DataIntegrityViolationException | OptimisticLockingFailureException e) {
+            List<BatchItemResult<D>> results = new ArrayList<>(items.size());
+            for (int i = 0; i < items.size(); i++) {
+                int index = i;
+                I item = items.get(i);
+                try {
+                    results.addAll(transaction.execute(status -> rows.apply(List.of(item), index)));
+                } catch (DataIntegrityViolationException rowFailure) {
+                    results.add(BatchItemResult.rejected(i, 409,
+                            NestedExceptionUtils.getMostSpecificCause(rowFailure).getMessage()));
+                } catch (OptimisticLockingFailureException rowFailure) {
+                    results.add(BatchItemResult.rejected(i, item.getVersion() != null ? 412 : 409,
+                            "item changed concurrently"));
+                }
+            }
+            return results;
+        }
+    }
+
+    private List<BatchItemResult<D>> create(List<I> items, int firstIndex) {
+        Map<Long, C> categories = resolveCategories(items);
+        List<BatchItemResult<D>> results = new ArrayList<>(Collections.nCopies(items.size(), null));
+        List<I> accepted = new ArrayList<>(items.size());
+
+        for (int i = 0; i < items.size(); i++) {
+            I item = items.get(i);
+            C category = categoryOf(item, categories);
+            if (category == null) {
+                results.set(i, BatchItemResult.rejected(firstIndex + i, 400, "unknown or missing category"));
+                continue;
+            }
+            // Also undoes what a rolled back attempt assigned
+            item.setId(null);
+            item.setVersion(null);
+            item.setCategory(category);
+            accepted.add(item);
+        }
+
+        itemRepository.saveAll(accepted);
+        itemRepository.flush();
+
+        for (int i = 0; i < items.size(); i++) {
+            if (results.get(i) == null) {
+                results.set(i, BatchItemResult.ok(firstIndex + i, 201, toDto.apply(items.get(i))));
+            }
+        }
+        return results;
+    }
+
+    private List<BatchItemResult<D>> update(List<I> items, int firstIndex) {
+        Map<Long, C> categories = resolveCategories(items);
+        Map<Long, I> existing = findWithCategory.apply(items.stream()
+                        .map(I::getId)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(I::getId, Function.identity()));
+        List<BatchItemResult<D>> results = new ArrayList<>(Collections.nCopies(items.size(), null));
+        List<I> updated = new ArrayList<>(Collections.nCopies(items.size(), null));
+
+        for (int i = 0; i < items.size(); i++) {
+            I item = items.get(i);
+            if (item.getId() == null) {
+                results.set(i, BatchItemResult.rejected(firstIndex + i, 400, "missing id"));
+                continue;
+            }
+            I target = existing.get(item.getId());
+            if (target == null) {
+                results.set(i, BatchItemResult.rejected(firstIndex + i, 404, "item not found"));
+                continue;
+            }
+            if (item.getVersion() != null && !item.getVersion().equals(target.getVersion())) {
+                results.set(i, BatchItemResult.rejected(firstIndex + i, 412, "version changed"));
+                continue;
+            }
+            if (item.getCategory() != null && categoryId.apply(item.getCategory()) != null) {
+                C category = categoryOf(item, categories);
+                if (category == null) {
+                    results.set(i, BatchItemResult.rejected(firstIndex + i, 400, "unknown category"));
+                    continue;
+                }
+                target.setCategory(category);
+            }
+            target.setName(item.getName());
+            target.setPrice(item.getPrice());
+            target.setStock(item.getStock());
+            target.setSku(item.getSku());
+            updated.set(i, target);
+        }
+
+        itemRepository.flush();
+
+        for (int i = 0; i < items.size(); i++) {
+            if (results.get(i) == null) {
+                results.set(i, BatchItemResult.ok(firstIndex + i, 200, toDto.apply(updated.get(i))));
+            }
+        }
+        return results;
+    }
+
+    private Map<Long, C> resolveCategories(List<I> items) {
+        return categoryRepository.findAllById(items.stream()
+                        .map(I::getCategory)
+                        .filter(Objects::nonNull)
+                        .map(categoryId)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(categoryId, Function.identity()));
+    }
+
+    private C categoryOf(I item, Map<Long, C> categories) {
+        if (item.getCategory() == null || categoryId.apply(item.getCategory()) == null) {
+            return null;
+        }
+        return categories.get(categoryId.apply(item.getCategory()));
+    }
+}
@@ -0,0 +1,137 @@
+package com.benchmark.rest.items;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiPredicate;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Read-through cache of items ({@code T}) by id and of the first pages of {@code GET /items}
+ * ({@code R} rows) by category and page request, bounded by Caffeine's W-TinyLFU eviction.
+ * Concurrent misses on one key run a single load; the other callers wait for its result. Write
+ * paths evict what they touched once committed, and a load that overlapped an eviction is not
+ * kept, since it may have read rows from before the write. The expiry only bounds staleness
+ * from writes made outside this instance. {@code ITEM_CACHE=true} turns it on.
+ */
+public class ItemCache<T, R> {
+
+    private final boolean enabled;
+    private final int cachedPages;
+    private final ToLongFunction<R> rowId;
+    private final Cache<Long, T> items;
+    private final Cache<PageKey, Page<R>> pages;
+    private final AtomicLong generation = new AtomicLong();
+
+    public ItemCache(
+            MeterRegistry meterRegistry,
+            boolean enabled,
+            long maximumItems,
+            long maximumPages,
+            int cachedPages,
+            Duration expireAfterWrite,
+            ToLongFunction<R> rowId) {
+        this.enabled = enabled;
+        this.cachedPages = cachedPages;
+        this.rowId = rowId;
+        this.items = Caffeine.newBuilder()
+                .maximumSize(maximumItems)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        this.pages = Caffeine.newBuilder()
+                .maximumSize(maximumPages)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, items, "items");
+        CaffeineCacheMetrics.monitor(meterRegistry, pages, "item-pages");
+    }
+
+    public Optional<T> item(long id, Supplier<Optional<T>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        long observed = generation.get();
+        T item = items.get(id, key -> loader.get().orElse(null));
+        if (item != null && generation.get() != observed) {
+            items.asMap().remove(id, item);
+        }
+        return Optional.ofNullable(item);
+    }
+
+    /**
+     * Pages past {@code cached-pages} are loaded every time: they are rarely read twice.
+     */
+    public Page<R> page(Long categoryId, Pageable pageable, Supplier<Page<R>> loader) {
+        if (!enabled || pageable.getPageNumber() >= cachedPages) {
+            return loader.get();
+        }
+        PageKey key = new PageKey(categoryId, pageable);
+        long observed = generation.get();
+        Page<R> page = pages.get(key, k -> loader.get());
+        if (generation.get() != observed) {
+            pages.asMap().remove(key, page);
+        }
+        return page;
+    }
+
+    /**
+     * The item changed in place: its entry and the pages listing it.
+     */
+    public void itemUpdated(long id) {
+        itemsUpdated(List.of(id));
+    }
+
+    public void itemsUpdated(Collection<Long> ids) {
+        Set<Long> changed = Set.copyOf(ids);
+        generation.incrementAndGet();
+        items.invalidateAll(changed);
+        evictPages((key, page) -> page.getContent().stream().anyMatch(row -> changed.contains(rowId.applyAsLong(row))));
+    }
+
+    /**
+     * A row was added to the category: its pages and those of all items shift.
+     */
+    public void itemAdded(Long categoryId) {
+        generation.incrementAndGet();
+        evictPages((key, page) -> key.categoryId() == null || Objects.equals(key.categoryId(), categoryId));
+    }
+
+    /**
+     * The items were removed or may have changed category: their entries and every page.
+     */
+    public void evict(Collection<Long> ids) {
+        generation.incrementAndGet();
+        items.invalidateAll(ids);
+        pages.invalidateAll();
+    }
+
+    /**
+     * A category changed: items carry its code, so everything goes.
+     */
+    public void clear() {
+        generation.incrementAndGet();
+        items.invalidateAll();
+        pages.invalidateAll();
+    }
+
+    private void evictPages(BiPredicate<PageKey, Page<R>> affected) {
+        pages.asMap().entrySet().removeIf(entry -> affected.test(entry.getKey(), entry.getValue()));
+    }
+
+    private record PageKey(Long categoryId, Pageable pageable) {
+    }
+}
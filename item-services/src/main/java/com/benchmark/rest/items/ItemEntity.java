@@ -0,0 +1,30 @@
+package com.benchmark.rest.items;
+
+import java.math.BigDecimal;
+
+/**
+ * A variant's item entity, with its category of type {@code C}, as {@link ItemBatchService}
+ * reads and writes it.
+ */
+public interface ItemEntity<C> extends ItemFields {
+
+    Long getId();
+
+    void setId(Long id);
+
+    Long getVersion();
+
+    void setVersion(Long version);
+
+    C getCategory();
+
+    void setCategory(C category);
+
+    void setSku(String sku);
+
+    void setName(String name);
+
+    void setPrice(BigDecimal price);
+
+    void setStock(Integer stock);
+}
@@ -0,0 +1,17 @@
+package com.benchmark.rest.items;
+
+import java.math.BigDecimal;
+
+/**
+ * The item columns a client sets, read from each variant's own entity.
+ */
+public interface ItemFields {
+
+    String getSku();
+
+    String getName();
+
+    BigDecimal getPrice();
+
+    Integer getStock();
+}
@@ -0,0 +1,333 @@
+package com.benchmark.rest.items;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind queue for single item creates and updates, so that a request holds neither a
+ * thread nor a connection for its transaction. A write is checked, queued and acknowledged with
+ * a tracking id; one writer thread per lane drains its queue in JDBC batches of up to
+ * {@code batch-size} rows, one transaction per batch. Updates of one item always go to the same
+ * lane, so they are applied in the order they were accepted. When a batch fails its rows are
+ * retried one transaction each, so that a bad row fails alone; a batch that breaks in any other
+ * way fails its pending writes and the lane goes on draining. Queued writes do not survive the
+ * process. {@code WRITE_BEHIND=true} turns it on.
+ */
+public class ItemWriteQueue implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ItemWriteQueue.class);
+
+    private static final String RESERVE_IDS_SQL = "SELECT nextval('item_id_seq') FROM generate_series(1, ?)";
+    private static final String INSERT_SQL = "INSERT INTO item (id, sku, name, price, stock, category_id, updated_at, version) "
+            + "VALUES (?, ?, ?, ?, ?, ?, now(), 0)";
+    private static final String UPDATE_SQL = "UPDATE item SET sku = ?, name = ?, price = ?, stock = ?, "
+            + "category_id = COALESCE(?, category_id), version = version + 1, updated_at = now() "
+            + "WHERE id = ? AND version = COALESCE(?, version)";
+    private static final long POLL_MILLIS = 100;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaction;
+    private final ItemCache<?, ?> itemCache;
+    private final StockAccumulator stockAccumulator;
+    private final int batchSize;
+    private final Lane[] lanes;
+    private final ExecutorService writers;
+    private final Cache<String, ItemWriteStatus> statuses;
+    private final Counter accepted;
+    private final Counter rejected;
+    private final Counter drained;
+    private final Counter failed;
+    private final Counter failedBatches;
+    private final DistributionSummary batchRows;
+    private volatile boolean running = true;
+
+    /**
+     * @param stockAccumulator null when stock deltas are not coalesced
+     */
+    public ItemWriteQueue(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            ItemCache<?, ?> itemCache,
+            StockAccumulator stockAccumulator,
+            MeterRegistry meterRegistry,
+            int capacity,
+            int writers,
+            int batchSize,
+            long tracked,
+            Duration statusTtl) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.itemCache = itemCache;
+        this.stockAccumulator = stockAccumulator;
+        this.batchSize = Math.max(batchSize, 1);
+        this.lanes = new Lane[Math.max(writers, 1)];
+        for (int i = 0; i < lanes.length; i++) {
+            lanes[i] = new Lane(Math.max(capacity / lanes.length, 1));
+        }
+        this.statuses = Caffeine.newBuilder()
+                .maximumSize(tracked)
+                .expireAfterWrite(statusTtl)
+                .build();
+        Gauge.builder("item.write-behind.queue.depth", this, ItemWriteQueue::depth)
+                .description("Item writes accepted and not yet drained")
+                .register(meterRegistry);
+        this.accepted = Counter.builder("item.write-behind.accepted")
+                .description("Item writes queued and answered with 202")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("item.write-behind.rejected")
+                .description("Item writes refused with 429 because the queue was full")
+                .register(meterRegistry);
+        this.drained = Counter.builder("item.write-behind.drained")
+                .description("Item writes taken off the queue and applied or failed")
+                .register(meterRegistry);
+        this.failed = Counter.builder("item.write-behind.failed")
+                .description("Item writes that could not be applied")
+                .register(meterRegistry);
+        this.failedBatches = Counter.builder("item.write-behind.batch.failures")
+                .description("Batches that failed and were retried row by row")
+                .register(meterRegistry);
+        this.batchRows = DistributionSummary.builder("item.write-behind.batch.rows")
+                .description("Item writes drained per batch")
+                .register(meterRegistry);
+        this.writers = Executors.newFixedThreadPool(lanes.length, runnable -> {
+            Thread thread = new Thread(runnable, "item-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (Lane lane : lanes) {
+            this.writers.execute(lane);
+        }
+    }
+
+    /**
+     * The columns a write sets are all {@code NOT NULL}; a write missing one would only fail
+     * once drained.
+     */
+    public static boolean isComplete(ItemFields item) {
+        return item.getSku() != null && item.getName() != null && item.getPrice() != null && item.getStock() != null;
+    }
+
+    /**
+     * Empty when the queue is full.
+     */
+    public Optional<ItemWriteStatus> create(ItemFields item, Long categoryId) {
+        return offer(lanes[ThreadLocalRandom.current().nextInt(lanes.length)],
+                Write.of(null, null, item, categoryId));
+    }
+
+    /**
+     * Empty when the queue is full. With an {@code expectedVersion} the write fails unless the
+     * row still has that version when drained.
+     */
+    public Optional<ItemWriteStatus> update(long id, Long expectedVersion, ItemFields item, Long categoryId) {
+        return offer(lanes[Math.floorMod(Long.hashCode(id), lanes.length)],
+                Write.of(id, expectedVersion, item, categoryId));
+    }
+
+    public Optional<ItemWriteStatus> status(String trackingId) {
+        return Optional.ofNullable(statuses.getIfPresent(trackingId));
+    }
+
+    private Optional<ItemWriteStatus> offer(Lane lane, Write write) {
+        ItemWriteStatus pending = ItemWriteStatus.pending(write.trackingId(), write.id());
+        // Recorded before the offer: a writer may complete the write before offer returns
+        statuses.put(write.trackingId(), pending);
+        if (!running || !lane.queue.offer(write)) {
+            statuses.invalidate(write.trackingId());
+            rejected.increment();
+            return Optional.empty();
+        }
+        accepted.increment();
+        return Optional.of(pending);
+    }
+
+    private double depth() {
+        int depth = 0;
+        for (Lane lane : lanes) {
+            depth += lane.queue.size();
+        }
+        return depth;
+    }
+
+    private void write(List<Write> batch) {
+        Map<String, ItemWriteStatus> results;
+        try {
+            results = transaction.execute(status -> apply(batch));
+        } catch (RuntimeException e) {
+            // Rolled back: only now may the rows be written again
+            failedBatches.increment();
+            results = new HashMap<>();
+            for (Write write : batch) {
+                try {
+                    results.putAll(transaction.execute(status -> apply(List.of(write))));
+                } catch (RuntimeException rowFailure) {
+                    results.put(write.trackingId(), ItemWriteStatus.failed(write.trackingId(),
+                            write.id(), NestedExceptionUtils.getMostSpecificCause(rowFailure).getMessage()));
+                }
+            }
+        }
+        completed(batch, results);
+        drained.increment(batch.size());
+        batchRows.record(batch.size());
+    }
+
+    private Map<String, ItemWriteStatus> apply(List<Write> batch) {
+        List<Write> creates = batch.stream().filter(write -> write.id() == null).toList();
+        List<Write> updates = batch.stream().filter(write -> write.id() != null).toList();
+        Map<String, ItemWriteStatus> results = new HashMap<>();
+
+        if (!creates.isEmpty()) {
+            List<Long> ids = jdbcTemplate.queryForList(RESERVE_IDS_SQL, Long.class, creates.size());
+            List<Object[]> arguments = new ArrayList<>(creates.size());
+            for (int i = 0; i < creates.size(); i++) {
+                Write write = creates.get(i);
+                arguments.add(new Object[]{ids.get(i), write.sku(), write.name(), write.price(), write.stock(),
+                        write.categoryId()});
+                results.put(write.trackingId(), ItemWriteStatus.done(write.trackingId(), ids.get(i)));
+            }
+            jdbcTemplate.batchUpdate(INSERT_SQL, arguments);
+        }
+
+        if (!updates.isEmpty()) {
+            int[] counts = jdbcTemplate.batchUpdate(UPDATE_SQL, updates.stream()
+                    .map(write -> new Object[]{write.sku(), write.name(), write.price(), write.stock(),
+                            write.categoryId(), write.id(), write.expectedVersion()})
+                    .toList());
+            for (int i = 0; i < updates.size(); i++) {
+                Write write = updates.get(i);
+                results.put(write.trackingId(), counts[i] == 0
+                        ? ItemWriteStatus.failed(write.trackingId(), write.id(), "item not found or version changed")
+                        : ItemWriteStatus.done(write.trackingId(), write.id()));
+            }
+        }
+        return results;
+    }
+
+    private void completed(List<Write> batch, Map<String, ItemWriteStatus> results) {
+        List<Long> updated = new ArrayList<>();
+        for (Write write : batch) {
+            ItemWriteStatus result = results.get(write.trackingId());
+            statuses.put(write.trackingId(), result);
+            if (result.state() == ItemWriteStatus.State.FAILED) {
+                failed.increment();
+            } else if (write.id() == null) {
+                itemCache.itemAdded(write.categoryId());
+            } else {
+                updated.add(write.id());
+            }
+        }
+        if (!updated.isEmpty()) {
+            // The category may have changed: the item's pages are not enough
+            itemCache.evict(updated);
+            if (stockAccumulator != null) {
+                stockAccumulator.forget(updated);
+            }
+        }
+    }
+
+    /**
+     * Fails the writes of a batch that broke outside its row handling; those already completed
+     * keep their status.
+     */
+    private void abandoned(List<Write> batch, RuntimeException failure) {
+        log.error("Item write batch of {} rows failed", batch.size(), failure);
+        String error = NestedExceptionUtils.getMostSpecificCause(failure).getMessage();
+        for (Write write : batch) {
+            ItemWriteStatus status = statuses.asMap().computeIfPresent(write.trackingId(),
+                    (trackingId, current) -> current.state() == ItemWriteStatus.State.PENDING
+                            ? ItemWriteStatus.failed(trackingId, write.id(), error)
+                            : current);
+            if (status != null && status.state() == ItemWriteStatus.State.FAILED) {
+                failed.increment();
+            }
+        }
+        drained.increment(batch.size());
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        writers.shutdown();
+        writers.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    private final class Lane implements Runnable {
+
+        private final BlockingQueue<Write> queue;
+
+        private Lane(int capacity) {
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+
+        @Override
+        public void run() {
+            List<Write> batch = new ArrayList<>(batchSize);
+            // Keeps draining after shutdown starts, until the queue is empty
+            while (running || !queue.isEmpty()) {
+                Write first;
+                try {
+                    first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                try {
+                    write(batch);
+                } catch (RuntimeException e) {
+                    // The lane must keep draining: the writes are failed, not lost without a status
+                    abandoned(batch, e);
+                } finally {
+                    batch.clear();
+                }
+            }
+        }
+    }
+
+    private record Write(
+            String trackingId,
+            Long id,
+            Long expectedVersion,
+            String sku,
+            String name,
+            BigDecimal price,
+            Integer stock,
+            Long categoryId
+    ) {
+
+        static Write of(Long id, Long expectedVersion, ItemFields item, Long categoryId) {
+            return new Write(UUID.randomUUID().toString(), id, expectedVersion,
+                    item.getSku(), item.getName(), item.getPrice(), item.getStock(), categoryId);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.benchmark.rest.items;
+
+public record ItemWriteStatus(
+        String trackingId,
+        State state,
+        Long itemId,
+        String error
+) {
+
+    public enum State {
+        PENDING, DONE, FAILED
+    }
+
+    public static ItemWriteStatus pending(String trackingId, Long itemId) {
+        return new ItemWriteStatus(trackingId, State.PENDING, itemId, null);
+    }
+
+    public static ItemWriteStatus done(String trackingId, Long itemId) {
+        return new ItemWriteStatus(trackingId, State.DONE, itemId, null);
+    }
+
+    public static ItemWriteStatus failed(String trackingId, Long itemId, String error) {
+        return new ItemWriteStatus(trackingId, State.FAILED, itemId, error);
+    }
+}
@@ -0,0 +1,269 @@
+package com.benchmark.rest.items;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesces stock deltas in memory and writes the net change of each item in one JDBC batch
+ * per flush interval, so a hot item costs one row update per flush instead of one per request.
+ * Deltas are summed under one of several stripe locks chosen by item id; a flush swaps each
+ * stripe's map out under its lock, so every delta is written exactly once.
+ * <p>
+ * A delta is checked when it is accepted, against the item's stock read once and then kept
+ * with every accepted delta applied until they are all written. That stock is only a forecast:
+ * other writers change the row too, and {@link #forget} makes the next delta read it again. The
+ * flush only writes a net delta while the row's stock stays non-negative, and counts the ones it
+ * refuses as rejected. When a batch fails its rows are written one by one, and a row still
+ * failing after {@value #MAX_ATTEMPTS} flushes is dropped, so that it cannot hold back the
+ * other items.
+ */
+public class StockAccumulator implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(StockAccumulator.class);
+
+    private static final String STOCK_SQL = "SELECT stock FROM item WHERE id = ?";
+    private static final String FLUSH_SQL = "UPDATE item SET stock = stock + ?, "
+            + "version = version + 1, updated_at = now() WHERE id = ? AND stock + ? >= 0";
+    private static final int MAX_ATTEMPTS = 5;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ItemCache<?, ?> itemCache;
+    private final Stripe[] stripes;
+    private final ScheduledExecutorService flusher;
+    private final Map<Long, Integer> attempts = new HashMap<>();
+    private final Counter deltas;
+    private final Counter failedFlushes;
+    private final Counter rejected;
+    private final Counter dropped;
+    private final DistributionSummary flushedRows;
+
+    public StockAccumulator(
+            JdbcTemplate jdbcTemplate,
+            ItemCache<?, ?> itemCache,
+            MeterRegistry meterRegistry,
+            int stripes,
+            Duration flushInterval) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.itemCache = itemCache;
+        this.stripes = new Stripe[Math.max(stripes, 1)];
+        for (int i = 0; i < this.stripes.length; i++) {
+            this.stripes[i] = new Stripe();
+        }
+        this.deltas = Counter.builder("stock.coalesce.deltas")
+                .description("Stock deltas accepted for coalescing")
+                .register(meterRegistry);
+        this.failedFlushes = Counter.builder("stock.coalesce.flush.failures")
+                .description("Flushes whose batch failed and was written row by row")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("stock.coalesce.rejected")
+                .description("Net item deltas not written because the item was gone or its stock would go negative")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("stock.coalesce.dropped")
+                .description("Net item deltas given up after repeated failures")
+                .register(meterRegistry);
+        this.flushedRows = DistributionSummary.builder("stock.coalesce.flush.rows")
+                .description("Item rows updated per flush")
+                .register(meterRegistry);
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "stock-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = Math.max(flushInterval.toMillis(), 1);
+        flusher.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Returns the stock the item will have once the delta is written, empty when the item does
+     * not exist or its stock would go negative, in which case nothing is queued.
+     */
+    public Optional<Long> add(long itemId, long delta) {
+        Stripe stripe = stripeOf(itemId);
+        while (true) {
+            long generation;
+            synchronized (stripe) {
+                Long known = stripe.stock.get(itemId);
+                if (known != null) {
+                    return accept(stripe, itemId, known, delta);
+                }
+                generation = stripe.generation;
+            }
+            List<Long> current = jdbcTemplate.queryForList(STOCK_SQL, Long.class, itemId);
+            if (current.isEmpty()) {
+                return Optional.empty();
+            }
+            synchronized (stripe) {
+                // A flush finished meanwhile: the stock read may miss what it wrote
+                if (stripe.generation != generation) {
+                    continue;
+                }
+                Long known = stripe.stock.get(itemId);
+                return accept(stripe, itemId, known != null
+                        ? known
+                        : current.get(0) + stripe.pending.getOrDefault(itemId, 0L), delta);
+            }
+        }
+    }
+
+    private Optional<Long> accept(Stripe stripe, long itemId, long stock, long delta) {
+        long next = stock + delta;
+        if (next < 0) {
+            return Optional.empty();
+        }
+        stripe.stock.put(itemId, next);
+        stripe.pending.merge(itemId, delta, Long::sum);
+        deltas.increment();
+        return Optional.of(next);
+    }
+
+    /**
+     * Another writer set the items' stock: their next delta reads it again, plus the deltas not
+     * yet written.
+     */
+    public void forget(Collection<Long> itemIds) {
+        for (Long itemId : itemIds) {
+            Stripe stripe = stripeOf(itemId);
+            synchronized (stripe) {
+                stripe.stock.remove(itemId);
+                stripe.generation++;
+            }
+        }
+    }
+
+    void flush() {
+        // Sorted ids: concurrent flushes and single-row updates lock rows in the same order
+        Map<Long, Long> net = new TreeMap<>();
+        List<Stripe> flushed = new ArrayList<>();
+        for (Stripe stripe : stripes) {
+            Map<Long, Long> drained;
+            synchronized (stripe) {
+                if (stripe.pending.isEmpty()) {
+                    continue;
+                }
+                drained = stripe.pending;
+                stripe.pending = new HashMap<>();
+            }
+            flushed.add(stripe);
+            drained.forEach((itemId, delta) -> {
+                if (delta != 0) {
+                    net.put(itemId, delta);
+                }
+            });
+        }
+
+        List<Long> written = new ArrayList<>(net.size());
+        if (!net.isEmpty()) {
+            List<Object[]> arguments = new ArrayList<>(net.size());
+            net.forEach((itemId, delta) -> arguments.add(new Object[]{delta, itemId, delta}));
+            try {
+                int[] counts = jdbcTemplate.batchUpdate(FLUSH_SQL, arguments);
+                int i = 0;
+                for (Map.Entry<Long, Long> entry : net.entrySet()) {
+                    if (counts[i++] == 0) {
+                        reject(entry.getKey(), entry.getValue());
+                    } else {
+                        written.add(entry.getKey());
+                    }
+                }
+            } catch (RuntimeException e) {
+                failedFlushes.increment();
+                net.forEach((itemId, delta) -> {
+                    try {
+                        if (jdbcTemplate.update(FLUSH_SQL, delta, itemId, delta) == 0) {
+                            reject(itemId, delta);
+                        } else {
+                            written.add(itemId);
+                        }
+                    } catch (RuntimeException rowFailure) {
+                        retry(itemId, delta, rowFailure);
+                    }
+                });
+            }
+            written.forEach(attempts::remove);
+            flushedRows.record(written.size());
+        }
+
+        // Stock is read again for items with nothing left to write, and a read that overlapped
+        // the writes may have missed them
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                if (stripe.stock.keySet().removeIf(itemId -> !stripe.pending.containsKey(itemId))
+                        || flushed.contains(stripe)) {
+                    stripe.generation++;
+                }
+            }
+        }
+        if (!written.isEmpty()) {
+            itemCache.itemsUpdated(written);
+        }
+    }
+
+    private void retry(long itemId, long delta, RuntimeException failure) {
+        int attempt = attempts.merge(itemId, 1, Integer::sum);
+        if (attempt >= MAX_ATTEMPTS) {
+            drop(itemId, delta, NestedExceptionUtils.getMostSpecificCause(failure).getMessage());
+            return;
+        }
+        Stripe stripe = stripeOf(itemId);
+        synchronized (stripe) {
+            stripe.pending.merge(itemId, delta, Long::sum);
+        }
+    }
+
+    private void reject(long itemId, long delta) {
+        attempts.remove(itemId);
+        rejected.increment();
+        unapply(itemId, delta);
+        log.warn("Rejected stock delta {} of item {}: item gone or stock would go negative", delta, itemId);
+    }
+
+    private void drop(long itemId, long delta, String reason) {
+        attempts.remove(itemId);
+        dropped.increment();
+        unapply(itemId, delta);
+        log.warn("Dropped stock delta {} of item {}: {}", delta, itemId, reason);
+    }
+
+    private void unapply(long itemId, long delta) {
+        Stripe stripe = stripeOf(itemId);
+        synchronized (stripe) {
+            stripe.stock.computeIfPresent(itemId, (id, stock) -> stock - delta);
+        }
+    }
+
+    private Stripe stripeOf(long itemId) {
+        return stripes[Math.floorMod(Long.hashCode(itemId), stripes.length)];
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(5, TimeUnit.SECONDS);
+        flush();
+    }
+
+    private static final class Stripe {
+        private Map<Long, Long> pending = new HashMap<>();
+        /** Stock once every accepted delta is written, for items with deltas not yet written. */
+        private final Map<Long, Long> stock = new HashMap<>();
+        private long generation;
+    }
+}
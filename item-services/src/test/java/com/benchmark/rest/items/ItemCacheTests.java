@@ -0,0 +1,158 @@
+package com.benchmark.rest.items;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ItemCacheTests {
+
+    private final ItemCache<String, Long> cache = cache(true);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void itemsAreLoadedOnceUntilUpdated() {
+        assertThat(cache.item(1, item("one"))).contains("one");
+        assertThat(cache.item(1, item("one"))).contains("one");
+        assertThat(loads).hasValue(1);
+
+        cache.itemUpdated(1);
+        assertThat(cache.item(1, item("two"))).contains("two");
+        assertThat(loads).hasValue(2);
+
+        cache.evict(List.of(1L));
+        cache.item(1, item("three"));
+        cache.clear();
+        cache.item(1, item("four"));
+        assertThat(loads).hasValue(4);
+    }
+
+    @Test
+    void missingItemsAreNotKept() {
+        assertThat(cache.item(1, Optional::empty)).isEmpty();
+        assertThat(cache.item(1, item("one"))).contains("one");
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void writesEvictThePagesTheyShift() {
+        cache.page(1L, PageRequest.of(0, 20), page(1L, 2L));
+        cache.page(2L, PageRequest.of(0, 20), page(3L));
+        cache.page(null, PageRequest.of(0, 20), page(1L, 2L, 3L));
+        assertThat(loads).hasValue(3);
+
+        cache.itemUpdated(3);
+        cache.page(1L, PageRequest.of(0, 20), page(1L, 2L));
+        cache.page(2L, PageRequest.of(0, 20), page(3L));
+        cache.page(null, PageRequest.of(0, 20), page(1L, 2L, 3L));
+        assertThat(loads).hasValue(5);
+
+        cache.itemAdded(2L);
+        cache.page(1L, PageRequest.of(0, 20), page(1L, 2L));
+        cache.page(2L, PageRequest.of(0, 20), page(3L));
+        cache.page(null, PageRequest.of(0, 20), page(1L, 2L, 3L));
+        assertThat(loads).hasValue(7);
+
+        cache.evict(List.of(42L));
+        cache.page(1L, PageRequest.of(0, 20), page(1L, 2L));
+        assertThat(loads).hasValue(8);
+    }
+
+    @Test
+    void pagesPastCachedPagesAreAlwaysLoaded() {
+        cache.page(1L, PageRequest.of(2, 20), page(1L));
+        cache.page(1L, PageRequest.of(2, 20), page(1L));
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void disabledCacheAlwaysLoads() {
+        ItemCache<String, Long> disabled = cache(false);
+
+        disabled.item(1, item("one"));
+        disabled.item(1, item("one"));
+        disabled.page(1L, PageRequest.of(0, 20), page(1L));
+        disabled.page(1L, PageRequest.of(0, 20), page(1L));
+        assertThat(loads).hasValue(4);
+    }
+
+    @Test
+    void concurrentMissesRunOneLoad() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<Optional<String>> slow = () -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return Optional.of("one");
+        };
+        ExecutorService readers = Executors.newFixedThreadPool(2);
+        try {
+            Future<Optional<String>> first = readers.submit(() -> cache.item(1, slow));
+            assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+            Future<Optional<String>> second = readers.submit(() -> cache.item(1, slow));
+            Thread.sleep(100);
+            release.countDown();
+
+            assertThat(first.get()).contains("one");
+            assertThat(second.get()).contains("one");
+        } finally {
+            readers.shutdown();
+        }
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void loadOverlappingAWriteIsNotKept() {
+        assertThat(cache.item(1, () -> {
+            loads.incrementAndGet();
+            cache.itemUpdated(2);
+            return Optional.of("stale");
+        })).contains("stale");
+        assertThat(cache.item(1, item("fresh"))).contains("fresh");
+
+        cache.page(1L, PageRequest.of(0, 20), () -> {
+            loads.incrementAndGet();
+            cache.itemAdded(3L);
+            return new PageImpl<>(List.of(1L));
+        });
+        cache.page(1L, PageRequest.of(0, 20), page(1L));
+        assertThat(loads).hasValue(4);
+    }
+
+    private ItemCache<String, Long> cache(boolean enabled) {
+        return new ItemCache<>(new SimpleMeterRegistry(), enabled, 100, 100, 2, Duration.ofMinutes(1), Long::longValue);
+    }
+
+    private Supplier<Optional<String>> item(String value) {
+        return () -> {
+            loads.incrementAndGet();
+            return Optional.of(value);
+        };
+    }
+
+    private Supplier<Page<Long>> page(Long... ids) {
+        return () -> {
+            loads.incrementAndGet();
+            return new PageImpl<>(List.of(ids));
+        };
+    }
+}
@@ -0,0 +1,274 @@
+package com.benchmark.rest.jtl;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Aggregates JMeter JTL files per scenario, variant and label, then compares every
+ * variant with a baseline. Files are expected to follow the
+ * {@code <variant>-<scenario>.jtl} naming used in {@code jmeter/results}.
+ *
+ * <pre>
+ * java -jar jtl-analyzer/target/jtl-analyzer-1.0-SNAPSHOT.jar [options] jmeter/results/*.jtl
+ * </pre>
+ *
+ * Exits with status 1 when a regression threshold is exceeded, so it can gate a CI run.
+ */
+public final class JtlAnalyzer {
+
+    private static final String TOTAL = "TOTAL";
+    private static final Pattern FILE_NAME = Pattern.compile("^(variant-[a-z]-[a-z0-9]+)-(.+)\\.jtl$");
+    private static final Pattern API_PREFIX = Pattern.compile("^(\\S+ )/api(?=/)");
+    private static final Pattern NUMERIC_SEGMENT = Pattern.compile("/\\d+(?=/|\\?|$)");
+
+    private final Map<String, Map<String, Map<String, SampleStats>>> scenarios = new TreeMap<>();
+    private final Set<String> variants = new LinkedHashSet<>();
+    private final boolean rawLabels;
+
+    private JtlAnalyzer(boolean rawLabels) {
+        this.rawLabels = rawLabels;
+    }
+
+    public static void main(String[] args) {
+        Options options;
+        try {
+            options = Options.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(Options.USAGE);
+            System.exit(2);
+            return;
+        }
+
+        JtlAnalyzer analyzer = new JtlAnalyzer(options.rawLabels);
+        try {
+            for (Path file : options.files) {
+                analyzer.load(file);
+            }
+        } catch (IOException e) {
+            System.err.println(e.getMessage());
+            System.exit(2);
+            return;
+        }
+
+        int regressions = analyzer.report(System.out, options);
+        System.exit(regressions > 0 ? 1 : 0);
+    }
+
+    private void load(Path file) throws IOException {
+        String name = file.getFileName().toString();
+        Matcher matcher = FILE_NAME.matcher(name);
+        String variant = matcher.matches() ? matcher.group(1) : name.replaceFirst("\\.jtl$", "");
+        String scenario = matcher.matches() ? matcher.group(2) : "default";
+        variants.add(variant);
+
+        Map<String, SampleStats> labels = scenarios
+                .computeIfAbsent(scenario, s -> new TreeMap<>())
+                .computeIfAbsent(variant, v -> new LinkedHashMap<>());
+        JtlReader.read(file, sample -> labels
+                .computeIfAbsent(normalize(sample.label()), l -> new SampleStats())
+                .add(sample));
+    }
+
+    /**
+     * Makes labels comparable across variants: drops the {@code /api} prefix of the Jersey
+     * and Data REST variants and folds numeric path segments into {@code {id}}.
+     */
+    private String normalize(String label) {
+        if (rawLabels) {
+            return label;
+        }
+        String withoutPrefix = API_PREFIX.matcher(label).replaceFirst("$1");
+        return NUMERIC_SEGMENT.matcher(withoutPrefix).replaceAll("/{id}");
+    }
+
+    private int report(PrintStream out, Options options) {
+        String baseline = options.baseline != null ? options.baseline : variants.iterator().next();
+        if (!variants.contains(baseline)) {
+            out.printf("Baseline '%s' not found among %s%n", baseline, variants);
+            return 1;
+        }
+
+        int regressions = 0;
+        for (Map.Entry<String, Map<String, Map<String, SampleStats>>> scenario : scenarios.entrySet()) {
+            Map<String, Map<String, SampleStats>> byVariant = withTotals(scenario.getValue());
+            List<String> labels = labels(byVariant);
+
+            out.printf("%n== %s%n", scenario.getKey());
+            out.printf("%-48s %-22s %8s %7s %7s %7s %7s %9s %6s %9s %9s%n",
+                    "label", "variant", "n", "p50", "p95", "p99", "max", "req/s", "err%", "rx KB/s", "tx KB/s");
+            for (String label : labels) {
+                for (Map.Entry<String, Map<String, SampleStats>> variant : byVariant.entrySet()) {
+                    SampleStats stats = variant.getValue().get(label);
+                    if (stats == null) {
+                        continue;
+                    }
+                    out.printf(Locale.ROOT, "%-48s %-22s %8d %7d %7d %7d %7d %9.1f %6.2f %9.1f %9.1f%n",
+                            truncate(label, 48), variant.getKey(), stats.count(),
+                            stats.p50(), stats.p95(), stats.p99(), stats.max(),
+                            stats.throughput(), stats.errorRate(),
+                            stats.receivedKbPerSecond(), stats.sentKbPerSecond());
+                }
+            }
+
+            Map<String, SampleStats> base = byVariant.get(baseline);
+            if (base == null || byVariant.size() < 2) {
+                continue;
+            }
+            out.printf("%n-- vs %s (p95 +%.0f%%, p99 +%.0f%%, req/s -%.0f%%, err %.1f%%)%n", baseline,
+                    options.maxP95Increase, options.maxP99Increase, options.maxThroughputDrop, options.maxErrorRate);
+            out.printf("%-48s %-22s %9s %9s %9s %6s  %s%n",
+                    "label", "variant", "p95 d%", "p99 d%", "req/s d%", "err%", "verdict");
+            for (String label : labels) {
+                SampleStats reference = base.get(label);
+                if (reference == null) {
+                    continue;
+                }
+                for (Map.Entry<String, Map<String, SampleStats>> variant : byVariant.entrySet()) {
+                    SampleStats stats = variant.getValue().get(label);
+                    if (variant.getKey().equals(baseline) || stats == null) {
+                        continue;
+                    }
+                    Double p95 = delta(reference.p95(), stats.p95());
+                    Double p99 = delta(reference.p99(), stats.p99());
+                    Double throughput = delta(reference.throughput(), stats.throughput());
+
+                    List<String> failures = new ArrayList<>();
+                    if (p95 != null && p95 > options.maxP95Increase) {
+                        failures.add("p95");
+                    }
+                    if (p99 != null && p99 > options.maxP99Increase) {
+                        failures.add("p99");
+                    }
+                    if (throughput != null && -throughput > options.maxThroughputDrop) {
+                        failures.add("req/s");
+                    }
+                    if (stats.errorRate() > options.maxErrorRate) {
+                        failures.add("errors");
+                    }
+                    regressions += failures.isEmpty() ? 0 : 1;
+
+                    out.printf(Locale.ROOT, "%-48s %-22s %9s %9s %9s %6.2f  %s%n",
+                            truncate(label, 48), variant.getKey(),
+                            format(p95), format(p99), format(throughput), stats.errorRate(),
+                            failures.isEmpty() ? "ok" : "REGRESSION " + String.join(",", failures));
+                }
+            }
+        }
+
+        out.printf("%n%d regression(s)%n", regressions);
+        return regressions;
+    }
+
+    private static Map<String, Map<String, SampleStats>> withTotals(Map<String, Map<String, SampleStats>> byVariant) {
+        Map<String, Map<String, SampleStats>> result = new TreeMap<>();
+        for (Map.Entry<String, Map<String, SampleStats>> variant : byVariant.entrySet()) {
+            Map<String, SampleStats> labels = new LinkedHashMap<>(variant.getValue());
+            SampleStats total = new SampleStats();
+            labels.values().forEach(total::merge);
+            labels.put(TOTAL, total);
+            result.put(variant.getKey(), labels);
+        }
+        return result;
+    }
+
+    private static List<String> labels(Map<String, Map<String, SampleStats>> byVariant) {
+        Set<String> labels = new LinkedHashSet<>();
+        byVariant.values().forEach(v -> labels.addAll(v.keySet()));
+        labels.remove(TOTAL);
+        List<String> ordered = new ArrayList<>(labels);
+        ordered.add(TOTAL);
+        return ordered;
+    }
+
+    /**
+     * Relative change in percent, {@code null} when the baseline is zero.
+     */
+    private static Double delta(double reference, double value) {
+        return reference == 0 ? null : (value - reference) * 100.0 / reference;
+    }
+
+    private static String format(Double delta) {
+        return delta == null ? "n/a" : String.format(Locale.ROOT, "%+.1f", delta);
+    }
+
+    private static String truncate(String value, int width) {
+        return value.length() <= width ? value : value.substring(0, width - 1) + "~";
+    }
+
+    private static final class Options {
+
+        static final String USAGE = """
+                usage: jtl-analyzer [options] <file.jtl>...
+                  --baseline <variant>          variant the others are compared with (default: first file)
+                  --max-p95-increase <pct>      allowed p95 increase over the baseline (default 10)
+                  --max-p99-increase <pct>      allowed p99 increase over the baseline (default 15)
+                  --max-throughput-drop <pct>   allowed throughput decrease (default 10)
+                  --max-error-rate <pct>        allowed error rate (default 1)
+                  --raw-labels                  keep labels as recorded (no /api or {id} folding)""";
+
+        final List<Path> files = new ArrayList<>();
+        String baseline;
+        double maxP95Increase = 10;
+        double maxP99Increase = 15;
+        double maxThroughputDrop = 10;
+        double maxErrorRate = 1;
+        boolean rawLabels;
+
+        static Options parse(String[] args) {
+            Options options = new Options();
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                switch (arg) {
+                    case "--baseline" -> options.baseline = value(args, ++i, arg);
+                    case "--max-p95-increase" -> options.maxP95Increase = number(args, ++i, arg);
+                    case "--max-p99-increase" -> options.maxP99Increase = number(args, ++i, arg);
+                    case "--max-throughput-drop" -> options.maxThroughputDrop = number(args, ++i, arg);
+                    case "--max-error-rate" -> options.maxErrorRate = number(args, ++i, arg);
+                    case "--raw-labels" -> options.rawLabels = true;
+                    default -> {
+                        if (arg.startsWith("--")) {
+                            throw new IllegalArgumentException("unknown option " + arg);
+                        }
+                        Path file = Path.of(arg);
+                        if (!Files.isRegularFile(file)) {
+                            throw new IllegalArgumentException("not a file: " + arg);
+                        }
+                        options.files.add(file);
+                    }
+                }
+            }
+            if (options.files.isEmpty()) {
+                throw new IllegalArgumentException("no JTL file given");
+            }
+            return options;
+        }
+
+        private static String value(String[] args, int index, String option) {
+            if (index >= args.length) {
+                throw new IllegalArgumentException(option + " requires a value");
+            }
+            return args[index];
+        }
+
+        private static double number(String[] args, int index, String option) {
+            try {
+                return Double.parseDouble(value(args, index, option));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(option + " expects a number");
+            }
+        }
+    }
+}
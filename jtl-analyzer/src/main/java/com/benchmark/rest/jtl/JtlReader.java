@@ -0,0 +1,105 @@
+package com.benchmark.rest.jtl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Streams the samples of a CSV JTL file (JMeter's default result format) one line at
+ * a time, so result files of any size can be aggregated in constant memory. Columns are
+ * located through the header line; {@code sentBytes} is optional for older JMeter versions.
+ */
+final class JtlReader {
+
+    private JtlReader() {
+    }
+
+    static long read(Path file, Consumer<JtlSample> sink) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String header = reader.readLine();
+            if (header == null) {
+                return 0;
+            }
+            List<String> columns = split(header);
+            int timeStamp = require(columns, "timeStamp", file);
+            int elapsed = require(columns, "elapsed", file);
+            int label = require(columns, "label", file);
+            int success = require(columns, "success", file);
+            int bytes = require(columns, "bytes", file);
+            int sentBytes = columns.indexOf("sentBytes");
+
+            long lines = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                List<String> fields = split(line);
+                try {
+                    sink.accept(new JtlSample(
+                            Long.parseLong(fields.get(timeStamp)),
+                            Integer.parseInt(fields.get(elapsed)),
+                            fields.get(label),
+                            Boolean.parseBoolean(fields.get(success)),
+                            parseLong(fields.get(bytes)),
+                            sentBytes >= 0 ? parseLong(fields.get(sentBytes)) : 0));
+                } catch (RuntimeException e) {
+                    throw new IOException(file + ": malformed sample on line " + (lines + 1) + ": " + line, e);
+                }
+            }
+            return lines;
+        }
+    }
+
+    private static int require(List<String> columns, String name, Path file) throws IOException {
+        int index = columns.indexOf(name);
+        if (index < 0) {
+            throw new IOException(file + ": missing JTL column '" + name + "' (CSV output with header expected)");
+        }
+        return index;
+    }
+
+    private static long parseLong(String value) {
+        return value.isEmpty() ? 0 : Long.parseLong(value);
+    }
+
+    /**
+     * Splits one CSV record, honouring the double quotes JMeter puts around labels and
+     * messages that contain the delimiter.
+     */
+    static List<String> split(String line) {
+        List<String> fields = new ArrayList<>(20);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
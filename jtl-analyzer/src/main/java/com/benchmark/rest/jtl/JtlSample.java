@@ -0,0 +1,11 @@
+package com.benchmark.rest.jtl;
+
+record JtlSample(
+        long timeStamp,
+        int elapsed,
+        String label,
+        boolean success,
+        long bytes,
+        long sentBytes
+) {
+}
@@ -0,0 +1,58 @@
+package com.benchmark.rest.jtl;
+
+import java.util.Arrays;
+
+/**
+ * Exact millisecond histogram. JTL elapsed times are whole milliseconds, so one counter
+ * per value gives exact percentiles in memory bounded by the slowest sample, whatever
+ * the number of samples.
+ */
+final class LatencyHistogram {
+
+    private long[] counts = new long[1024];
+    private long total;
+    private int max;
+
+    void record(int millis) {
+        int value = Math.max(millis, 0);
+        if (value >= counts.length) {
+            counts = Arrays.copyOf(counts, Math.max(value + 1, counts.length * 2));
+        }
+        counts[value]++;
+        total++;
+        max = Math.max(max, value);
+    }
+
+    void merge(LatencyHistogram other) {
+        if (other.counts.length > counts.length) {
+            counts = Arrays.copyOf(counts, other.counts.length);
+        }
+        for (int i = 0; i < other.counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        total += other.total;
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * Nearest-rank percentile, {@code 0} when nothing was recorded.
+     */
+    int percentile(double p) {
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(p / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i <= max; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return i;
+            }
+        }
+        return max;
+    }
+
+    int max() {
+        return max;
+    }
+}
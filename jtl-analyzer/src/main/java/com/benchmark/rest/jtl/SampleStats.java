@@ -0,0 +1,83 @@
+package com.benchmark.rest.jtl;
+
+/**
+ * Running aggregate for one label (or a whole run) of a JTL file.
+ */
+final class SampleStats {
+
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    private long count;
+    private long errors;
+    private long receivedBytes;
+    private long sentBytes;
+    private long firstStart = Long.MAX_VALUE;
+    private long lastEnd = Long.MIN_VALUE;
+
+    void add(JtlSample sample) {
+        latencies.record(sample.elapsed());
+        count++;
+        if (!sample.success()) {
+            errors++;
+        }
+        receivedBytes += sample.bytes();
+        sentBytes += sample.sentBytes();
+        firstStart = Math.min(firstStart, sample.timeStamp());
+        lastEnd = Math.max(lastEnd, sample.timeStamp() + sample.elapsed());
+    }
+
+    void merge(SampleStats other) {
+        latencies.merge(other.latencies);
+        count += other.count;
+        errors += other.errors;
+        receivedBytes += other.receivedBytes;
+        sentBytes += other.sentBytes;
+        firstStart = Math.min(firstStart, other.firstStart);
+        lastEnd = Math.max(lastEnd, other.lastEnd);
+    }
+
+    long count() {
+        return count;
+    }
+
+    int p50() {
+        return latencies.percentile(50);
+    }
+
+    int p95() {
+        return latencies.percentile(95);
+    }
+
+    int p99() {
+        return latencies.percentile(99);
+    }
+
+    int max() {
+        return latencies.max();
+    }
+
+    double errorRate() {
+        return count == 0 ? 0 : 100.0 * errors / count;
+    }
+
+    /**
+     * Requests per second over the wall-clock window the samples span.
+     */
+    double throughput() {
+        return count / windowSeconds();
+    }
+
+    double receivedKbPerSecond() {
+        return receivedBytes / 1024.0 / windowSeconds();
+    }
+
+    double sentKbPerSecond() {
+        return sentBytes / 1024.0 / windowSeconds();
+    }
+
+    private double windowSeconds() {
+        if (count == 0) {
+            return 1;
+        }
+        return Math.max(lastEnd - firstStart, 1) / 1000.0;
+    }
+}
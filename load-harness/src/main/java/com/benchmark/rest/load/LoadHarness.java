@@ -0,0 +1,290 @@
+package com.benchmark.rest.load;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * Offline load run: starts an embedded PostgreSQL, then for each variant creates a fresh
+ * database (schema and seed data come from the variant's own Flyway migrations), boots the
+ * variant's jar against it and replays the four JMeter scenarios. Samples are written as
+ * {@code <variant>-<scenario>.jtl}, readable by jtl-analyzer.
+ *
+ * <pre>
+ * java -cp load-harness/target/classes:... com.benchmark.rest.load.LoadHarness --root . [options]
+ * </pre>
+ *
+ * Exits with status 1 when a scenario exceeds the error rate or p95 limit, or regresses
+ * against the baseline, so {@code mvn verify} fails.
+ */
+public final class LoadHarness {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(3);
+
+    private LoadHarness() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options;
+        try {
+            options = Options.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(Options.USAGE);
+            System.exit(2);
+            return;
+        }
+        Files.createDirectories(options.results);
+
+        List<Result> results = new ArrayList<>();
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.builder().start()) {
+            for (String variant : options.variants) {
+                results.addAll(run(postgres, variant, options));
+            }
+        }
+
+        Properties baseline = loadBaseline(options.baseline);
+        int failures = report(System.out, results, baseline, options);
+        writeSummary(options.results.resolve("summary.properties"), results);
+        System.exit(failures > 0 ? 1 : 0);
+    }
+
+    private static List<Result> run(EmbeddedPostgres postgres, String variant, Options options) throws Exception {
+        String database = variant.replace('-', '_');
+        try (Connection connection = postgres.getPostgresDatabase().getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE DATABASE " + database);
+        } catch (SQLException e) {
+            throw new IOException("cannot create database " + database, e);
+        }
+
+        Map<String, String> settings = Map.of(
+                "SEED_CATEGORIES", Integer.toString(options.categories),
+                "SEED_ITEMS", Integer.toString(options.items));
+        Path log = options.results.resolve(variant + ".log");
+        System.out.printf("%n>> %s (log: %s)%n", variant, log);
+
+        List<Result> results = new ArrayList<>();
+        try (VariantProcess app = VariantProcess.start(options.root, variant, "localhost", postgres.getPort(),
+                database, settings, log)) {
+            app.awaitHealthy(STARTUP_TIMEOUT);
+            ScenarioRunner runner = new ScenarioRunner(app.baseUrl(), options.threads, options.categories, options.items);
+            for (Scenario scenario : Scenario.values()) {
+                if (options.warmup > 0) {
+                    runner.run(scenario, Duration.ofSeconds(options.warmup));
+                }
+                List<Sample> samples = runner.run(scenario, Duration.ofSeconds(options.duration));
+                writeJtl(options.results.resolve(variant + "-" + scenario.fileName() + ".jtl"), samples);
+                Result result = Result.of(variant, scenario.fileName(), samples);
+                System.out.printf(Locale.ROOT, "   %-12s %8d requests  p95 %5d ms  %6.2f%% errors%n",
+                        scenario.fileName(), result.count, result.p95, result.errorRate());
+                results.add(result);
+            }
+        }
+        return results;
+    }
+
+    private static void writeJtl(Path file, List<Sample> samples) throws IOException {
+        List<Sample> ordered = new ArrayList<>(samples);
+        ordered.sort(Comparator.comparingLong(Sample::timeStamp));
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write(Sample.JTL_HEADER);
+            writer.newLine();
+            for (Sample sample : ordered) {
+                writer.write(sample.toJtlLine());
+                writer.newLine();
+            }
+        }
+    }
+
+    private static int report(PrintStream out, List<Result> results, Properties baseline, Options options) {
+        out.printf("%n%-22s %-12s %8s %7s %7s %7s %7s %9s %6s %9s  %s%n",
+                "variant", "scenario", "n", "p50", "p95", "p99", "max", "req/s", "err%", "base p95", "verdict");
+        int failures = 0;
+        for (Result result : results) {
+            List<String> reasons = new ArrayList<>();
+            if (result.errorRate() > options.maxErrorRate) {
+                reasons.add("errors");
+            }
+            if (result.p95 > options.maxP95) {
+                reasons.add("p95");
+            }
+            String reference = baseline.getProperty(result.key() + ".p95");
+            if (reference != null) {
+                int referenceP95 = Integer.parseInt(reference.trim());
+                // Below a few milliseconds the relative change is noise
+                if (result.p95 - referenceP95 > 5
+                        && result.p95 > referenceP95 * (1 + options.maxP95Increase / 100.0)) {
+                    reasons.add("p95 vs baseline");
+                }
+            }
+            failures += reasons.isEmpty() ? 0 : 1;
+            out.printf(Locale.ROOT, "%-22s %-12s %8d %7d %7d %7d %7d %9.1f %6.2f %9s  %s%n",
+                    result.variant, result.scenario, result.count, result.p50, result.p95, result.p99, result.max,
+                    result.throughput(), result.errorRate(), reference != null ? reference.trim() : "-",
+                    reasons.isEmpty() ? "ok" : "FAILED " + String.join(",", reasons));
+        }
+        out.printf("%n%d failure(s) (error rate <= %.1f%%, p95 <= %d ms, p95 <= baseline +%.0f%%)%n",
+                failures, options.maxErrorRate, options.maxP95, options.maxP95Increase);
+        return failures;
+    }
+
+    private static Properties loadBaseline(Path file) throws IOException {
+        Properties baseline = new Properties();
+        if (file != null && Files.isRegularFile(file)) {
+            try (InputStream in = Files.newInputStream(file)) {
+                baseline.load(in);
+            }
+        }
+        return baseline;
+    }
+
+    /**
+     * Same keys as the baseline: copy it over {@code load-harness/baseline.properties} to
+     * make this run the reference.
+     */
+    private static void writeSummary(Path file, List<Result> results) throws IOException {
+        Map<String, String> summary = new TreeMap<>();
+        for (Result result : results) {
+            summary.put(result.key() + ".p95", Integer.toString(result.p95));
+            summary.put(result.key() + ".p99", Integer.toString(result.p99));
+            summary.put(result.key() + ".throughput", String.format(Locale.ROOT, "%.1f", result.throughput()));
+            summary.put(result.key() + ".error-rate", String.format(Locale.ROOT, "%.2f", result.errorRate()));
+        }
+        List<String> lines = new ArrayList<>();
+        lines.add("# load-harness summary, usable as --baseline");
+        summary.forEach((key, value) -> lines.add(key + "=" + value));
+        Files.write(file, lines, StandardCharsets.UTF_8);
+    }
+
+    private record Result(String variant, String scenario, int count, int errors,
+                          int p50, int p95, int p99, int max, long windowMillis) {
+
+        static Result of(String variant, String scenario, List<Sample> samples) {
+            int[] elapsed = samples.stream().mapToInt(Sample::elapsed).sorted().toArray();
+            int errors = (int) samples.stream().filter(s -> !s.success()).count();
+            long first = samples.stream().mapToLong(Sample::timeStamp).min().orElse(0);
+            long last = samples.stream().mapToLong(s -> s.timeStamp() + s.elapsed()).max().orElse(0);
+            return new Result(variant, scenario, elapsed.length, errors,
+                    percentile(elapsed, 50), percentile(elapsed, 95), percentile(elapsed, 99),
+                    elapsed.length == 0 ? 0 : elapsed[elapsed.length - 1], Math.max(last - first, 1));
+        }
+
+        /**
+         * Nearest-rank percentile of a sorted array, {@code 0} when empty.
+         */
+        private static int percentile(int[] sorted, double p) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.max(1, Math.ceil(p / 100.0 * sorted.length));
+            return sorted[rank - 1];
+        }
+
+        String key() {
+            return variant + "." + scenario;
+        }
+
+        double errorRate() {
+            return count == 0 ? 0 : 100.0 * errors / count;
+        }
+
+        double throughput() {
+            return count * 1000.0 / windowMillis;
+        }
+    }
+
+    private static final class Options {
+
+        static final String USAGE = """
+                usage: load-harness --root <repository> [options]
+                  --results <dir>               JTL files, logs and summary (default target/load-results)
+                  --variants <a,b,...>          variants to run, in order (default: all four)
+                  --threads <n>                 concurrent threads per scenario (default 16)
+                  --warmup <s>                  unrecorded run before each scenario (default 5)
+                  --duration <s>                recorded run of each scenario (default 15)
+                  --categories <n>              seeded categories (default 20)
+                  --items <n>                   seeded items (default 10000)
+                  --max-error-rate <pct>        allowed error rate per scenario (default 1)
+                  --max-p95 <ms>                allowed p95 per scenario (default 2000)
+                  --baseline <file>             summary.properties of a reference run (ignored if missing)
+                  --max-p95-increase <pct>      allowed p95 increase over the baseline (default 25)""";
+
+        Path root;
+        Path results = Path.of("target", "load-results");
+        List<String> variants = List.of("variant-a-jersey", "variant-c-springmvc", "variant-d-datarest", "variant-e-webflux");
+        int threads = 16;
+        int warmup = 5;
+        int duration = 15;
+        int categories = 20;
+        int items = 10_000;
+        double maxErrorRate = 1;
+        int maxP95 = 2000;
+        Path baseline;
+        double maxP95Increase = 25;
+
+        static Options parse(String[] args) {
+            Options options = new Options();
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                switch (arg) {
+                    case "--root" -> options.root = Path.of(value(args, ++i, arg)).toAbsolutePath().normalize();
+                    case "--results" -> options.results = Path.of(value(args, ++i, arg));
+                    case "--variants" -> options.variants = Arrays.stream(value(args, ++i, arg).split(","))
+                            .map(String::trim).filter(v -> !v.isEmpty()).toList();
+                    case "--threads" -> options.threads = (int) number(args, ++i, arg);
+                    case "--warmup" -> options.warmup = (int) number(args, ++i, arg);
+                    case "--duration" -> options.duration = (int) number(args, ++i, arg);
+                    case "--categories" -> options.categories = (int) number(args, ++i, arg);
+                    case "--items" -> options.items = (int) number(args, ++i, arg);
+                    case "--max-error-rate" -> options.maxErrorRate = number(args, ++i, arg);
+                    case "--max-p95" -> options.maxP95 = (int) number(args, ++i, arg);
+                    case "--baseline" -> options.baseline = Path.of(value(args, ++i, arg));
+                    case "--max-p95-increase" -> options.maxP95Increase = number(args, ++i, arg);
+                    default -> throw new IllegalArgumentException("unknown option " + arg);
+                }
+            }
+            if (options.root == null) {
+                throw new IllegalArgumentException("--root is required");
+            }
+            if (options.variants.isEmpty() || options.threads < 1 || options.duration < 1
+                    || options.categories < 1 || options.items < 1) {
+                throw new IllegalArgumentException("variants, threads, duration, categories and items must be set");
+            }
+            return options;
+        }
+
+        private static String value(String[] args, int index, String option) {
+            if (index >= args.length) {
+                throw new IllegalArgumentException(option + " requires a value");
+            }
+            return args[index];
+        }
+
+        private static double number(String[] args, int index, String option) {
+            try {
+                return Double.parseDouble(value(args, index, option));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(option + " expects a number");
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.benchmark.rest.load;
+
+/**
+ * One request, with the columns of a JMeter CSV result line.
+ */
+record Sample(
+        long timeStamp,
+        int elapsed,
+        String label,
+        int responseCode,
+        boolean success,
+        String failureMessage,
+        long bytes,
+        long sentBytes,
+        String threadName,
+        String url
+) {
+
+    static final String JTL_HEADER =
+            "timeStamp,elapsed,label,responseCode,responseMessage,threadName,dataType,success,failureMessage,bytes,sentBytes,URL";
+
+    String toJtlLine() {
+        return timeStamp + "," + elapsed + "," + quote(label) + "," + responseCode + ",," + quote(threadName)
+                + ",text," + success + "," + quote(failureMessage) + "," + bytes + "," + sentBytes + "," + quote(url);
+    }
+
+    private static String quote(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,98 @@
+package com.benchmark.rest.load;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * The four plans of {@code jmeter/plans}, replayed step by step: same paths, bodies and
+ * order, labels named like the JMeter samplers so the JTL files compare with recorded runs.
+ */
+enum Scenario {
+
+    READ_HEAVY("read-heavy", List.of(
+            Step.get("/items?page=0&size=50"),
+            Step.get("/items?categoryId=1&page=0&size=20"),
+            Step.get("/categories/1/items?page=0&size=20"),
+            Step.get("/categories?page=0&size=20"))),
+
+    JOIN_FILTER("join-filter", List.of(
+            Step.get("/items?categoryId=1&page=0&size=20"),
+            new Step("GET", "/items/{id}", c -> "/items/" + c.randomItemId(), null, null),
+            Step.get("/items?categoryId=2&page=0&size=20"))),
+
+    HEAVY_BODY("heavy-body", List.of(
+            new Step("POST", "/items", c -> "/items", c -> itemJson("HB-" + c.unique(), 19.99, 10, c, true), null),
+            new Step("PUT", "/items/{id}", c -> "/items/" + c.randomItemId(),
+                    c -> itemJson("HB-PUT-" + c.unique(), 24.99, 5, c, true), null))),
+
+    MIXED("mixed", List.of(
+            Step.get("/items?page=0&size=20"),
+            new Step("POST", "/items", c -> "/items",
+                    c -> itemJson("MX-" + c.unique(), 19.99, 10, c, false), "itemId"),
+            new Step("PUT", "/items/{id}", c -> "/items/" + c.captured("itemId"),
+                    c -> itemJson("MX-PUT-" + c.unique(), 29.99, 3, c, false), null),
+            new Step("DELETE", "/items/{id}", c -> "/items/" + c.captured("itemId"), null, null),
+            new Step("POST", "/categories", c -> "/categories",
+                    c -> "{\"code\":\"C" + c.unique() + "\",\"name\":\"Category MX\"}", "categoryId"),
+            new Step("PUT", "/categories/{id}", c -> "/categories/" + c.captured("categoryId"),
+                    c -> "{\"code\":\"C" + c.unique() + "\",\"name\":\"Category MX renamed\"}", null)));
+
+    private final String fileName;
+    private final List<Step> steps;
+
+    Scenario(String fileName, List<Step> steps) {
+        this.fileName = fileName;
+        this.steps = steps;
+    }
+
+    String fileName() {
+        return fileName;
+    }
+
+    List<Step> steps() {
+        return steps;
+    }
+
+    /**
+     * Item body; {@code padded} adds the ~5 KB {@code description} field the heavy-body plan
+     * sends and the variants ignore.
+     */
+    private static String itemJson(String sku, double price, int stock, Context context, boolean padded) {
+        return "{\"sku\":\"" + sku + "\",\"name\":\"Item\",\"price\":" + price + ",\"stock\":" + stock
+                + ",\"category\":{\"id\":" + context.randomCategoryId() + "}"
+                + (padded ? ",\"description\":\"" + context.padding() + "\"" : "") + "}";
+    }
+
+    /**
+     * One sampler: {@code label} is the path template, {@code capture} names the variable the
+     * {@code id} of the response body is stored in, like the plans' JSON extractors.
+     */
+    record Step(
+            String method,
+            String label,
+            Function<Context, String> path,
+            Function<Context, String> body,
+            String capture
+    ) {
+
+        static Step get(String path) {
+            return new Step("GET", path, c -> path, null, null);
+        }
+    }
+
+    /**
+     * Per-thread state the steps draw from.
+     */
+    interface Context {
+
+        long randomItemId();
+
+        long randomCategoryId();
+
+        String unique();
+
+        String padding();
+
+        long captured(String name);
+    }
+}
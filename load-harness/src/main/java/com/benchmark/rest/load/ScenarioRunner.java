@@ -0,0 +1,185 @@
+package com.benchmark.rest.load;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Closed-loop load against one running variant: each thread runs the steps of a scenario
+ * back to back until the deadline, like a JMeter thread group with no think time.
+ */
+final class ScenarioRunner {
+
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+    private static final String PADDING_CHARS = "abcdefghijklmnopqrstuvwxyz0123456789";
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final AtomicLong unique = new AtomicLong();
+    private final String baseUrl;
+    private final int threads;
+    private final int categories;
+    private final int items;
+
+    ScenarioRunner(String baseUrl, int threads, int categories, int items) {
+        this.baseUrl = baseUrl;
+        this.threads = threads;
+        this.categories = categories;
+        this.items = items;
+    }
+
+    /**
+     * Runs {@code scenario} for {@code duration} and returns every sample, in completion order
+     * per thread.
+     */
+    List<Sample> run(Scenario scenario, Duration duration) throws InterruptedException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<List<Sample>>> workers = new ArrayList<>();
+            for (int i = 1; i <= threads; i++) {
+                String threadName = scenario.fileName() + " 1-" + i;
+                workers.add(executor.submit(() -> loop(scenario, threadName, deadline)));
+            }
+            List<Sample> samples = new ArrayList<>();
+            for (Future<List<Sample>> worker : workers) {
+                samples.addAll(worker.get());
+            }
+            return samples;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("load thread failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private List<Sample> loop(Scenario scenario, String threadName, long deadline) {
+        List<Sample> samples = new ArrayList<>();
+        ThreadContext context = new ThreadContext();
+        while (System.nanoTime() < deadline) {
+            for (Scenario.Step step : scenario.steps()) {
+                samples.add(execute(step, context, threadName));
+            }
+        }
+        return samples;
+    }
+
+    private Sample execute(Scenario.Step step, ThreadContext context, String threadName) {
+        String url = baseUrl + step.path().apply(context);
+        String body = step.body() != null ? step.body().apply(context) : null;
+        byte[] sent = body != null ? body.getBytes(StandardCharsets.UTF_8) : new byte[0];
+
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofSeconds(30))
+                .header("Accept", "application/json")
+                .header("Accept-Encoding", "gzip");
+        if (body != null) {
+            request.header("Content-Type", "application/json")
+                    .method(step.method(), HttpRequest.BodyPublishers.ofByteArray(sent));
+        } else {
+            request.method(step.method(), HttpRequest.BodyPublishers.noBody());
+        }
+
+        long timeStamp = System.currentTimeMillis();
+        long start = System.nanoTime();
+        int status = 0;
+        byte[] received = new byte[0];
+        String failure = "";
+        try {
+            HttpResponse<byte[]> response = client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+            status = response.statusCode();
+            received = response.body();
+            if (step.capture() != null && status < 400) {
+                context.captures.put(step.capture(), extractId(response));
+            }
+        } catch (IOException e) {
+            failure = e.toString();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure = e.toString();
+        }
+        int elapsed = (int) ((System.nanoTime() - start) / 1_000_000);
+        return new Sample(timeStamp, elapsed, step.method() + " " + baseLabel() + step.label(), status,
+                status >= 200 && status < 400, failure, received.length, sent.length, threadName, url);
+    }
+
+    private String baseLabel() {
+        return URI.create(baseUrl).getPath();
+    }
+
+    /**
+     * {@code $.id} of the response, {@code 0} when absent (the plans' extractor default).
+     */
+    private static long extractId(HttpResponse<byte[]> response) {
+        byte[] body = response.body();
+        if (response.headers().firstValue("Content-Encoding").filter("gzip"::equalsIgnoreCase).isPresent()) {
+            try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+                body = in.readAllBytes();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        Matcher matcher = ID.matcher(new String(body, StandardCharsets.UTF_8));
+        return matcher.find() ? Long.parseLong(matcher.group(1)) : 0;
+    }
+
+    private final class ThreadContext implements Scenario.Context {
+
+        private final Map<String, Long> captures = new HashMap<>();
+        private String padding;
+
+        @Override
+        public long randomItemId() {
+            return ThreadLocalRandom.current().nextLong(1, items + 1L);
+        }
+
+        @Override
+        public long randomCategoryId() {
+            return ThreadLocalRandom.current().nextLong(1, categories + 1L);
+        }
+
+        @Override
+        public String unique() {
+            return Long.toString(unique.incrementAndGet(), 36);
+        }
+
+        @Override
+        public String padding() {
+            if (padding == null) {
+                StringBuilder builder = new StringBuilder(4800);
+                for (int i = 0; i < 4800; i++) {
+                    builder.append(PADDING_CHARS.charAt(ThreadLocalRandom.current().nextInt(PADDING_CHARS.length())));
+                }
+                padding = builder.toString();
+            }
+            return padding;
+        }
+
+        @Override
+        public long captured(String name) {
+            return captures.getOrDefault(name, 0L);
+        }
+    }
+}
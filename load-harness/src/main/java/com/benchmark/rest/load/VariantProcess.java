@@ -0,0 +1,123 @@
+package com.benchmark.rest.load;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * One variant's executable jar started as a child JVM on a free port, pointed at its own
+ * database through the same environment variables as a manual run.
+ */
+final class VariantProcess implements AutoCloseable {
+
+    private static final Map<String, Paths> PATHS = Map.of(
+            "variant-a-jersey", new Paths("/api", "/api/actuator/health"),
+            "variant-c-springmvc", new Paths("", "/actuator/health"),
+            "variant-d-datarest", new Paths("/api", "/actuator/health"),
+            "variant-e-webflux", new Paths("", "/actuator/health"));
+
+    private final String name;
+    private final Process process;
+    private final int port;
+    private final Path log;
+
+    private VariantProcess(String name, Process process, int port, Path log) {
+        this.name = name;
+        this.process = process;
+        this.port = port;
+        this.log = log;
+    }
+
+    static VariantProcess start(Path root, String name, String host, int databasePort, String database,
+                                Map<String, String> settings, Path log) throws IOException {
+        if (!PATHS.containsKey(name)) {
+            throw new IllegalArgumentException("unknown variant " + name + ", expected one of " + PATHS.keySet());
+        }
+        Path jar = jar(root.resolve(name).resolve("target"), name);
+        int port = freePort();
+
+        ProcessBuilder builder = new ProcessBuilder(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(), "-jar", jar.toString());
+        Map<String, String> env = builder.environment();
+        env.putAll(settings);
+        env.put("SERVER_PORT", Integer.toString(port));
+        env.put("DB_URL", "jdbc:postgresql://" + host + ":" + databasePort + "/" + database);
+        env.put("R2DBC_URL", "r2dbc:postgresql://" + host + ":" + databasePort + "/" + database);
+        env.put("DB_USER", "postgres");
+        env.put("DB_PASSWORD", "postgres");
+        builder.redirectErrorStream(true).redirectOutput(log.toFile());
+        return new VariantProcess(name, builder.start(), port, log);
+    }
+
+    String baseUrl() {
+        return "http://localhost:" + port + PATHS.get(name).base();
+    }
+
+    /**
+     * Polls the actuator health endpoint until it answers 200.
+     */
+    void awaitHealthy(Duration timeout) throws IOException, InterruptedException {
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest health = HttpRequest.newBuilder(URI.create("http://localhost:" + port + PATHS.get(name).health()))
+                .timeout(Duration.ofSeconds(5))
+                .build();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IOException(name + " exited with status " + process.exitValue() + ", see " + log);
+            }
+            try {
+                if (client.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // not listening yet
+            }
+            Thread.sleep(500);
+        }
+        throw new IOException(name + " not healthy after " + timeout.toSeconds() + " s, see " + log);
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(20, TimeUnit.SECONDS)) {
+            process.destroyForcibly().waitFor();
+        }
+    }
+
+    private static Path jar(Path target, String name) throws IOException {
+        if (!Files.isDirectory(target)) {
+            throw new IOException("no " + target + ", package " + name + " first");
+        }
+        try (Stream<Path> files = Files.list(target)) {
+            List<Path> jars = files
+                    .filter(f -> f.getFileName().toString().startsWith(name + "-"))
+                    .filter(f -> f.getFileName().toString().endsWith(".jar"))
+                    .toList();
+            if (jars.size() != 1) {
+                throw new IOException("expected one " + name + " jar in " + target + ", found " + jars);
+            }
+            return jars.get(0);
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private record Paths(String base, String health) {
+    }
+}
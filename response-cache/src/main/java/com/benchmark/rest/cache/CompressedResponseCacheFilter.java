@@ -0,0 +1,142 @@
+package com.benchmark.rest.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.filter.ServerHttpObservationFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps rendered {@code GET} pages of one collection both raw and gzip-compressed, keyed by
+ * query string, Accept and Host. Hits are written from the stored bytes, skipping the handler,
+ * serialization and the connector's compression. Any other method under the collection drops
+ * every entry; pages rendered while a write was in flight are not stored.
+ */
+public class CompressedResponseCacheFilter extends OncePerRequestFilter {
+
+    private final String collectionPath;
+    private final Cache<String, CachedResponse> cache;
+    private final AtomicLong generation = new AtomicLong();
+
+    public CompressedResponseCacheFilter(String collectionPath, long maximumSize) {
+        this.collectionPath = collectionPath;
+        this.cache = Caffeine.newBuilder().maximumSize(maximumSize).build();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+
+        if (!HttpMethod.GET.matches(request.getMethod())) {
+            if (HttpMethod.HEAD.matches(request.getMethod()) || HttpMethod.OPTIONS.matches(request.getMethod())) {
+                chain.doFilter(request, response);
+                return;
+            }
+            generation.incrementAndGet();
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                generation.incrementAndGet();
+                cache.invalidateAll();
+            }
+            return;
+        }
+        if (!collectionPath.equals(request.getRequestURI())) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        String key = request.getHeader(HttpHeaders.HOST) + '\n'
+                + request.getHeader(HttpHeaders.ACCEPT) + '\n'
+                + request.getQueryString();
+        CachedResponse cached = cache.getIfPresent(key);
+        if (cached != null) {
+            ServerHttpObservationFilter.findObservationContext(request)
+                    .ifPresent(context -> context.setPathPattern(collectionPath));
+            cached.writeTo(request, response);
+            return;
+        }
+
+        long observed = generation.get();
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        chain.doFilter(request, wrapper);
+        if (wrapper.getStatus() == HttpServletResponse.SC_OK
+                && wrapper.getHeader(HttpHeaders.CONTENT_ENCODING) == null
+                && generation.get() == observed) {
+            cache.put(key, CachedResponse.of(wrapper));
+        }
+        wrapper.copyBodyToResponse();
+    }
+
+    private record CachedResponse(
+            String contentType,
+            String etag,
+            long lastModified,
+            List<String> vary,
+            byte[] body,
+            byte[] gzipped
+    ) {
+
+        static CachedResponse of(ContentCachingResponseWrapper response) throws IOException {
+            byte[] body = response.getContentAsByteArray();
+            ByteArrayOutputStream gzipped = new ByteArrayOutputStream(body.length / 4 + 64);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(gzipped)) {
+                gzip.write(body);
+            }
+            String lastModified = response.getHeader(HttpHeaders.LAST_MODIFIED);
+            return new CachedResponse(
+                    response.getContentType(),
+                    response.getHeader(HttpHeaders.ETAG),
+                    lastModified != null
+                            ? ZonedDateTime.parse(lastModified, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli()
+                            : -1,
+                    List.copyOf(response.getHeaders(HttpHeaders.VARY)),
+                    body,
+                    gzipped.toByteArray());
+        }
+
+        void writeTo(HttpServletRequest request, HttpServletResponse response) throws IOException {
+            vary.forEach(value -> response.addHeader(HttpHeaders.VARY, value));
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+                return;
+            }
+            byte[] bytes = body;
+            if (gzipped.length < body.length && acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+                response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+                bytes = gzipped;
+            }
+            response.setContentType(contentType);
+            response.setContentLength(bytes.length);
+            response.getOutputStream().write(bytes);
+        }
+
+        private static boolean acceptsGzip(String acceptEncoding) {
+            if (acceptEncoding == null) {
+                return false;
+            }
+            for (String coding : acceptEncoding.split(",")) {
+                String[] parts = coding.trim().split(";");
+                if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                    return parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+                }
+            }
+            return false;
+        }
+    }
+}
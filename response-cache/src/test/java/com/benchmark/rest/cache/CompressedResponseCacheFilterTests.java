@@ -0,0 +1,146 @@
+package com.benchmark.rest.cache;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompressedResponseCacheFilterTests {
+
+    private static final String PAGE = "{\"content\":[" + "{\"id\":1,\"code\":\"CAT1\"},".repeat(200) + "{}]}";
+
+    private final CompressedResponseCacheFilter filter = new CompressedResponseCacheFilter("/categories", 16);
+    private final AtomicInteger rendered = new AtomicInteger();
+    private final FilterChain page = (request, response) -> {
+        rendered.incrementAndGet();
+        HttpServletResponse http = (HttpServletResponse) response;
+        http.setContentType("application/json");
+        http.setHeader(HttpHeaders.ETAG, "W/\"5-42\"");
+        http.getOutputStream().write(PAGE.getBytes(StandardCharsets.UTF_8));
+    };
+
+    @Test
+    void repeatsAreServedWithoutTheHandler() throws Exception {
+        MockHttpServletResponse first = get("page=0", page);
+        MockHttpServletResponse second = get("page=0", page);
+
+        assertThat(rendered).hasValue(1);
+        assertThat(second.getContentAsString()).isEqualTo(first.getContentAsString()).isEqualTo(PAGE);
+        assertThat(second.getContentType()).isEqualTo("application/json");
+        assertThat(second.getHeaders(HttpHeaders.VARY)).contains(HttpHeaders.ACCEPT_ENCODING);
+
+        get("page=1", page);
+        assertThat(rendered).hasValue(2);
+    }
+
+    @Test
+    void hitsAreGzippedOnlyWhenAccepted() throws Exception {
+        get("page=0", page);
+
+        MockHttpServletRequest gzip = request("GET", "page=0");
+        gzip.addHeader(HttpHeaders.ACCEPT_ENCODING, "deflate, gzip;q=0.8");
+        MockHttpServletResponse compressed = filter(gzip, page);
+        assertThat(compressed.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(compressed.getContentAsByteArray().length).isLessThan(PAGE.length());
+        assertThat(gunzip(compressed.getContentAsByteArray())).isEqualTo(PAGE);
+
+        MockHttpServletRequest refused = request("GET", "page=0");
+        refused.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0");
+        MockHttpServletResponse plain = filter(refused, page);
+        assertThat(plain.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(plain.getContentAsString()).isEqualTo(PAGE);
+        assertThat(rendered).hasValue(1);
+    }
+
+    @Test
+    void hitsAnswerConditionalRequests() throws Exception {
+        get("page=0", page);
+
+        MockHttpServletRequest revalidation = request("GET", "page=0");
+        revalidation.addHeader(HttpHeaders.IF_NONE_MATCH, "W/\"5-42\"");
+        MockHttpServletResponse response = filter(revalidation, page);
+
+        assertThat(response.getStatus()).isEqualTo(304);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+        assertThat(rendered).hasValue(1);
+    }
+
+    @Test
+    void writesDropEveryEntry() throws Exception {
+        get("page=0", page);
+        get("page=1", page);
+
+        filter(request("PUT", null), (request, response) -> { });
+        get("page=0", page);
+        get("page=1", page);
+        assertThat(rendered).hasValue(4);
+
+        filter(request("HEAD", "page=0"), (request, response) -> { });
+        get("page=0", page);
+        assertThat(rendered).hasValue(4);
+    }
+
+    @Test
+    void pagesRenderedDuringAWriteAreNotStored() throws Exception {
+        FilterChain racing = (request, response) -> {
+            filter(request("POST", null), (writeRequest, writeResponse) -> { });
+            page.doFilter(request, response);
+        };
+        get("page=0", racing);
+        get("page=0", page);
+
+        assertThat(rendered).hasValue(2);
+    }
+
+    @Test
+    void onlySuccessfulCollectionPagesAreStored() throws Exception {
+        FilterChain missing = (request, response) -> {
+            rendered.incrementAndGet();
+            ((HttpServletResponse) response).setStatus(404);
+        };
+        get("page=0", missing);
+        get("page=0", missing);
+
+        MockHttpServletRequest single = request("GET", null);
+        single.setRequestURI("/categories/1");
+        filter(single, page);
+        filter(single, page);
+
+        assertThat(rendered).hasValue(4);
+    }
+
+    private MockHttpServletResponse get(String query, FilterChain chain) throws ServletException, IOException {
+        return filter(request("GET", query), chain);
+    }
+
+    private MockHttpServletResponse filter(MockHttpServletRequest request, FilterChain chain)
+            throws ServletException, IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String method, String query) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/categories");
+        request.setQueryString(query);
+        request.addHeader(HttpHeaders.ACCEPT, "application/json");
+        return request;
+    }
+
+    private static String gunzip(byte[] bytes) throws IOException {
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.benchmark.rest.testing;
+
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Exchanges with a variant started on a random port. Bodies are maps written by Jackson;
+ * responses come back as {@link ApiResponse} whatever their status.
+ */
+public class ApiClient {
+
+    private final TestRestTemplate rest;
+    private final String basePath;
+
+    /**
+     * @param basePath prefix of every path, {@code /api} or empty
+     */
+    public ApiClient(TestRestTemplate rest, String basePath) {
+        // The default HttpURLConnection cannot send PATCH
+        rest.getRestTemplate().setRequestFactory(new JdkClientHttpRequestFactory());
+        this.rest = rest;
+        this.basePath = basePath;
+    }
+
+    public ApiResponse get(String path) {
+        return exchange(HttpMethod.GET, path, null, new HttpHeaders());
+    }
+
+    public ApiResponse get(String path, HttpHeaders headers) {
+        return exchange(HttpMethod.GET, path, null, headers);
+    }
+
+    public ApiResponse post(String path, Object body) {
+        return exchange(HttpMethod.POST, path, body, new HttpHeaders());
+    }
+
+    public ApiResponse put(String path, Object body) {
+        return exchange(HttpMethod.PUT, path, body, new HttpHeaders());
+    }
+
+    public ApiResponse patch(String path, Object body) {
+        return exchange(HttpMethod.PATCH, path, body, new HttpHeaders());
+    }
+
+    public ApiResponse delete(String path) {
+        return exchange(HttpMethod.DELETE, path, null, new HttpHeaders());
+    }
+
+    public ApiResponse exchange(HttpMethod method, String path, Object body, HttpHeaders headers) {
+        HttpHeaders request = new HttpHeaders();
+        request.putAll(headers);
+        if (body != null && request.getContentType() == null) {
+            request.setContentType(MediaType.APPLICATION_JSON);
+        }
+        ResponseEntity<byte[]> response = rest.exchange(basePath + path, method, new HttpEntity<>(body, request), byte[].class);
+        return new ApiResponse(response.getStatusCode(), response.getHeaders(), response.getBody());
+    }
+
+    public static HttpHeaders header(String name, String value) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(name, value);
+        return headers;
+    }
+
+    /**
+     * Fields of a new item with a unique SKU.
+     */
+    public static Map<String, Object> newItem(int stock, long categoryId) {
+        Map<String, Object> item = new LinkedHashMap<>();
+        item.put("sku", "T-" + UUID.randomUUID());
+        item.put("name", "Test item");
+        item.put("price", new BigDecimal("9.99"));
+        item.put("stock", stock);
+        item.put("category", Map.of("id", categoryId));
+        return item;
+    }
+}
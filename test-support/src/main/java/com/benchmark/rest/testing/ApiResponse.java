@@ -0,0 +1,54 @@
+package com.benchmark.rest.testing;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Status, headers and raw body of one exchange; the body is only parsed on demand, since
+ * error pages, 304s and binary formats are not JSON.
+ */
+public record ApiResponse(HttpStatusCode status, HttpHeaders headers, byte[] body) {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    public int statusCode() {
+        return status.value();
+    }
+
+    public String etag() {
+        return headers.getETag();
+    }
+
+    /**
+     * The {@code @Version} in a strong single-entity tag such as {@code "7"} or {@code "7-cbor"}.
+     */
+    public long version() {
+        String tag = etag().replace("\"", "");
+        int format = tag.indexOf('-');
+        return Long.parseLong(format > 0 ? tag.substring(0, format) : tag);
+    }
+
+    public String header(String name) {
+        return headers.getFirst(name);
+    }
+
+    public JsonNode json() {
+        return read(JSON);
+    }
+
+    /**
+     * @param mapper a CBOR or Smile mapper for binary bodies
+     */
+    public JsonNode read(ObjectMapper mapper) {
+        try {
+            return mapper.readTree(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
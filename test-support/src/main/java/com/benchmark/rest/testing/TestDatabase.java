@@ -0,0 +1,68 @@
+package com.benchmark.rest.testing;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.test.context.DynamicPropertyRegistry;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * One embedded PostgreSQL per test JVM, started on first use and stopped when the JVM exits,
+ * so that every Spring test context of a module shares it. The variant's Flyway migrations
+ * seed it once; tests add their own rows next to the seed rather than relying on a clean
+ * database.
+ */
+public final class TestDatabase {
+
+    private static final String DATABASE = "postgres";
+    private static final String USER = "postgres";
+
+    private TestDatabase() {
+    }
+
+    /**
+     * {@code spring.datasource.*} of the JPA / JDBC variants.
+     */
+    public static void jdbc(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", TestDatabase::jdbcUrl);
+        registry.add("spring.datasource.username", () -> USER);
+        registry.add("spring.datasource.password", () -> USER);
+    }
+
+    /**
+     * {@code spring.r2dbc.*} of the reactive variant; Flyway still migrates over JDBC.
+     */
+    public static void r2dbc(DynamicPropertyRegistry registry) {
+        registry.add("spring.r2dbc.url", () -> "r2dbc:postgresql://localhost:" + Holder.POSTGRES.getPort() + "/" + DATABASE);
+        registry.add("spring.r2dbc.username", () -> USER);
+        registry.add("spring.r2dbc.password", () -> USER);
+        registry.add("spring.flyway.url", TestDatabase::jdbcUrl);
+        registry.add("spring.flyway.user", () -> USER);
+        registry.add("spring.flyway.password", () -> USER);
+    }
+
+    private static String jdbcUrl() {
+        return Holder.POSTGRES.getJdbcUrl(USER, DATABASE);
+    }
+
+    private static final class Holder {
+
+        static final EmbeddedPostgres POSTGRES = start();
+
+        private static EmbeddedPostgres start() {
+            try {
+                EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+                Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                    try {
+                        postgres.close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }, "embedded-postgres-shutdown"));
+                return postgres;
+            } catch (IOException e) {
+                throw new IllegalStateException("cannot start embedded PostgreSQL", e);
+            }
+        }
+    }
+}
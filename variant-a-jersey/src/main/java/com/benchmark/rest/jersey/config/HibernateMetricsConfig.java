@@ -0,0 +1,58 @@
+package com.benchmark.rest.jersey.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.AutoFlushEventListener;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.FlushEventListener;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.jersey.ResourceConfigCustomizer;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Per-request Hibernate work as distribution summaries tagged like {@code http.server.requests}:
+ * {@code hibernate.request.statements}, {@code hibernate.request.entity.loads} and
+ * {@code hibernate.request.flushes}. The factory-wide {@code hibernate.*} meters only give totals.
+ * Statement budgets: {@link SqlBudgetProperties}.
+ */
+@Configuration
+@EnableConfigurationProperties(SqlBudgetProperties.class)
+public class HibernateMetricsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer requestStatementCounter() {
+        StatementInspector inspector = sql -> {
+            RequestStatistics.statementPrepared();
+            return sql;
+        };
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, inspector);
+    }
+
+    @Bean
+    public SmartInitializingSingleton requestEventCounters(EntityManagerFactory entityManagerFactory) {
+        return () -> {
+            EventListenerRegistry listeners = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                    .getServiceRegistry().requireService(EventListenerRegistry.class);
+            listeners.appendListeners(EventType.POST_LOAD, (PostLoadEventListener) event -> RequestStatistics.entityLoaded());
+            listeners.appendListeners(EventType.FLUSH, (FlushEventListener) event -> RequestStatistics.flushed());
+            listeners.appendListeners(EventType.AUTO_FLUSH, (AutoFlushEventListener) event -> {
+                if (event.isFlushRequired()) {
+                    RequestStatistics.flushed();
+                }
+            });
+        };
+    }
+
+    @Bean
+    public ResourceConfigCustomizer requestStatisticsListener(MeterRegistry registry, SqlBudgetProperties properties) {
+        return config -> config.register(new RequestStatisticsListener(registry, properties));
+    }
+}
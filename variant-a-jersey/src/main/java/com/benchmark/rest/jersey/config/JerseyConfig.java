@@ -2,15 +2,34 @@ package com.benchmark.rest.jersey.config;
 
 import com.benchmark.rest.jersey.resource.CategoryResource;
 import com.benchmark.rest.jersey.resource.ItemResource;
+import com.benchmark.rest.jersey.service.SerializedBodyCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.jakarta.rs.cbor.JacksonCBORProvider;
+import com.fasterxml.jackson.jakarta.rs.smile.JacksonSmileProvider;
+import jakarta.ws.rs.ApplicationPath;
 import org.glassfish.jersey.server.ResourceConfig;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.stereotype.Component;
 
 @Component
+@ApplicationPath("/api")
 public class JerseyConfig extends ResourceConfig {
 
-    public JerseyConfig() {
+    public JerseyConfig(
+            Jackson2ObjectMapperBuilder builder,
+            ObjectMapper objectMapper,
+            ObjectProvider<SerializedBodyCache> serializedBodies) {
         register(CategoryResource.class);
         register(ItemResource.class);
+        // Binary bodies share the modules and features of the JSON mapper
+        register(new JacksonCBORProvider(builder.factory(new CBORFactory()).build()));
+        register(new JacksonSmileProvider(builder.factory(new SmileFactory()).build()));
+        serializedBodies.ifAvailable(cache -> {
+            register(new SerializedJsonWriter.Items(cache, objectMapper));
+            register(new SerializedJsonWriter.Categories(cache, objectMapper));
+        });
     }
 }
-
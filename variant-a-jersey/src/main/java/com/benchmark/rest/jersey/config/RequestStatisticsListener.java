@@ -0,0 +1,87 @@
+package com.benchmark.rest.jersey.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import org.glassfish.jersey.micrometer.server.JerseyTags;
+import org.glassfish.jersey.server.monitoring.ApplicationEvent;
+import org.glassfish.jersey.server.monitoring.ApplicationEventListener;
+import org.glassfish.jersey.server.monitoring.RequestEvent;
+import org.glassfish.jersey.server.monitoring.RequestEventListener;
+
+/**
+ * Counts the Hibernate work of each request ({@link RequestStatistics}), records it per
+ * resource method and checks it against the configured statement budgets. The check runs
+ * as a response filter, before the entity is written, so an over-budget request in strict
+ * mode becomes a 500.
+ */
+public class RequestStatisticsListener implements ApplicationEventListener, ContainerResponseFilter {
+
+    public static final String STATEMENTS_HEADER = "X-SQL-Statements";
+
+    private static final String URI_PROPERTY = RequestStatisticsListener.class.getName() + ".uri";
+    private static final String EXCEEDED_PROPERTY = RequestStatisticsListener.class.getName() + ".exceeded";
+
+    private final MeterRegistry registry;
+    private final SqlBudgetProperties properties;
+
+    public RequestStatisticsListener(MeterRegistry registry, SqlBudgetProperties properties) {
+        this.registry = registry;
+        this.properties = properties;
+    }
+
+    @Override
+    public void onEvent(ApplicationEvent event) {
+    }
+
+    @Override
+    public RequestEventListener onRequest(RequestEvent start) {
+        RequestStatistics statistics = RequestStatistics.begin();
+        return event -> {
+            if (event.getType() == RequestEvent.Type.RESP_FILTERS_START) {
+                event.getContainerRequest().setProperty(URI_PROPERTY, JerseyTags.uri(event).getValue());
+            } else if (event.getType() == RequestEvent.Type.FINISHED) {
+                RequestStatistics.end();
+                Tags tags = Tags.of(JerseyTags.method(event.getContainerRequest()), JerseyTags.uri(event));
+                record("hibernate.request.statements", tags, statistics.statements());
+                record("hibernate.request.entity.loads", tags, statistics.entityLoads());
+                record("hibernate.request.flushes", tags, statistics.flushes());
+            }
+        };
+    }
+
+    @Override
+    public void filter(ContainerRequestContext request, ContainerResponseContext response) {
+        RequestStatistics statistics = RequestStatistics.current();
+        if (statistics == null) {
+            return;
+        }
+        if (properties.countHeader()) {
+            response.getHeaders().putSingle(STATEMENTS_HEADER, statistics.statements());
+        }
+
+        String uri = (String) request.getProperty(URI_PROPERTY);
+        String endpoint = request.getMethod() + ' ' + uri;
+        Integer budget = properties.budgets().get(endpoint);
+        // The 500 raised below runs the response filters again
+        if (budget != null && statistics.statements() > budget && request.getProperty(EXCEEDED_PROPERTY) == null) {
+            request.setProperty(EXCEEDED_PROPERTY, Boolean.TRUE);
+            Counter.builder("hibernate.request.budget.exceeded")
+                    .tags("method", request.getMethod(), "uri", uri)
+                    .register(registry)
+                    .increment();
+            if (properties.failOnBudgetExceeded()) {
+                throw new IllegalStateException(endpoint + " ran " + statistics.statements()
+                        + " SQL statements, budget is " + budget);
+            }
+        }
+    }
+
+    private void record(String name, Tags tags, int value) {
+        DistributionSummary.builder(name).tags(tags).register(registry).record(value);
+    }
+}
@@ -0,0 +1,26 @@
+package com.benchmark.rest.jersey.config;
+
+import com.benchmark.rest.cache.CompressedResponseCacheFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Category pages are read on nearly every request and change rarely: serve repeats from
+ * {@link CompressedResponseCacheFilter}. {@code RESPONSE_CACHE=true} turns it on.
+ */
+@Configuration
+@ConditionalOnProperty(name = "benchmark.response-cache.enabled", havingValue = "true")
+public class ResponseCacheConfig {
+
+    @Bean
+    public FilterRegistrationBean<CompressedResponseCacheFilter> categoryResponseCache(
+            @Value("${benchmark.response-cache.maximum-size:256}") long maximumSize) {
+        FilterRegistrationBean<CompressedResponseCacheFilter> registration =
+                new FilterRegistrationBean<>(new CompressedResponseCacheFilter("/api/categories", maximumSize));
+        registration.addUrlPatterns("/api/categories/*");
+        return registration;
+    }
+}
@@ -0,0 +1,23 @@
+package com.benchmark.rest.jersey.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.Map;
+
+/**
+ * {@code benchmark.sql.*}: the {@value RequestStatisticsListener#STATEMENTS_HEADER} response header
+ * and the statement budget of each endpoint, keyed by {@code "<method> <uri template>"}.
+ * With {@code fail-on-budget-exceeded} an over-budget request ends in an exception, so
+ * integration tests get a 500.
+ */
+@ConfigurationProperties("benchmark.sql")
+public record SqlBudgetProperties(
+        boolean countHeader,
+        boolean failOnBudgetExceeded,
+        Map<String, Integer> budgets
+) {
+
+    public SqlBudgetProperties {
+        budgets = budgets != null ? Map.copyOf(budgets) : Map.of();
+    }
+}
@@ -0,0 +1,10 @@
+package com.benchmark.rest.jersey.dto;
+
+/**
+ * Body of {@code PATCH /categories/{id}}: {@code null} fields are left unchanged.
+ */
+public record CategoryPatch(
+        String code,
+        String name
+) {
+}
@@ -0,0 +1,50 @@
+package com.benchmark.rest.jersey.dto;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+
+/**
+ * Filters of {@code GET /items/search}, all optional and combined with AND; blank strings
+ * count as absent. {@code sku} is a prefix, {@code q} a case-insensitive substring of the
+ * name, the price bounds are inclusive and {@code stockBelow} exclusive.
+ */
+public record ItemSearch(
+        String sku,
+        String q,
+        BigDecimal minPrice,
+        BigDecimal maxPrice,
+        Integer stockBelow,
+        Long categoryId
+) {
+
+    public static final char LIKE_ESCAPE = '\\';
+
+    public ItemSearch {
+        sku = sku == null || sku.isBlank() ? null : sku.trim();
+        q = q == null || q.isBlank() ? null : q.trim();
+    }
+
+    public boolean isEmpty() {
+        return sku == null && q == null && minPrice == null && maxPrice == null
+                && stockBelow == null && categoryId == null;
+    }
+
+    public boolean hasValidPriceRange() {
+        return minPrice == null || maxPrice == null || minPrice.compareTo(maxPrice) <= 0;
+    }
+
+    public String skuPattern() {
+        return escape(sku) + "%";
+    }
+
+    /**
+     * Matched against {@code lower(name)}, the expression the trigram index is built on.
+     */
+    public String namePattern() {
+        return "%" + escape(q.toLowerCase(Locale.ROOT)) + "%";
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,9 @@
+package com.benchmark.rest.jersey.dto;
+
+/**
+ * Body of {@code POST /items/{id}/stock}: units to add, negative to remove.
+ */
+public record StockAdjustment(
+        Integer delta
+) {
+}
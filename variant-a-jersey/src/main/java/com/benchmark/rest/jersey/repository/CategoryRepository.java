@@ -1,10 +1,70 @@
 package com.benchmark.rest.jersey.repository;
 
+import com.benchmark.rest.jersey.dto.CategoryStats;
 import com.benchmark.rest.jersey.model.Category;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface CategoryRepository extends JpaRepository<Category, Long> {
-}
+public interface CategoryRepository extends JpaRepository<Category, Long>, CategoryRepositoryCustom {
+
+    String STATS_SELECT = "SELECT new com.benchmark.rest.jersey.dto.CategoryStats(c.id, c.code, c.name, COUNT(i), "
+            + "COALESCE(SUM(i.stock), 0), MIN(i.price), CAST(ROUND(AVG(i.price), 2) AS BigDecimal), MAX(i.price)) "
+            + "FROM Category c LEFT JOIN c.items i ";
+
+    @Override
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    Page<Category> findAll(Pageable pageable);
+
+    @Query(STATS_SELECT + "GROUP BY c.id ORDER BY c.id")
+    List<CategoryStats> findAllStats();
 
+    @Query(STATS_SELECT + "WHERE c.id = :id GROUP BY c.id")
+    Optional<CategoryStats> findStatsById(@Param("id") Long id);
+
+    @Query("SELECT COUNT(i) FROM Category c LEFT JOIN c.items i WHERE c.id = :id GROUP BY c.id")
+    Optional<Long> countItemsById(@Param("id") Long id);
+
+    /**
+     * Overwrites the non-null fields in one statement, without loading the row. With a
+     * {@code version}, only that version of the row is updated.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Category c SET c.code = COALESCE(:code, c.code), c.name = COALESCE(:name, c.name), "
+            + "c.updatedAt = :updatedAt, c.version = c.version + 1 "
+            + "WHERE c.id = :id AND (:version IS NULL OR c.version = :version)")
+    int patchCategory(
+            @Param("id") Long id,
+            @Param("version") Long version,
+            @Param("code") String code,
+            @Param("name") String name,
+            @Param("updatedAt") Instant updatedAt);
+
+    @Transactional
+    @Modifying
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "item"),
+        @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "category")
+    })
+    @Query(
+        value = "WITH deleted_items AS (DELETE FROM item WHERE category_id = :id) "
+                + "DELETE FROM category WHERE id = :id",
+        nativeQuery = true
+    )
+    int deleteWithItemsById(@Param("id") Long id);
+}
@@ -1,51 +1,91 @@
 package com.benchmark.rest.jersey.resource;
 
+import com.benchmark.rest.items.ItemCache;
+import com.benchmark.rest.jersey.dto.CategoryPatch;
+import com.benchmark.rest.jersey.dto.CategoryStats;
+import com.benchmark.rest.jersey.dto.CursorPage;
 import com.benchmark.rest.jersey.dto.ItemDTO;
 import com.benchmark.rest.jersey.model.Category;
-import com.benchmark.rest.jersey.model.Item;
 import com.benchmark.rest.jersey.repository.CategoryRepository;
 import com.benchmark.rest.jersey.repository.ItemRepository;
+import com.fasterxml.jackson.jakarta.rs.cbor.CBORMediaTypes;
+import com.fasterxml.jackson.jakarta.rs.smile.SmileMediaTypes;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.*;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Component;
 
 import java.net.URI;
+import java.time.Instant;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Optional;
 
 @Component
 @Path("/categories")
-@Produces(MediaType.APPLICATION_JSON)
-@Consumes(MediaType.APPLICATION_JSON)
+@Produces({MediaType.APPLICATION_JSON, CBORMediaTypes.APPLICATION_JACKSON_CBOR, SmileMediaTypes.APPLICATION_JACKSON_SMILE})
+@Consumes({MediaType.APPLICATION_JSON, CBORMediaTypes.APPLICATION_JACKSON_CBOR, SmileMediaTypes.APPLICATION_JACKSON_SMILE})
 public class CategoryResource {
 
+    private static final String APPLICATION_MERGE_PATCH_JSON = "application/merge-patch+json";
+
     private final CategoryRepository repository;
     private final ItemRepository itemRepository;
+    private final ItemCache<ItemDTO, ItemDTO> itemCache;
 
-    public CategoryResource(CategoryRepository repository, ItemRepository itemRepository) {
+    public CategoryResource(CategoryRepository repository, ItemRepository itemRepository,
+            ItemCache<ItemDTO, ItemDTO> itemCache) {
         this.repository = repository;
         this.itemRepository = itemRepository;
+        this.itemCache = itemCache;
     }
 
     @GET
     public Response getAllCategories(
             @QueryParam("page") @DefaultValue("0") int page,
-            @QueryParam("size") @DefaultValue("20") int size) {
+            @QueryParam("size") @DefaultValue("20") int size,
+            @Context Request request) {
         
-        Page<Category> pageResult = repository.findAll(PageRequest.of(page, size));
-        return Response.ok(pageResult).build();
+        Page<Category> pageResult = repository.findAll(PageRequest.of(page, Math.min(size, ItemPages.MAX_PAGE_SIZE), Sort.by("id")));
+        return Validators.of(pageResult.getContent(), pageResult.getTotalElements(), Category::getId, Category::getUpdatedAt)
+                .respond(request, pageResult);
     }
 
     @GET
     @Path("/{id}")
-    public Response getCategoryById(@PathParam("id") Long id) {
+    public Response getCategoryById(@PathParam("id") Long id, @Context Request request) {
         return repository.findById(id)
-                .map(Response::ok)
-                .orElse(Response.status(Response.Status.NOT_FOUND))
-                .build();
+                .map(category -> Validators.of(category.getVersion(), category.getUpdatedAt(), request).respond(request, category))
+                .orElse(Response.status(Response.Status.NOT_FOUND).build());
+    }
+
+    /**
+     * Item count, total stock and price range of every category, from one grouped aggregate.
+     */
+    @GET
+    @Path("/stats")
+    public Response getAllCategoryStats() {
+        return Response.ok(repository.findAllStats()).build();
+    }
+
+    @GET
+    @Path("/{id}/stats")
+    public Response getCategoryStats(@PathParam("id") Long id) {
+        return repository.findStatsById(id)
+                .map(stats -> Response.ok(stats).build())
+                .orElse(Response.status(Response.Status.NOT_FOUND).build());
+    }
+
+    @GET
+    @Path("/code/{code}")
+    public Response getCategoryByCode(@PathParam("code") String code, @Context Request request) {
+        return repository.findByNaturalCode(code)
+                .map(category -> Validators.of(category.getVersion(), category.getUpdatedAt(), request).respond(request, category))
+                .orElse(Response.status(Response.Status.NOT_FOUND).build());
     }
 
     @POST
@@ -59,54 +99,118 @@ public class CategoryResource {
 
     @PUT
     @Path("/{id}")
-    public Response updateCategory(@PathParam("id") Long id, Category category) {
-        return repository.findById(id)
-                .map(existing -> {
-                    existing.setName(category.getName());
-                    existing.setCode(category.getCode());
-                    Category updated = repository.save(existing);
-                    return Response.ok(updated).build();
-                })
-                .orElse(Response.status(Response.Status.NOT_FOUND).build());
+    public Response updateCategory(
+            @PathParam("id") Long id,
+            @HeaderParam(HttpHeaders.IF_MATCH) String ifMatch,
+            Category category,
+            @Context Request request) {
+        Category existing = repository.findById(id).orElse(null);
+        if (existing == null) {
+            return Response.status(Response.Status.NOT_FOUND).build();
+        }
+        Long expectedVersion = Validators.expectedVersion(ifMatch);
+        if (expectedVersion != null && !expectedVersion.equals(existing.getVersion())) {
+            return Response.status(Response.Status.PRECONDITION_FAILED).build();
+        }
+
+        existing.setName(category.getName());
+        existing.setCode(category.getCode());
+        Category updated;
+        try {
+            updated = repository.save(existing);
+        } catch (OptimisticLockingFailureException e) {
+            return Response.status(expectedVersion != null
+                    ? Response.Status.PRECONDITION_FAILED
+                    : Response.Status.CONFLICT).build();
+        }
+        itemCache.clear();
+        return Response.ok(updated)
+                .tag(Validators.tag(updated.getVersion(), request))
+                .build();
+    }
+
+    @PATCH
+    @Path("/{id}")
+    @Consumes({MediaType.APPLICATION_JSON, APPLICATION_MERGE_PATCH_JSON,
+            CBORMediaTypes.APPLICATION_JACKSON_CBOR, SmileMediaTypes.APPLICATION_JACKSON_SMILE})
+    public Response patchCategory(
+            @PathParam("id") Long id,
+            @HeaderParam(HttpHeaders.IF_MATCH) String ifMatch,
+            CategoryPatch patch,
+            @Context Request request) {
+        if (patch == null) {
+            return Response.status(Response.Status.BAD_REQUEST).build();
+        }
+        Long expectedVersion = Validators.expectedVersion(ifMatch);
+        int updated = repository.patchCategory(id, expectedVersion, patch.code(), patch.name(), Instant.now());
+        if (updated == 0) {
+            return Response.status(expectedVersion != null && repository.existsById(id)
+                    ? Response.Status.PRECONDITION_FAILED
+                    : Response.Status.NOT_FOUND).build();
+        }
+        itemCache.clear();
+        Response.ResponseBuilder response = Response.noContent();
+        return expectedVersion != null
+                ? response.tag(Validators.tag(expectedVersion + 1, request)).build()
+                : response.build();
     }
 
     @DELETE
     @Path("/{id}")
     public Response deleteCategory(@PathParam("id") Long id) {
-        if (!repository.existsById(id)) {
+        if (repository.deleteWithItemsById(id) == 0) {
             return Response.status(Response.Status.NOT_FOUND).build();
         }
-        repository.deleteById(id);
+        itemCache.clear();
         return Response.noContent().build();
     }
 
     @GET
     @Path("/{id}/items")
+    @Produces({MediaType.APPLICATION_JSON, ItemPages.LEAN_QS,
+            CBORMediaTypes.APPLICATION_JACKSON_CBOR, SmileMediaTypes.APPLICATION_JACKSON_SMILE})
     public Response getCategoryItems(
             @PathParam("id") Long categoryId,
+            @QueryParam("after") String after,
             @QueryParam("page") @DefaultValue("0") int page,
-            @QueryParam("size") @DefaultValue("20") int size) {
+            @QueryParam("size") @DefaultValue("20") int size,
+            @Context Request request) {
         
-        if (!repository.existsById(categoryId)) {
+        if (after != null) {
+            return getCategoryItemsAfter(categoryId, after, size, request);
+        }
+
+        Optional<Long> total = repository.countItemsById(categoryId);
+        if (total.isEmpty()) {
             return Response.status(Response.Status.NOT_FOUND).build();
         }
-        
-        PageRequest pageable = PageRequest.of(page, size);
-        List<Item> items = itemRepository.findByCategoryIdJoinFetch(categoryId);
-        
-        List<ItemDTO> dtos = items.stream()
-                .map(item -> new ItemDTO(
-                        item.getId(),
-                        item.getSku(),
-                        item.getName(),
-                        item.getPrice(),
-                        item.getStock(),
-                        item.getCategory().getCode()
-                ))
-                .collect(Collectors.toList());
-
-        Page<ItemDTO> responsePage = new PageImpl<>(dtos, pageable, items.size());
-        return Response.ok(responsePage).build();
+
+        PageRequest pageable = PageRequest.of(page, Math.min(size, ItemPages.MAX_PAGE_SIZE), Sort.by("id"));
+        List<ItemDTO> content = total.get() > pageable.getOffset()
+                ? itemRepository.findDtoContentByCategoryId(categoryId, pageable)
+                : List.of();
+        return ItemPages.respond(request, new PageImpl<>(content, pageable, total.get()));
     }
-}
 
+    private Response getCategoryItemsAfter(Long categoryId, String after, int size, Request request) {
+        long afterId;
+        try {
+            afterId = CursorPage.decode(after);
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST).build();
+        }
+        if (size < 1) {
+            return Response.status(Response.Status.BAD_REQUEST).build();
+        }
+        int pageSize = Math.min(size, ItemPages.MAX_PAGE_SIZE);
+
+        List<ItemDTO> dtos = itemRepository.findDtoByCategoryIdAfter(categoryId, afterId, Limit.of(pageSize + 1));
+        if (dtos.isEmpty() && !repository.existsById(categoryId)) {
+            return Response.status(Response.Status.NOT_FOUND).build();
+        }
+
+        CursorPage<ItemDTO> responsePage = CursorPage.of(dtos, pageSize, ItemDTO::id);
+        return Validators.of(responsePage.content(), responsePage.next() != null ? 1 : 0, ItemDTO::id, ItemDTO::updatedAt)
+                .respond(request, responsePage);
+    }
+}
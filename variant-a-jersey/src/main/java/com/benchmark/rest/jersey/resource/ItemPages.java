@@ -0,0 +1,45 @@
+package com.benchmark.rest.jersey.resource;
+
+import com.benchmark.rest.jersey.dto.ItemDTO;
+import com.benchmark.rest.jersey.dto.LeanPage;
+import com.fasterxml.jackson.jakarta.rs.cbor.CBORMediaTypes;
+import com.fasterxml.jackson.jakarta.rs.smile.SmileMediaTypes;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.Variant;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+/**
+ * Renders an offset page of items either as the usual {@code Page} or, when the client names
+ * {@value LeanPage#MEDIA_TYPE} in Accept, as a {@link LeanPage}. The {@code Page} is also offered
+ * as CBOR and Smile, like every other body of the resource. JSON is listed first so that
+ * {@code *}{@code /*} and missing Accept headers keep the default body.
+ */
+final class ItemPages {
+
+    static final String LEAN_QS = LeanPage.MEDIA_TYPE + ";qs=0.5";
+    /** Spring Data's default {@code max-page-size}, which the other variants apply. */
+    static final int MAX_PAGE_SIZE = 2000;
+
+    private static final MediaType LEAN = MediaType.valueOf(LeanPage.MEDIA_TYPE);
+    private static final List<Variant> VARIANTS = Variant.mediaTypes(
+            MediaType.APPLICATION_JSON_TYPE,
+            MediaType.valueOf(CBORMediaTypes.APPLICATION_JACKSON_CBOR),
+            MediaType.valueOf(SmileMediaTypes.APPLICATION_JACKSON_SMILE),
+            LEAN).build();
+
+    private ItemPages() {
+    }
+
+    static Response respond(Request request, Page<ItemDTO> page) {
+        Variant variant = request.selectVariant(VARIANTS);
+        boolean lean = variant != null && LEAN.isCompatible(variant.getMediaType());
+        // Distinct validator per representation; selectVariant already adds Vary: Accept
+        long discriminator = lean ? ~page.getTotalElements() : page.getTotalElements();
+        return Validators.of(page.getContent(), discriminator, ItemDTO::id, ItemDTO::updatedAt)
+                .respond(request, lean ? LeanPage.of(page) : page, variant);
+    }
+}
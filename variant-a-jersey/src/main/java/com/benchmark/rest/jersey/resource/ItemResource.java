@@ -1,91 +1,202 @@
 package com.benchmark.rest.jersey.resource;
 
+import com.benchmark.rest.items.BatchItemResult;
+import com.benchmark.rest.items.ItemBatchService;
+import com.benchmark.rest.items.ItemCache;
+import com.benchmark.rest.items.ItemWriteQueue;
+import com.benchmark.rest.items.ItemWriteStatus;
+import com.benchmark.rest.items.StockAccumulator;
+import com.benchmark.rest.jersey.dto.CursorPage;
 import com.benchmark.rest.jersey.dto.ItemDTO;
+import com.benchmark.rest.jersey.dto.ItemPatch;
+import com.benchmark.rest.jersey.dto.ItemSearch;
+import com.benchmark.rest.jersey.dto.StockAdjustment;
+import com.benchmark.rest.jersey.dto.StockLevel;
 import com.benchmark.rest.jersey.model.Category;
 import com.benchmark.rest.jersey.model.Item;
 import com.benchmark.rest.jersey.repository.CategoryRepository;
 import com.benchmark.rest.jersey.repository.ItemRepository;
+import com.benchmark.rest.jersey.repository.ItemSpecifications;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.jakarta.rs.cbor.CBORMediaTypes;
+import com.fasterxml.jackson.jakarta.rs.smile.SmileMediaTypes;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.*;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
 import java.net.URI;
+import java.time.Instant;
+import java.util.Iterator;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Component
 @Path("/items")
-@Produces(MediaType.APPLICATION_JSON)
-@Consumes(MediaType.APPLICATION_JSON)
+@Produces({MediaType.APPLICATION_JSON, CBORMediaTypes.APPLICATION_JACKSON_CBOR, SmileMediaTypes.APPLICATION_JACKSON_SMILE})
+@Consumes({MediaType.APPLICATION_JSON, CBORMediaTypes.APPLICATION_JACKSON_CBOR, SmileMediaTypes.APPLICATION_JACKSON_SMILE})
 public class ItemResource {
 
+    private static final String APPLICATION_NDJSON = "application/x-ndjson";
+    private static final String APPLICATION_MERGE_PATCH_JSON = "application/merge-patch+json";
+    private static final int BLIND_PUT_ATTEMPTS = 5;
+
     private final ItemRepository itemRepository;
     private final CategoryRepository categoryRepository;
+    private final ItemBatchService<Item, Category, ItemDTO> batchService;
+    private final ItemCache<ItemDTO, ItemDTO> itemCache;
+    private final StockAccumulator stockAccumulator;
+    private final ItemWriteQueue writeQueue;
+    private final ObjectWriter ndjsonWriter;
+    private final TransactionTemplate readOnlyTransaction;
 
-    public ItemResource(ItemRepository itemRepository, CategoryRepository categoryRepository) {
+    public ItemResource(
+            ItemRepository itemRepository,
+            CategoryRepository categoryRepository,
+            ItemBatchService<Item, Category, ItemDTO> batchService,
+            ItemCache<ItemDTO, ItemDTO> itemCache,
+            ObjectProvider<StockAccumulator> stockAccumulator,
+            ObjectProvider<ItemWriteQueue> writeQueue,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager) {
         this.itemRepository = itemRepository;
         this.categoryRepository = categoryRepository;
+        this.batchService = batchService;
+        this.itemCache = itemCache;
+        this.stockAccumulator = stockAccumulator.getIfAvailable();
+        this.writeQueue = writeQueue.getIfAvailable();
+        this.ndjsonWriter = objectMapper.writerFor(ItemDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
     }
 
     @GET
+    @Produces({MediaType.APPLICATION_JSON, ItemPages.LEAN_QS,
+            CBORMediaTypes.APPLICATION_JACKSON_CBOR, SmileMediaTypes.APPLICATION_JACKSON_SMILE})
     public Response getItems(
             @QueryParam("categoryId") Long categoryId,
+            @QueryParam("after") String after,
             @QueryParam("page") @DefaultValue("0") int page,
-            @QueryParam("size") @DefaultValue("20") int size) {
+            @QueryParam("size") @DefaultValue("20") int size,
+            @Context Request request) {
         
-        PageRequest pageable = PageRequest.of(page, size);
-        List<Item> items;
-        long total;
-
-        if (categoryId != null) {
-            items = itemRepository.findByCategoryIdJoinFetch(categoryId);
-            total = items.size();
-        } else {
-            Page<Item> pageResult = itemRepository.findAllWithCategory(pageable);
-            items = pageResult.getContent();
-            total = pageResult.getTotalElements();
-        }
-
-        List<ItemDTO> dtos = items.stream()
-                .map(item -> new ItemDTO(
-                        item.getId(),
-                        item.getSku(),
-                        item.getName(),
-                        item.getPrice(),
-                        item.getStock(),
-                        item.getCategory().getCode()
-                ))
-                .collect(Collectors.toList());
-
-        Page<ItemDTO> responsePage = new PageImpl<>(dtos, pageable, total);
-        return Response.ok(responsePage).build();
+        if (after != null) {
+            return getItemsAfter(categoryId, after, size, request);
+        }
+
+        PageRequest pageable = PageRequest.of(page, Math.min(size, ItemPages.MAX_PAGE_SIZE), Sort.by("id"));
+        Page<ItemDTO> responsePage = itemCache.page(categoryId, pageable, () -> categoryId != null
+                ? itemRepository.findDtoByCategoryId(categoryId, pageable)
+                : itemRepository.findAllDto(pageable));
+        return ItemPages.respond(request, responsePage);
+    }
+
+    private Response getItemsAfter(Long categoryId, String after, int size, Request request) {
+        long afterId;
+        try {
+            afterId = CursorPage.decode(after);
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST).build();
+        }
+        if (size < 1) {
+            return Response.status(Response.Status.BAD_REQUEST).build();
+        }
+        int pageSize = Math.min(size, ItemPages.MAX_PAGE_SIZE);
+
+        Limit limit = Limit.of(pageSize + 1);
+        List<ItemDTO> dtos = categoryId != null
+                ? itemRepository.findDtoByCategoryIdAfter(categoryId, afterId, limit)
+                : itemRepository.findAllDtoAfter(afterId, limit);
+
+        CursorPage<ItemDTO> responsePage = CursorPage.of(dtos, pageSize, ItemDTO::id);
+        return Validators.of(responsePage.content(), responsePage.next() != null ? 1 : 0, ItemDTO::id, ItemDTO::updatedAt)
+                .respond(request, responsePage);
+    }
+
+    /**
+     * Filters in the database, paged like {@code GET /items} but ordered by id so that pages
+     * stay stable.
+     */
+    @GET
+    @Path("/search")
+    @Produces({MediaType.APPLICATION_JSON, ItemPages.LEAN_QS,
+            CBORMediaTypes.APPLICATION_JACKSON_CBOR, SmileMediaTypes.APPLICATION_JACKSON_SMILE})
+    public Response searchItems(
+            @QueryParam("sku") String sku,
+            @QueryParam("q") String q,
+            @QueryParam("minPrice") BigDecimal minPrice,
+            @QueryParam("maxPrice") BigDecimal maxPrice,
+            @QueryParam("stockBelow") Integer stockBelow,
+            @QueryParam("categoryId") Long categoryId,
+            @QueryParam("page") @DefaultValue("0") int page,
+            @QueryParam("size") @DefaultValue("20") int size,
+            @Context Request request) {
+
+        ItemSearch search = new ItemSearch(sku, q, minPrice, maxPrice, stockBelow, categoryId);
+        if (!search.hasValidPriceRange()) {
+            return Response.status(Response.Status.BAD_REQUEST).build();
+        }
+        PageRequest pageable = PageRequest.of(page, Math.min(size, ItemPages.MAX_PAGE_SIZE), Sort.by("id"));
+        Page<ItemDTO> responsePage = itemRepository.findAll(ItemSpecifications.matching(search), pageable)
+                .map(ItemDTO::from);
+        return ItemPages.respond(request, responsePage);
+    }
+
+    @GET
+    @Path("/export")
+    @Produces(APPLICATION_NDJSON)
+    public Response exportItems() {
+        StreamingOutput body = output -> readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<ItemDTO> items = itemRepository.streamAllDto();
+                 JsonGenerator generator = ndjsonWriter.createGenerator(output)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setRootValueSeparator(null);
+                for (Iterator<ItemDTO> it = items.iterator(); it.hasNext(); ) {
+                    ndjsonWriter.writeValue(generator, it.next());
+                    generator.writeRaw('\n');
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return Response.ok(body, APPLICATION_NDJSON).build();
     }
 
     @GET
     @Path("/{id}")
-    public Response getItemById(@PathParam("id") Long id) {
-        return itemRepository.findById(id)
-                .map(item -> new ItemDTO(
-                        item.getId(),
-                        item.getSku(),
-                        item.getName(),
-                        item.getPrice(),
-                        item.getStock(),
-                        item.getCategory().getCode()
-                ))
-                .map(Response::ok)
-                .orElse(Response.status(Response.Status.NOT_FOUND))
-                .build();
+    public Response getItemById(@PathParam("id") Long id, @Context Request request) {
+        return itemCache.item(id, () -> itemRepository.findDtoById(id))
+                .map(item -> Validators.of(item.version(), item.updatedAt(), request).respond(request, item))
+                .orElse(Response.status(Response.Status.NOT_FOUND).build());
     }
 
+    /**
+     * With {@code WRITE_BEHIND=true} the checked item is queued in {@link ItemWriteQueue} and
+     * answered with 202 and the location of its write status, or 429 when the queue is full.
+     */
     @POST
     public Response createItem(Item item, @Context UriInfo uriInfo) {
         if (item.getCategory() == null || item.getCategory().getId() == null) {
             return Response.status(Response.Status.BAD_REQUEST).build();
         }
+        if (writeQueue != null && !ItemWriteQueue.isComplete(item)) {
+            return Response.status(Response.Status.BAD_REQUEST).build();
+        }
 
         Category category = categoryRepository.findById(item.getCategory().getId())
                 .orElse(null);
@@ -93,16 +204,14 @@ public class ItemResource {
             return Response.status(Response.Status.BAD_REQUEST).build();
         }
 
+        if (writeQueue != null) {
+            return accepted(writeQueue.create(item, category.getId()), uriInfo);
+        }
+
         item.setCategory(category);
         Item saved = itemRepository.save(item);
-        ItemDTO response = new ItemDTO(
-                saved.getId(),
-                saved.getSku(),
-                saved.getName(),
-                saved.getPrice(),
-                saved.getStock(),
-                saved.getCategory().getCode()
-        );
+        itemCache.itemAdded(category.getId());
+        ItemDTO response = ItemDTO.from(saved);
 
         URI location = uriInfo.getAbsolutePathBuilder()
                 .path(String.valueOf(saved.getId()))
@@ -110,42 +219,210 @@ public class ItemResource {
         return Response.created(location).entity(response).build();
     }
 
+    @POST
+    @Path("/batch")
+    public Response createItems(List<Item> items) {
+        if (items == null || items.isEmpty()) {
+            return Response.status(Response.Status.BAD_REQUEST).build();
+        }
+        return Response.ok(evicting(batchService.createAll(items))).build();
+    }
+
+    @PUT
+    @Path("/batch")
+    public Response updateItems(List<Item> items) {
+        if (items == null || items.isEmpty()) {
+            return Response.status(Response.Status.BAD_REQUEST).build();
+        }
+        List<BatchItemResult<ItemDTO>> results = evicting(batchService.updateAll(items));
+        stockWritten(written(results));
+        return Response.ok(results).build();
+    }
+
+    private List<BatchItemResult<ItemDTO>> evicting(List<BatchItemResult<ItemDTO>> results) {
+        itemCache.evict(written(results));
+        return results;
+    }
+
+    private static List<Long> written(List<BatchItemResult<ItemDTO>> results) {
+        return results.stream()
+                .filter(result -> result.item() != null)
+                .map(result -> result.item().id())
+                .toList();
+    }
+
+    /**
+     * The stock {@link StockAccumulator} expects for these items is stale.
+     */
+    private void stockWritten(List<Long> ids) {
+        if (stockAccumulator != null) {
+            stockAccumulator.forget(ids);
+        }
+    }
+
+    /**
+     * With {@code If-Match} the item is only replaced while it still has that version, 412
+     * otherwise. Without it the PUT replaces whatever version it finds: when another write
+     * commits between the read and the update, the item is read again and the body applied to
+     * it, and only after {@value #BLIND_PUT_ATTEMPTS} such races is the answer 409.
+     */
     @PUT
     @Path("/{id}")
-    public Response updateItem(@PathParam("id") Long id, Item item) {
-        return itemRepository.findById(id)
-                .map(existing -> {
-                    existing.setName(item.getName());
-                    existing.setPrice(item.getPrice());
-                    existing.setStock(item.getStock());
-                    existing.setSku(item.getSku());
-                    
-                    if (item.getCategory() != null && item.getCategory().getId() != null) {
-                        categoryRepository.findById(item.getCategory().getId())
-                                .ifPresent(existing::setCategory);
-                    }
-                    
-                    Item updated = itemRepository.save(existing);
-                    ItemDTO response = new ItemDTO(
-                            updated.getId(),
-                            updated.getSku(),
-                            updated.getName(),
-                            updated.getPrice(),
-                            updated.getStock(),
-                            updated.getCategory().getCode()
-                    );
-                    return Response.ok(response).build();
-                })
+    public Response updateItem(
+            @PathParam("id") Long id,
+            @HeaderParam(HttpHeaders.IF_MATCH) String ifMatch,
+            Item item,
+            @Context UriInfo uriInfo,
+            @Context Request request) {
+        if (writeQueue != null) {
+            return queueUpdate(id, ifMatch, item, uriInfo);
+        }
+        Long expectedVersion = Validators.expectedVersion(ifMatch);
+        for (int attempt = 1; ; attempt++) {
+            Item existing = itemRepository.findWithCategoryById(id).orElse(null);
+            if (existing == null) {
+                return Response.status(Response.Status.NOT_FOUND).build();
+            }
+            if (expectedVersion != null && !expectedVersion.equals(existing.getVersion())) {
+                return Response.status(Response.Status.PRECONDITION_FAILED).build();
+            }
+            Long previousCategoryId = existing.getCategory().getId();
+
+            existing.setName(item.getName());
+            existing.setPrice(item.getPrice());
+            existing.setStock(item.getStock());
+            existing.setSku(item.getSku());
+
+            if (item.getCategory() != null && item.getCategory().getId() != null) {
+                categoryRepository.findById(item.getCategory().getId())
+                        .ifPresent(existing::setCategory);
+            }
+
+            Item saved;
+            try {
+                saved = itemRepository.save(existing);
+            } catch (OptimisticLockingFailureException e) {
+                if (expectedVersion == null && attempt < BLIND_PUT_ATTEMPTS) {
+                    continue;
+                }
+                return Response.status(expectedVersion != null
+                        ? Response.Status.PRECONDITION_FAILED
+                        : Response.Status.CONFLICT).build();
+            }
+            // merge() hands back the category as a proxy that can no longer be loaded once the
+            // transaction is over; it is the one already read
+            saved.setCategory(existing.getCategory());
+            if (previousCategoryId.equals(saved.getCategory().getId())) {
+                itemCache.itemUpdated(id);
+            } else {
+                itemCache.evict(List.of(id));
+            }
+            stockWritten(List.of(id));
+            return Response.ok(ItemDTO.from(saved))
+                    .tag(Validators.tag(saved.getVersion(), request))
+                    .build();
+        }
+    }
+
+    /**
+     * Like a synchronous PUT, an unknown category leaves the item's category as it is; a
+     * missing item or a stale {@code If-Match} version fails the write once it is drained.
+     */
+    private Response queueUpdate(Long id, String ifMatch, Item item, UriInfo uriInfo) {
+        if (item == null || !ItemWriteQueue.isComplete(item)) {
+            return Response.status(Response.Status.BAD_REQUEST).build();
+        }
+        Long categoryId = item.getCategory() != null && item.getCategory().getId() != null
+                ? categoryRepository.findById(item.getCategory().getId()).map(Category::getId).orElse(null)
+                : null;
+        return accepted(writeQueue.update(id, Validators.expectedVersion(ifMatch), item, categoryId), uriInfo);
+    }
+
+    private Response accepted(Optional<ItemWriteStatus> pending, UriInfo uriInfo) {
+        return pending
+                .map(status -> Response.accepted(status)
+                        .location(uriInfo.getBaseUriBuilder()
+                                .path(ItemResource.class)
+                                .path("writes")
+                                .path(status.trackingId())
+                                .build())
+                        .build())
+                .orElseGet(() -> Response.status(Response.Status.TOO_MANY_REQUESTS)
+                        .header(HttpHeaders.RETRY_AFTER, 1)
+                        .build());
+    }
+
+    @GET
+    @Path("/writes/{trackingId}")
+    public Response getWriteStatus(@PathParam("trackingId") String trackingId) {
+        return Optional.ofNullable(writeQueue)
+                .flatMap(queue -> queue.status(trackingId))
+                .map(status -> Response.ok(status).build())
                 .orElse(Response.status(Response.Status.NOT_FOUND).build());
     }
 
+    @PATCH
+    @Path("/{id}")
+    @Consumes({MediaType.APPLICATION_JSON, APPLICATION_MERGE_PATCH_JSON,
+            CBORMediaTypes.APPLICATION_JACKSON_CBOR, SmileMediaTypes.APPLICATION_JACKSON_SMILE})
+    public Response patchItem(
+            @PathParam("id") Long id,
+            @HeaderParam(HttpHeaders.IF_MATCH) String ifMatch,
+            ItemPatch patch,
+            @Context Request request) {
+        if (patch == null) {
+            return Response.status(Response.Status.BAD_REQUEST).build();
+        }
+        Long expectedVersion = Validators.expectedVersion(ifMatch);
+        int updated = itemRepository.patchItem(id, expectedVersion,
+                patch.sku(), patch.name(), patch.price(), patch.stock(), Instant.now());
+        if (updated == 0) {
+            return Response.status(expectedVersion != null && itemRepository.existsById(id)
+                    ? Response.Status.PRECONDITION_FAILED
+                    : Response.Status.NOT_FOUND).build();
+        }
+        itemCache.itemUpdated(id);
+        if (patch.stock() != null) {
+            stockWritten(List.of(id));
+        }
+        Response.ResponseBuilder response = Response.noContent();
+        return expectedVersion != null
+                ? response.tag(Validators.tag(expectedVersion + 1, request)).build()
+                : response.build();
+    }
+
+    /**
+     * Applied at once with a conditional {@code UPDATE}: 409 when the stock would go below
+     * zero. With {@code STOCK_COALESCE=true} the delta is checked the same way against the
+     * stock {@link StockAccumulator} expects, then queued and answered with 202 and that
+     * stock once the delta is written.
+     */
+    @POST
+    @Path("/{id}/stock")
+    public Response adjustStock(@PathParam("id") Long id, StockAdjustment adjustment) {
+        if (adjustment == null || adjustment.delta() == null) {
+            return Response.status(Response.Status.BAD_REQUEST).build();
+        }
+        Optional<Response> adjusted = stockAccumulator != null
+                ? stockAccumulator.add(id, adjustment.delta())
+                        .map(stock -> Response.accepted(new StockLevel(id, Math.toIntExact(stock))).build())
+                : itemRepository.adjustStock(id, adjustment.delta()).map(stock -> {
+                    itemCache.itemUpdated(id);
+                    return Response.ok(new StockLevel(id, stock)).build();
+                });
+        return adjusted
+                .orElseGet(() -> Response.status(itemRepository.existsById(id)
+                        ? Response.Status.CONFLICT
+                        : Response.Status.NOT_FOUND).build());
+    }
+
     @DELETE
     @Path("/{id}")
     public Response deleteItem(@PathParam("id") Long id) {
-        if (!itemRepository.existsById(id)) {
+        if (itemRepository.deleteItemById(id) == 0) {
             return Response.status(Response.Status.NOT_FOUND).build();
         }
-        itemRepository.deleteById(id);
+        itemCache.evict(List.of(id));
         return Response.noContent().build();
     }
 }
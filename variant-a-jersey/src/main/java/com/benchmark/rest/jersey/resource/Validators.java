@@ -0,0 +1,122 @@
+package com.benchmark.rest.jersey.resource;
+
+import com.fasterxml.jackson.jakarta.rs.cbor.CBORMediaTypes;
+import com.fasterxml.jackson.jakarta.rs.smile.SmileMediaTypes;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.Variant;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * ETag / Last-Modified pair, so conditional GETs can be answered with 304 before anything
+ * is serialized. Pages get a weak tag derived from {@code updated_at}; single entities a
+ * strong tag carrying their {@code @Version}, which {@code If-Match} is checked against.
+ * A strong tag is only shared by byte-identical bodies, so it also names the negotiated
+ * format: {@code "7"} for JSON, {@code "7-cbor"} and {@code "7-x-jackson-smile"} otherwise.
+ */
+final class Validators {
+
+    /** Formats of a single entity, JSON first as in {@code @Produces}. */
+    static final List<Variant> VARIANTS = Variant.mediaTypes(
+            MediaType.APPLICATION_JSON_TYPE,
+            MediaType.valueOf(CBORMediaTypes.APPLICATION_JACKSON_CBOR),
+            MediaType.valueOf(SmileMediaTypes.APPLICATION_JACKSON_SMILE)).build();
+
+    private final EntityTag etag;
+    private final Date lastModified;
+    private final Variant variant;
+
+    private Validators(EntityTag etag, Instant lastModified, Variant variant) {
+        this.etag = etag;
+        this.lastModified = lastModified != null ? Date.from(lastModified) : null;
+        this.variant = variant;
+    }
+
+    static Validators of(long version, Instant updatedAt, Request request) {
+        Variant variant = request.selectVariant(VARIANTS);
+        return new Validators(tag(version, variant), updatedAt, variant);
+    }
+
+    /**
+     * @param discriminator anything else rendered with the rows that can change
+     *                      independently of them (total count, presence of a next cursor)
+     */
+    static <T> Validators of(List<T> rows, long discriminator,
+                             ToLongFunction<T> idOf, Function<T, Instant> updatedAtOf) {
+        long hash = discriminator;
+        Instant lastModified = null;
+        for (T row : rows) {
+            Instant updatedAt = updatedAtOf.apply(row);
+            hash = 31 * hash + mix(idOf.applyAsLong(row), updatedAt);
+            if (lastModified == null || updatedAt.isAfter(lastModified)) {
+                lastModified = updatedAt;
+            }
+        }
+        return new Validators(new EntityTag(Long.toHexString(hash), true), lastModified, null);
+    }
+
+    /**
+     * Tag of the representation the request negotiates, for write responses.
+     */
+    static EntityTag tag(long version, Request request) {
+        return tag(version, request.selectVariant(VARIANTS));
+    }
+
+    private static EntityTag tag(long version, Variant variant) {
+        if (variant == null || variant.getMediaType().isCompatible(MediaType.APPLICATION_JSON_TYPE)) {
+            return new EntityTag(Long.toString(version));
+        }
+        return new EntityTag(version + "-" + variant.getMediaType().getSubtype());
+    }
+
+    /**
+     * Version required by an {@code If-Match} header, whatever format its tag was given for:
+     * {@code null} when absent or {@code *}, {@code -1} (matching no row) for weak, malformed
+     * or multiple tags.
+     */
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String value = ifMatch.trim();
+        if (value.length() < 3 || value.charAt(0) != '"' || value.charAt(value.length() - 1) != '"') {
+            return -1L;
+        }
+        String tag = value.substring(1, value.length() - 1);
+        int format = tag.indexOf('-');
+        try {
+            return Long.parseLong(format > 0 ? tag.substring(0, format) : tag);
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
+    }
+
+    Response respond(Request request, Object entity) {
+        return respond(request, entity, variant);
+    }
+
+    Response respond(Request request, Object entity, Variant variant) {
+        Response.ResponseBuilder builder = lastModified != null
+                ? request.evaluatePreconditions(lastModified, etag)
+                : request.evaluatePreconditions(etag);
+        if (builder == null) {
+            builder = variant != null ? Response.ok(entity, variant) : Response.ok(entity);
+        }
+        builder.tag(etag);
+        if (lastModified != null) {
+            builder.lastModified(lastModified);
+        }
+        return builder.build();
+    }
+
+    private static long mix(long id, Instant updatedAt) {
+        return (31 * id + updatedAt.getEpochSecond()) * 31 + updatedAt.getNano();
+    }
+}
@@ -0,0 +1,11 @@
+-- Stock jamais négatif, identique dans toutes les variantes : la base garde le plancher que
+-- vérifient l'accumulateur de stock, les PUT/PATCH, les lots et les écritures différées.
+-- Ajoutée seulement si absente : une base reprise peut déjà la porter.
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'ck_item_stock_non_negative') THEN
+        ALTER TABLE item ADD CONSTRAINT ck_item_stock_non_negative CHECK (stock >= 0);
+    END IF;
+END
+$$;
@@ -0,0 +1,27 @@
+package com.benchmark.rest.jersey;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A single-item read runs one statement; with a budget of none it is counted and refused.
+ */
+@TestPropertySource(properties = "benchmark.sql.budgets[GET\\ /api/items/{id}]=0")
+class BudgetExceededTests extends ApiTest {
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Test
+    void overBudgetRequestsFail() {
+        assertThat(api.get("/items/7").statusCode()).isEqualTo(500);
+
+        assertThat(registry.get("hibernate.request.budget.exceeded").tag("uri", "/api/items/{id}").counter().count())
+                .isEqualTo(1);
+        ok(api.get("/categories/1"));
+    }
+}
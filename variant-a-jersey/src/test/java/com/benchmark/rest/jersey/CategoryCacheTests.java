@@ -0,0 +1,57 @@
+package com.benchmark.rest.jersey;
+
+import com.benchmark.rest.jersey.config.RequestStatisticsListener;
+import com.benchmark.rest.testing.ApiResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Categories come from the second-level cache by id and by code, listings from the query
+ * cache; a repeat read runs no SQL statement at all.
+ */
+class CategoryCacheTests extends ApiTest {
+
+    @Test
+    void repeatedReadsRunNoStatement() {
+        long id = createCategory();
+        String code = ok(api.get("/categories/" + id)).json().get("code").asText();
+        ok(api.get("/categories/code/" + code));
+        ok(api.get("/categories?page=0&size=50"));
+
+        assertThat(statements(ok(api.get("/categories/" + id)))).isZero();
+        assertThat(statements(ok(api.get("/categories/code/" + code)))).isZero();
+        assertThat(statements(ok(api.get("/categories?page=0&size=50")))).isZero();
+    }
+
+    @Test
+    void updatesEvictTheCachedCategory() {
+        long id = createCategory();
+        String code = ok(api.get("/categories/" + id)).json().get("code").asText();
+        ok(api.get("/categories/code/" + code));
+        ok(api.get("/categories?page=0&size=50"));
+
+        String renamed = "C-" + UUID.randomUUID().toString().substring(0, 8);
+        ok(api.put("/categories/" + id, Map.of("code", renamed, "name", "Renamed")));
+
+        assertThat(ok(api.get("/categories/" + id)).json().get("name").asText()).isEqualTo("Renamed");
+        assertThat(ok(api.get("/categories/code/" + renamed)).json().get("id").asLong()).isEqualTo(id);
+        assertThat(api.get("/categories/code/" + code).statusCode()).isEqualTo(404);
+        assertThat(ok(api.get("/categories?page=0&size=50")).json().get("content"))
+                .anySatisfy(category -> assertThat(category.get("code").asText()).isEqualTo(renamed));
+    }
+
+    private long createCategory() {
+        ApiResponse created = api.post("/categories",
+                Map.of("code", "C-" + UUID.randomUUID().toString().substring(0, 8), "name", "Cached"));
+        assertThat(created.statusCode()).isEqualTo(201);
+        return created.json().get("id").asLong();
+    }
+
+    private static int statements(ApiResponse response) {
+        return Integer.parseInt(response.header(RequestStatisticsListener.STATEMENTS_HEADER));
+    }
+}
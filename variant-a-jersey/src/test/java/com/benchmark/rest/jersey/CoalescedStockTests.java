@@ -0,0 +1,64 @@
+package com.benchmark.rest.jersey;
+
+import com.benchmark.rest.testing.ApiResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Deltas are answered with 202 and the stock they forecast, and written by the next flush.
+ */
+@TestPropertySource(properties = "benchmark.stock.coalesce.enabled=true")
+class CoalescedStockTests extends ApiTest {
+
+    @Test
+    void acceptedDeltaForecastsTheStock() throws Exception {
+        long id = create(3);
+
+        ApiResponse taken = api.post("/items/" + id + "/stock", Map.of("delta", -3));
+        assertThat(taken.statusCode()).isEqualTo(202);
+        assertThat(taken.json().get("stock").asInt()).isZero();
+
+        assertThat(api.post("/items/" + id + "/stock", Map.of("delta", -1)).statusCode()).isEqualTo(409);
+        assertThat(api.post("/items/999999/stock", Map.of("delta", 1)).statusCode()).isEqualTo(404);
+        assertThat(flushedStock(id, 0)).isZero();
+    }
+
+    @Test
+    void flushKeepsTheFloor() throws Exception {
+        long id = create(5);
+        List<Integer> codes = new ArrayList<>();
+        ExecutorService buyers = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Integer>> statuses = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                statuses.add(buyers.submit(() -> api.post("/items/" + id + "/stock", Map.of("delta", -1)).statusCode()));
+            }
+            for (Future<Integer> status : statuses) {
+                codes.add(status.get());
+            }
+        } finally {
+            buyers.shutdown();
+        }
+
+        assertThat(codes).containsOnly(202, 409).filteredOn(code -> code == 202).hasSize(5);
+        assertThat(flushedStock(id, 0)).isZero();
+    }
+
+    private int flushedStock(long id, int expected) throws InterruptedException {
+        int stock = -1;
+        for (int i = 0; i < 100 && stock != expected; i++) {
+            Thread.sleep(50);
+            stock = ok(api.get("/items/" + id)).json().get("stock").asInt();
+        }
+        return stock;
+    }
+}
@@ -0,0 +1,74 @@
+package com.benchmark.rest.jersey;
+
+import com.benchmark.rest.testing.ApiClient;
+import com.benchmark.rest.testing.ApiResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@code If-Match} writes fail with 412 once the version moved on.
+ */
+class OptimisticLockingTests extends ApiTest {
+
+    @Test
+    void staleIfMatchIsPreconditionFailed() {
+        long id = create(10);
+        String etag = ok(api.get("/items/" + id)).etag();
+        HttpHeaders stale = ApiClient.header(HttpHeaders.IF_MATCH, etag);
+
+        ApiResponse updated = api.exchange(HttpMethod.PUT, "/items/" + id, ApiClient.newItem(10, 1), stale);
+        assertThat(updated.statusCode()).isEqualTo(200);
+        assertThat(updated.etag()).isNotEqualTo(etag);
+
+        assertThat(api.exchange(HttpMethod.PUT, "/items/" + id, ApiClient.newItem(10, 1), stale).statusCode())
+                .isEqualTo(412);
+        assertThat(api.exchange(HttpMethod.PATCH, "/items/" + id, Map.of("stock", 1), stale).statusCode())
+                .isEqualTo(412);
+        assertThat(ok(api.get("/items/" + id)).json().get("stock").asInt()).isEqualTo(10);
+    }
+
+    @Test
+    void patchChangesOnlyTheGivenFields() {
+        long id = create(10);
+        ApiResponse before = ok(api.get("/items/" + id));
+
+        ApiResponse patched = api.exchange(HttpMethod.PATCH, "/items/" + id, Map.of("name", "patched"),
+                ApiClient.header(HttpHeaders.IF_MATCH, before.etag()));
+        assertThat(patched.statusCode()).isEqualTo(204);
+
+        ApiResponse after = ok(api.get("/items/" + id));
+        assertThat(patched.etag()).isEqualTo(after.etag());
+        JsonNode item = after.json();
+        assertThat(item.get("name").asText()).isEqualTo("patched");
+        assertThat(item.get("sku").asText()).isEqualTo(before.json().get("sku").asText());
+        assertThat(item.get("stock").asInt()).isEqualTo(10);
+
+        assertThat(api.patch("/items/999999", Map.of("name", "x")).statusCode()).isEqualTo(404);
+        assertThat(api.exchange(HttpMethod.PATCH, "/items/999999", Map.of("name", "x"),
+                ApiClient.header(HttpHeaders.IF_MATCH, "\"0\"")).statusCode()).isEqualTo(404);
+    }
+
+    @Test
+    void staleCategoryIfMatchIsPreconditionFailed() {
+        ApiResponse created = api.post("/categories",
+                Map.of("code", "L-" + UUID.randomUUID().toString().substring(0, 8), "name", "Locked"));
+        assertThat(created.statusCode()).isEqualTo(201);
+        long id = created.json().get("id").asLong();
+        ApiResponse category = ok(api.get("/categories/" + id));
+        HttpHeaders stale = ApiClient.header(HttpHeaders.IF_MATCH, category.etag());
+
+        Map<String, String> renamed = Map.of("code", category.json().get("code").asText(), "name", "Renamed");
+        assertThat(api.exchange(HttpMethod.PUT, "/categories/" + id, renamed, stale).statusCode()).isEqualTo(200);
+        assertThat(api.exchange(HttpMethod.PUT, "/categories/" + id, renamed, stale).statusCode()).isEqualTo(412);
+        assertThat(api.exchange(HttpMethod.PATCH, "/categories/" + id, Map.of("name", "Stale"), stale).statusCode())
+                .isEqualTo(412);
+        assertThat(ok(api.get("/categories/" + id)).json().get("name").asText()).isEqualTo("Renamed");
+    }
+}
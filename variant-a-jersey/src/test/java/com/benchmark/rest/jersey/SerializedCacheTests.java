@@ -0,0 +1,56 @@
+package com.benchmark.rest.jersey;
+
+import com.benchmark.rest.testing.ApiClient;
+import com.benchmark.rest.testing.ApiResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Stored bodies are keyed by what they were rendered from: a read right after a write sees it.
+ */
+@TestPropertySource(properties = "benchmark.serialized-cache.enabled=true")
+class SerializedCacheTests extends ApiTest {
+
+    @Test
+    void itemReadsFollowWrites() {
+        long id = create(10);
+        ApiResponse first = ok(api.get("/items/" + id));
+        assertThat(ok(api.get("/items/" + id)).body()).isEqualTo(first.body());
+
+        ok(api.put("/items/" + id, ApiClient.newItem(7, 1)));
+        assertThat(ok(api.get("/items/" + id)).json().get("stock").asInt()).isEqualTo(7);
+
+        ok(api.post("/items/" + id + "/stock", Map.of("delta", 2)));
+        ApiResponse adjusted = ok(api.get("/items/" + id));
+        assertThat(adjusted.json().get("stock").asInt()).isEqualTo(9);
+
+        assertThat(api.exchange(HttpMethod.PATCH, "/items/" + id, Map.of("name", "patched"),
+                ApiClient.header(HttpHeaders.IF_MATCH, adjusted.etag())).statusCode()).isEqualTo(204);
+        assertThat(ok(api.get("/items/" + id)).json().get("name").asText()).isEqualTo("patched");
+    }
+
+    @Test
+    void categoryChangesReachTheirItems() {
+        String code = "S-" + UUID.randomUUID().toString().substring(0, 8);
+        ApiResponse created = api.post("/categories", Map.of("code", code, "name", "Serialized"));
+        assertThat(created.statusCode()).isEqualTo(201);
+        long categoryId = created.json().get("id").asLong();
+        ApiResponse item = api.post("/items", ApiClient.newItem(1, categoryId));
+        assertThat(item.statusCode()).isEqualTo(201);
+        long id = item.json().get("id").asLong();
+        assertThat(ok(api.get("/items/" + id)).json().get("categoryCode").asText()).isEqualTo(code);
+        ok(api.get("/categories/" + categoryId));
+
+        String renamed = code + "-R";
+        ok(api.put("/categories/" + categoryId, Map.of("code", renamed, "name", "Renamed")));
+        assertThat(ok(api.get("/categories/" + categoryId)).json().get("name").asText()).isEqualTo("Renamed");
+        assertThat(ok(api.get("/items/" + id)).json().get("categoryCode").asText()).isEqualTo(renamed);
+    }
+}
@@ -0,0 +1,55 @@
+package com.benchmark.rest.jersey;
+
+import com.benchmark.rest.jersey.config.RequestStatisticsListener;
+import com.benchmark.rest.jersey.config.SqlBudgetProperties;
+import com.benchmark.rest.testing.ApiClient;
+import com.benchmark.rest.testing.ApiResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Every checked response carries its statement count, which must stay within its budget.
+ */
+class StatementBudgetTests extends ApiTest {
+
+    @Autowired
+    private SqlBudgetProperties budgets;
+
+    @Test
+    void readsStayWithinTheirBudgets() {
+        assertWithinBudget(api.get("/items?page=0&size=20"), "GET /api/items");
+        assertWithinBudget(api.get("/items?after=&size=20"), "GET /api/items");
+        assertWithinBudget(api.get("/items/search?q=Item&size=20"), "GET /api/items/search");
+        assertWithinBudget(api.get("/items/1"), "GET /api/items/{id}");
+        assertWithinBudget(api.get("/categories"), "GET /api/categories");
+        assertWithinBudget(api.get("/categories/1"), "GET /api/categories/{id}");
+        assertWithinBudget(api.get("/categories/code/CAT1"), "GET /api/categories/code/{code}");
+        assertWithinBudget(api.get("/categories/stats"), "GET /api/categories/stats");
+        assertWithinBudget(api.get("/categories/1/stats"), "GET /api/categories/{id}/stats");
+        assertWithinBudget(api.get("/categories/1/items?page=0&size=20"), "GET /api/categories/{id}/items");
+    }
+
+    @Test
+    void writesStayWithinTheirBudgets() {
+        ApiResponse created = api.post("/items", ApiClient.newItem(10, 1));
+        assertThat(created.statusCode()).isEqualTo(201);
+        assertWithinBudget(created, "POST /api/items");
+        long id = created.json().get("id").asLong();
+
+        assertWithinBudget(api.put("/items/" + id, ApiClient.newItem(20, 1)), "PUT /api/items/{id}");
+        assertWithinBudget(api.patch("/items/" + id, Map.of("name", "patched")), "PATCH /api/items/{id}");
+        assertWithinBudget(api.post("/items/" + id + "/stock", Map.of("delta", -1)), "POST /api/items/{id}/stock");
+        assertWithinBudget(api.delete("/items/" + id), "DELETE /api/items/{id}");
+    }
+
+    private void assertWithinBudget(ApiResponse response, String endpoint) {
+        assertThat(response.status().is2xxSuccessful()).as(endpoint + " status").isTrue();
+        String statements = response.header(RequestStatisticsListener.STATEMENTS_HEADER);
+        assertThat(statements).as(endpoint + " statement count").isNotNull();
+        assertThat(Integer.parseInt(statements)).as(endpoint + " statements").isLessThanOrEqualTo(budgets.budgets().get(endpoint));
+    }
+}
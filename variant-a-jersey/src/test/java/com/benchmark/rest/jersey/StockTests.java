@@ -0,0 +1,50 @@
+package com.benchmark.rest.jersey;
+
+import com.benchmark.rest.testing.ApiResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StockTests extends ApiTest {
+
+    @Test
+    void stockNeverGoesNegative() {
+        long id = create(3);
+
+        ApiResponse taken = ok(api.post("/items/" + id + "/stock", Map.of("delta", -3)));
+        assertThat(taken.json().get("stock").asInt()).isZero();
+
+        assertThat(api.post("/items/" + id + "/stock", Map.of("delta", -1)).statusCode()).isEqualTo(409);
+        assertThat(api.post("/items/" + id + "/stock", Map.of()).statusCode()).isEqualTo(400);
+        assertThat(api.post("/items/999999/stock", Map.of("delta", 1)).statusCode()).isEqualTo(404);
+        assertThat(ok(api.get("/items/" + id)).json().get("stock").asInt()).isZero();
+    }
+
+    @Test
+    void concurrentDecrementsStopAtZero() throws Exception {
+        long id = create(5);
+        List<Integer> codes = new ArrayList<>();
+        ExecutorService buyers = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Integer>> statuses = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                statuses.add(buyers.submit(() -> api.post("/items/" + id + "/stock", Map.of("delta", -1)).statusCode()));
+            }
+            for (Future<Integer> status : statuses) {
+                codes.add(status.get());
+            }
+        } finally {
+            buyers.shutdown();
+        }
+
+        assertThat(codes).containsOnly(200, 409).filteredOn(code -> code == 200).hasSize(5);
+        assertThat(ok(api.get("/items/" + id)).json().get("stock").asInt()).isZero();
+    }
+}
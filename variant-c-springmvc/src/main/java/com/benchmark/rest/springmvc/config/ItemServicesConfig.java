@@ -0,0 +1,77 @@
+package com.benchmark.rest.springmvc.config;
+
+import com.benchmark.rest.items.ItemBatchService;
+import com.benchmark.rest.items.ItemCache;
+import com.benchmark.rest.items.ItemWriteQueue;
+import com.benchmark.rest.items.StockAccumulator;
+import com.benchmark.rest.springmvc.dto.ItemDTO;
+import com.benchmark.rest.springmvc.model.Category;
+import com.benchmark.rest.springmvc.model.Item;
+import com.benchmark.rest.springmvc.repository.CategoryRepository;
+import com.benchmark.rest.springmvc.repository.ItemRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+
+/**
+ * Services shared with the other JPA variants, bound to this variant's types and properties.
+ */
+@Configuration
+public class ItemServicesConfig {
+
+    @Bean
+    public ItemCache<ItemDTO, ItemDTO> itemCache(
+            MeterRegistry meterRegistry,
+            @Value("${benchmark.item-cache.enabled:false}") boolean enabled,
+            @Value("${benchmark.item-cache.maximum-items:10000}") long maximumItems,
+            @Value("${benchmark.item-cache.maximum-pages:1000}") long maximumPages,
+            @Value("${benchmark.item-cache.cached-pages:5}") int cachedPages,
+            @Value("${benchmark.item-cache.expire-after-write:60s}") Duration expireAfterWrite) {
+        return new ItemCache<>(meterRegistry, enabled, maximumItems, maximumPages, cachedPages, expireAfterWrite,
+                ItemDTO::id);
+    }
+
+    @Bean
+    public ItemBatchService<Item, Category, ItemDTO> itemBatchService(
+            ItemRepository itemRepository,
+            CategoryRepository categoryRepository,
+            PlatformTransactionManager transactionManager) {
+        return new ItemBatchService<>(itemRepository, itemRepository::findAllWithCategoryByIdIn,
+                categoryRepository, Category::getId, ItemDTO::from, transactionManager);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "benchmark.stock.coalesce.enabled", havingValue = "true")
+    public StockAccumulator stockAccumulator(
+            JdbcTemplate jdbcTemplate,
+            ItemCache<ItemDTO, ItemDTO> itemCache,
+            MeterRegistry meterRegistry,
+            @Value("${benchmark.stock.coalesce.stripes:64}") int stripes,
+            @Value("${benchmark.stock.coalesce.flush-interval:50ms}") Duration flushInterval) {
+        return new StockAccumulator(jdbcTemplate, itemCache, meterRegistry, stripes, flushInterval);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "benchmark.write-behind.enabled", havingValue = "true")
+    public ItemWriteQueue itemWriteQueue(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            ItemCache<ItemDTO, ItemDTO> itemCache,
+            ObjectProvider<StockAccumulator> stockAccumulator,
+            MeterRegistry meterRegistry,
+            @Value("${benchmark.write-behind.capacity:10000}") int capacity,
+            @Value("${benchmark.write-behind.writers:2}") int writers,
+            @Value("${benchmark.write-behind.batch-size:200}") int batchSize,
+            @Value("${benchmark.write-behind.tracked:100000}") long tracked,
+            @Value("${benchmark.write-behind.status-ttl:10m}") Duration statusTtl) {
+        return new ItemWriteQueue(jdbcTemplate, transactionManager, itemCache, stockAccumulator.getIfAvailable(),
+                meterRegistry, capacity, writers, batchSize, tracked, statusTtl);
+    }
+}
@@ -0,0 +1,22 @@
+package com.benchmark.rest.springmvc.config;
+
+import com.benchmark.rest.springmvc.service.SerializedBodyCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Item and category bodies are the most repeated responses: write them from
+ * {@link SerializedBodyCache}. Boot puts converter beans ahead of its defaults, so this one is
+ * asked before Jackson. {@code SERIALIZED_CACHE=true} turns it on.
+ */
+@Configuration
+@ConditionalOnProperty(name = "benchmark.serialized-cache.enabled", havingValue = "true")
+public class SerializedBodyConfig {
+
+    @Bean
+    public SerializedJsonConverter serializedJsonConverter(SerializedBodyCache cache, ObjectMapper objectMapper) {
+        return new SerializedJsonConverter(cache, objectMapper);
+    }
+}
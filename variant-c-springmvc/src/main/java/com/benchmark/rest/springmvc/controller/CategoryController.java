@@ -1,19 +1,29 @@
 package com.benchmark.rest.springmvc.controller;
 
+import com.benchmark.rest.items.ItemCache;
+import com.benchmark.rest.springmvc.dto.CategoryPatch;
+import com.benchmark.rest.springmvc.dto.CategoryStats;
+import com.benchmark.rest.springmvc.dto.CursorPage;
 import com.benchmark.rest.springmvc.dto.ItemDTO;
 import com.benchmark.rest.springmvc.model.Category;
-import com.benchmark.rest.springmvc.model.Item;
 import com.benchmark.rest.springmvc.repository.CategoryRepository;
 import com.benchmark.rest.springmvc.repository.ItemRepository;
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.SortDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Instant;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/categories")
@@ -21,24 +31,60 @@ public class CategoryController {
 
     private final CategoryRepository repository;
     private final ItemRepository itemRepository;
+    private final ItemCache<ItemDTO, ItemDTO> itemCache;
+    private final int maxPageSize;
 
-    public CategoryController(CategoryRepository repository, ItemRepository itemRepository) {
+    public CategoryController(
+            CategoryRepository repository,
+            ItemRepository itemRepository,
+            ItemCache<ItemDTO, ItemDTO> itemCache,
+            @Value("${spring.data.web.pageable.max-page-size:2000}") int maxPageSize) {
         this.repository = repository;
         this.itemRepository = itemRepository;
+        this.itemCache = itemCache;
+        this.maxPageSize = maxPageSize;
     }
 
     @GetMapping
-    public Page<Category> getAllCategories(Pageable pageable) {
-        return repository.findAll(pageable);
+    public ResponseEntity<Page<Category>> getAllCategories(@SortDefault("id") Pageable pageable) {
+        Page<Category> page = repository.findAll(pageable);
+        return Validators.ok(page.getContent(), page.getTotalElements(), Category::getId, Category::getUpdatedAt)
+                .body(page);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Category> getCategoryById(@PathVariable Long id) {
+    public ResponseEntity<Category> getCategoryById(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
         return repository.findById(id)
+                .map(category -> Validators.ok(category.getVersion(), category.getUpdatedAt(), accept).body(category))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Item count, total stock and price range of every category, from one grouped aggregate.
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<List<CategoryStats>> getAllCategoryStats() {
+        return ResponseEntity.ok(repository.findAllStats());
+    }
+
+    @GetMapping("/{id}/stats")
+    public ResponseEntity<CategoryStats> getCategoryStats(@PathVariable Long id) {
+        return repository.findStatsById(id)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @GetMapping("/code/{code}")
+    public ResponseEntity<Category> getCategoryByCode(
+            @PathVariable String code,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return repository.findByNaturalCode(code)
+                .map(category -> Validators.ok(category.getVersion(), category.getUpdatedAt(), accept).body(category))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     @PostMapping
     public ResponseEntity<Category> createCategory(@RequestBody @Valid Category category) {
         Category saved = repository.save(category);
@@ -48,48 +94,101 @@ public class CategoryController {
     @PutMapping("/{id}")
     public ResponseEntity<Category> updateCategory(
             @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
             @RequestBody @Valid Category category) {
-        return repository.findById(id)
-                .map(existing -> {
-                    existing.setName(category.getName());
-                    existing.setCode(category.getCode());
-                    Category updated = repository.save(existing);
-                    return ResponseEntity.ok(updated);
-                })
-                .orElse(ResponseEntity.notFound().build());
+        Category existing = repository.findById(id).orElse(null);
+        if (existing == null) {
+            return ResponseEntity.notFound().build();
+        }
+        Long expectedVersion = Validators.expectedVersion(ifMatch);
+        if (expectedVersion != null && !expectedVersion.equals(existing.getVersion())) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
+
+        existing.setName(category.getName());
+        existing.setCode(category.getCode());
+        Category updated;
+        try {
+            updated = repository.save(existing);
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(expectedVersion != null
+                    ? HttpStatus.PRECONDITION_FAILED
+                    : HttpStatus.CONFLICT).build();
+        }
+        itemCache.clear();
+        return ResponseEntity.ok()
+                .eTag(Validators.tag(updated.getVersion(), accept))
+                .body(updated);
+    }
+
+    @PatchMapping("/{id}")
+    public ResponseEntity<Void> patchCategory(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestBody CategoryPatch patch) {
+        Long expectedVersion = Validators.expectedVersion(ifMatch);
+        int updated = repository.patchCategory(id, expectedVersion, patch.code(), patch.name(), Instant.now());
+        if (updated == 0) {
+            return ResponseEntity.status(expectedVersion != null && repository.existsById(id)
+                    ? HttpStatus.PRECONDITION_FAILED
+                    : HttpStatus.NOT_FOUND).build();
+        }
+        itemCache.clear();
+        ResponseEntity.HeadersBuilder<?> response = ResponseEntity.noContent();
+        return expectedVersion != null
+                ? response.eTag(Validators.tag(expectedVersion + 1, accept)).build()
+                : response.build();
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteCategory(@PathVariable Long id) {
-        if (!repository.existsById(id)) {
+        if (repository.deleteWithItemsById(id) == 0) {
             return ResponseEntity.notFound().build();
         }
-        repository.deleteById(id);
+        itemCache.clear();
         return ResponseEntity.noContent().build();
     }
 
     @GetMapping("/{id}/items")
-    public Page<ItemDTO> getCategoryItems(
+    public ResponseEntity<?> getCategoryItems(
             @PathVariable Long id,
-            Pageable pageable) {
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @SortDefault("id") Pageable pageable) {
         
-        if (!repository.existsById(id)) {
-            return Page.empty();
+        Optional<Long> total = repository.countItemsById(id);
+        if (total.isEmpty()) {
+            return ItemPages.ok(Page.empty(), accept);
         }
         
-        List<Item> items = itemRepository.findByCategoryIdJoinFetch(id);
-        List<ItemDTO> dtos = items.stream()
-                .map(item -> new ItemDTO(
-                        item.getId(),
-                        item.getSku(),
-                        item.getName(),
-                        item.getPrice(),
-                        item.getStock(),
-                        item.getCategory().getCode()
-                ))
-                .collect(Collectors.toList());
-
-        return new PageImpl<>(dtos, pageable, items.size());
+        List<ItemDTO> content = pageable.isUnpaged() || total.get() > pageable.getOffset()
+                ? itemRepository.findDtoContentByCategoryId(id, pageable)
+                : List.of();
+        return ItemPages.ok(new PageImpl<>(content, pageable, total.get()), accept);
     }
-}
 
+    @GetMapping(value = "/{id}/items", params = "after")
+    public ResponseEntity<CursorPage<ItemDTO>> getCategoryItemsAfter(
+            @PathVariable Long id,
+            @RequestParam String after,
+            @RequestParam(defaultValue = "20") int size) {
+
+        long afterId;
+        try {
+            afterId = CursorPage.decode(after);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (size < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        int pageSize = Math.min(size, maxPageSize);
+
+        List<ItemDTO> dtos = itemRepository.findDtoByCategoryIdAfter(id, afterId, Limit.of(pageSize + 1));
+
+        CursorPage<ItemDTO> page = CursorPage.of(dtos, pageSize, ItemDTO::id);
+        return Validators.ok(page.content(), page.next() != null ? 1 : 0, ItemDTO::id, ItemDTO::updatedAt)
+                .body(page);
+    }
+}
@@ -1,76 +1,192 @@
 package com.benchmark.rest.springmvc.controller;
 
+import com.benchmark.rest.items.BatchItemResult;
+import com.benchmark.rest.items.ItemBatchService;
+import com.benchmark.rest.items.ItemCache;
+import com.benchmark.rest.items.ItemWriteQueue;
+import com.benchmark.rest.items.ItemWriteStatus;
+import com.benchmark.rest.items.StockAccumulator;
+import com.benchmark.rest.springmvc.dto.CursorPage;
 import com.benchmark.rest.springmvc.dto.ItemDTO;
+import com.benchmark.rest.springmvc.dto.ItemPatch;
+import com.benchmark.rest.springmvc.dto.ItemSearch;
+import com.benchmark.rest.springmvc.dto.StockAdjustment;
+import com.benchmark.rest.springmvc.dto.StockLevel;
 import com.benchmark.rest.springmvc.model.Category;
 import com.benchmark.rest.springmvc.model.Item;
 import com.benchmark.rest.springmvc.repository.CategoryRepository;
 import com.benchmark.rest.springmvc.repository.ItemRepository;
+import com.benchmark.rest.springmvc.repository.ItemSpecifications;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.SortDefault;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.Iterator;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/items")
 public class ItemController {
 
+    private static final int BLIND_PUT_ATTEMPTS = 5;
+
     private final ItemRepository itemRepository;
     private final CategoryRepository categoryRepository;
+    private final ItemBatchService<Item, Category, ItemDTO> batchService;
+    private final ItemCache<ItemDTO, ItemDTO> itemCache;
+    private final StockAccumulator stockAccumulator;
+    private final ItemWriteQueue writeQueue;
+    private final ObjectWriter ndjsonWriter;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int maxPageSize;
 
-    public ItemController(ItemRepository itemRepository, CategoryRepository categoryRepository) {
+    public ItemController(
+            ItemRepository itemRepository,
+            CategoryRepository categoryRepository,
+            ItemBatchService<Item, Category, ItemDTO> batchService,
+            ItemCache<ItemDTO, ItemDTO> itemCache,
+            ObjectProvider<StockAccumulator> stockAccumulator,
+            ObjectProvider<ItemWriteQueue> writeQueue,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            @Value("${spring.data.web.pageable.max-page-size:2000}") int maxPageSize) {
         this.itemRepository = itemRepository;
         this.categoryRepository = categoryRepository;
+        this.batchService = batchService;
+        this.itemCache = itemCache;
+        this.stockAccumulator = stockAccumulator.getIfAvailable();
+        this.writeQueue = writeQueue.getIfAvailable();
+        this.ndjsonWriter = objectMapper.writerFor(ItemDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.maxPageSize = maxPageSize;
     }
 
     @GetMapping
-    public Page<ItemDTO> getItems(
+    public ResponseEntity<?> getItems(
             @RequestParam(required = false) Long categoryId,
-            Pageable pageable) {
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @SortDefault("id") Pageable pageable) {
         
-        Page<Item> itemPage;
+        Page<ItemDTO> page = itemCache.page(categoryId, pageable, () -> categoryId != null
+                ? itemRepository.findDtoByCategoryId(categoryId, pageable)
+                : itemRepository.findAllDto(pageable));
+        return ItemPages.ok(page, accept);
+    }
+
+    @GetMapping(params = "after")
+    public ResponseEntity<CursorPage<ItemDTO>> getItemsAfter(
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam String after,
+            @RequestParam(defaultValue = "20") int size) {
 
-        if (categoryId != null) {
-            List<Item> items = itemRepository.findByCategoryIdJoinFetch(categoryId);
-            itemPage = new PageImpl<>(items, pageable, items.size());
-        } else {
-            itemPage = itemRepository.findAllWithCategory(pageable);
+        long afterId;
+        try {
+            afterId = CursorPage.decode(after);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (size < 1) {
+            return ResponseEntity.badRequest().build();
         }
+        int pageSize = Math.min(size, maxPageSize);
 
-        return itemPage.map(item -> new ItemDTO(
-                item.getId(),
-                item.getSku(),
-                item.getName(),
-                item.getPrice(),
-                item.getStock(),
-                item.getCategory().getCode()
-        ));
+        Limit limit = Limit.of(pageSize + 1);
+        List<ItemDTO> dtos = categoryId != null
+                ? itemRepository.findDtoByCategoryIdAfter(categoryId, afterId, limit)
+                : itemRepository.findAllDtoAfter(afterId, limit);
+
+        CursorPage<ItemDTO> page = CursorPage.of(dtos, pageSize, ItemDTO::id);
+        return Validators.ok(page.content(), page.next() != null ? 1 : 0, ItemDTO::id, ItemDTO::updatedAt)
+                .body(page);
+    }
+
+    /**
+     * Filters in the database, paged like {@code GET /items} but ordered by id so that pages
+     * stay stable.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<?> searchItems(
+            ItemSearch search,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            Pageable pageable) {
+
+        if (!search.hasValidPriceRange()) {
+            return ResponseEntity.badRequest().build();
+        }
+        PageRequest byId = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by("id"));
+        Page<ItemDTO> page = itemRepository.findAll(ItemSpecifications.matching(search), byId)
+                .map(ItemDTO::from);
+        return ItemPages.ok(page, accept);
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportItems() {
+        StreamingResponseBody body = output -> readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<ItemDTO> items = itemRepository.streamAllDto();
+                 JsonGenerator generator = ndjsonWriter.createGenerator(output)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setRootValueSeparator(null);
+                for (Iterator<ItemDTO> it = items.iterator(); it.hasNext(); ) {
+                    ndjsonWriter.writeValue(generator, it.next());
+                    generator.writeRaw('\n');
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ItemDTO> getItemById(@PathVariable Long id) {
-        return itemRepository.findById(id)
-                .map(item -> new ItemDTO(
-                        item.getId(),
-                        item.getSku(),
-                        item.getName(),
-                        item.getPrice(),
-                        item.getStock(),
-                        item.getCategory().getCode()
-                ))
-                .map(ResponseEntity::ok)
+    public ResponseEntity<ItemDTO> getItemById(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return itemCache.item(id, () -> itemRepository.findDtoById(id))
+                .map(item -> Validators.ok(item.version(), item.updatedAt(), accept).body(item))
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * With {@code WRITE_BEHIND=true} the checked item is queued in {@link ItemWriteQueue} and
+     * answered with 202 and the location of its write status, or 429 when the queue is full.
+     */
     @PostMapping
-    public ResponseEntity<ItemDTO> createItem(@RequestBody @Valid Item item) {
+    public ResponseEntity<?> createItem(@RequestBody @Valid Item item, UriComponentsBuilder uriBuilder) {
         if (item.getCategory() == null || item.getCategory().getId() == null) {
             return ResponseEntity.badRequest().build();
         }
+        if (writeQueue != null && !ItemWriteQueue.isComplete(item)) {
+            return ResponseEntity.badRequest().build();
+        }
 
         Category category = categoryRepository.findById(item.getCategory().getId())
                 .orElse(null);
@@ -78,55 +194,206 @@ public class ItemController {
             return ResponseEntity.badRequest().build();
         }
 
+        if (writeQueue != null) {
+            return accepted(writeQueue.create(item, category.getId()), uriBuilder);
+        }
+
         item.setCategory(category);
         Item saved = itemRepository.save(item);
-        ItemDTO response = new ItemDTO(
-                saved.getId(),
-                saved.getSku(),
-                saved.getName(),
-                saved.getPrice(),
-                saved.getStock(),
-                saved.getCategory().getCode()
-        );
-        return ResponseEntity.ok(response);
+        itemCache.itemAdded(category.getId());
+        return ResponseEntity.ok(ItemDTO.from(saved));
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<List<BatchItemResult<ItemDTO>>> createItems(@RequestBody @Valid List<Item> items) {
+        if (items.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(evicting(batchService.createAll(items)));
+    }
+
+    @PutMapping("/batch")
+    public ResponseEntity<List<BatchItemResult<ItemDTO>>> updateItems(@RequestBody @Valid List<Item> items) {
+        if (items.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<BatchItemResult<ItemDTO>> results = evicting(batchService.updateAll(items));
+        stockWritten(written(results));
+        return ResponseEntity.ok(results);
     }
 
+    private List<BatchItemResult<ItemDTO>> evicting(List<BatchItemResult<ItemDTO>> results) {
+        itemCache.evict(written(results));
+        return results;
+    }
+
+    private static List<Long> written(List<BatchItemResult<ItemDTO>> results) {
+        return results.stream()
+                .filter(result -> result.item() != null)
+                .map(result -> result.item().id())
+                .toList();
+    }
+
+    /**
+     * The stock {@link StockAccumulator} expects for these items is stale.
+     */
+    private void stockWritten(List<Long> ids) {
+        if (stockAccumulator != null) {
+            stockAccumulator.forget(ids);
+        }
+    }
+
+    /**
+     * With {@code If-Match} the item is only replaced while it still has that version, 412
+     * otherwise. Without it the PUT replaces whatever version it finds: when another write
+     * commits between the read and the update, the item is read again and the body applied to
+     * it, and only after {@value #BLIND_PUT_ATTEMPTS} such races is the answer 409.
+     */
     @PutMapping("/{id}")
-    public ResponseEntity<ItemDTO> updateItem(
+    public ResponseEntity<?> updateItem(
             @PathVariable Long id,
-            @RequestBody @Valid Item item) {
-        return itemRepository.findById(id)
-                .map(existing -> {
-                    existing.setName(item.getName());
-                    existing.setPrice(item.getPrice());
-                    existing.setStock(item.getStock());
-                    existing.setSku(item.getSku());
-                    
-                    if (item.getCategory() != null && item.getCategory().getId() != null) {
-                        categoryRepository.findById(item.getCategory().getId())
-                                .ifPresent(existing::setCategory);
-                    }
-                    
-                    Item updated = itemRepository.save(existing);
-                    ItemDTO response = new ItemDTO(
-                            updated.getId(),
-                            updated.getSku(),
-                            updated.getName(),
-                            updated.getPrice(),
-                            updated.getStock(),
-                            updated.getCategory().getCode()
-                    );
-                    return ResponseEntity.ok(response);
-                })
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestBody @Valid Item item,
+            UriComponentsBuilder uriBuilder) {
+        if (writeQueue != null) {
+            return queueUpdate(id, ifMatch, item, uriBuilder);
+        }
+        Long expectedVersion = Validators.expectedVersion(ifMatch);
+        for (int attempt = 1; ; attempt++) {
+            Item existing = itemRepository.findWithCategoryById(id).orElse(null);
+            if (existing == null) {
+                return ResponseEntity.notFound().build();
+            }
+            if (expectedVersion != null && !expectedVersion.equals(existing.getVersion())) {
+                return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+            }
+            Long previousCategoryId = existing.getCategory().getId();
+
+            existing.setName(item.getName());
+            existing.setPrice(item.getPrice());
+            existing.setStock(item.getStock());
+            existing.setSku(item.getSku());
+
+            if (item.getCategory() != null && item.getCategory().getId() != null) {
+                categoryRepository.findById(item.getCategory().getId())
+                        .ifPresent(existing::setCategory);
+            }
+
+            Item saved;
+            try {
+                saved = itemRepository.save(existing);
+            } catch (OptimisticLockingFailureException e) {
+                if (expectedVersion == null && attempt < BLIND_PUT_ATTEMPTS) {
+                    continue;
+                }
+                return ResponseEntity.status(expectedVersion != null
+                        ? HttpStatus.PRECONDITION_FAILED
+                        : HttpStatus.CONFLICT).build();
+            }
+            // merge() hands back the category as a proxy that can no longer be loaded once the
+            // transaction is over; it is the one already read
+            saved.setCategory(existing.getCategory());
+            if (previousCategoryId.equals(saved.getCategory().getId())) {
+                itemCache.itemUpdated(id);
+            } else {
+                itemCache.evict(List.of(id));
+            }
+            stockWritten(List.of(id));
+            return ResponseEntity.ok()
+                    .eTag(Validators.tag(saved.getVersion(), accept))
+                    .body(ItemDTO.from(saved));
+        }
+    }
+
+    /**
+     * Like a synchronous PUT, an unknown category leaves the item's category as it is; a
+     * missing item or a stale {@code If-Match} version fails the write once it is drained.
+     */
+    private ResponseEntity<?> queueUpdate(Long id, String ifMatch, Item item, UriComponentsBuilder uriBuilder) {
+        if (!ItemWriteQueue.isComplete(item)) {
+            return ResponseEntity.badRequest().build();
+        }
+        Long categoryId = item.getCategory() != null && item.getCategory().getId() != null
+                ? categoryRepository.findById(item.getCategory().getId()).map(Category::getId).orElse(null)
+                : null;
+        return accepted(writeQueue.update(id, Validators.expectedVersion(ifMatch), item, categoryId), uriBuilder);
+    }
+
+    private static ResponseEntity<?> accepted(Optional<ItemWriteStatus> pending, UriComponentsBuilder uriBuilder) {
+        return pending
+                .<ResponseEntity<?>>map(status -> ResponseEntity.accepted()
+                        .location(uriBuilder.path("/items/writes/{trackingId}").buildAndExpand(status.trackingId()).toUri())
+                        .body(status))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                        .header(HttpHeaders.RETRY_AFTER, "1")
+                        .build());
+    }
+
+    @GetMapping("/writes/{trackingId}")
+    public ResponseEntity<ItemWriteStatus> getWriteStatus(@PathVariable String trackingId) {
+        return Optional.ofNullable(writeQueue)
+                .flatMap(queue -> queue.status(trackingId))
+                .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @PatchMapping("/{id}")
+    public ResponseEntity<Void> patchItem(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestBody ItemPatch patch) {
+        Long expectedVersion = Validators.expectedVersion(ifMatch);
+        int updated = itemRepository.patchItem(id, expectedVersion,
+                patch.sku(), patch.name(), patch.price(), patch.stock(), Instant.now());
+        if (updated == 0) {
+            return ResponseEntity.status(expectedVersion != null && itemRepository.existsById(id)
+                    ? HttpStatus.PRECONDITION_FAILED
+                    : HttpStatus.NOT_FOUND).build();
+        }
+        itemCache.itemUpdated(id);
+        if (patch.stock() != null) {
+            stockWritten(List.of(id));
+        }
+        ResponseEntity.HeadersBuilder<?> response = ResponseEntity.noContent();
+        return expectedVersion != null
+                ? response.eTag(Validators.tag(expectedVersion + 1, accept)).build()
+                : response.build();
+    }
+
+    /**
+     * Applied at once with a conditional {@code UPDATE}: 409 when the stock would go below
+     * zero. With {@code STOCK_COALESCE=true} the delta is checked the same way against the
+     * stock {@link StockAccumulator} expects, then queued and answered with 202 and that
+     * stock once the delta is written.
+     */
+    @PostMapping("/{id}/stock")
+    public ResponseEntity<StockLevel> adjustStock(
+            @PathVariable Long id,
+            @RequestBody StockAdjustment adjustment) {
+        if (adjustment.delta() == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        Optional<ResponseEntity<StockLevel>> adjusted = stockAccumulator != null
+                ? stockAccumulator.add(id, adjustment.delta())
+                        .map(stock -> ResponseEntity.accepted().body(new StockLevel(id, Math.toIntExact(stock))))
+                : itemRepository.adjustStock(id, adjustment.delta()).map(stock -> {
+                    itemCache.itemUpdated(id);
+                    return ResponseEntity.ok(new StockLevel(id, stock));
+                });
+        return adjusted
+                .orElseGet(() -> ResponseEntity.status(itemRepository.existsById(id)
+                        ? HttpStatus.CONFLICT
+                        : HttpStatus.NOT_FOUND).build());
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteItem(@PathVariable Long id) {
-        if (!itemRepository.existsById(id)) {
+        if (itemRepository.deleteItemById(id) == 0) {
             return ResponseEntity.notFound().build();
         }
-        itemRepository.deleteById(id);
+        itemCache.evict(List.of(id));
         return ResponseEntity.noContent().build();
     }
 }
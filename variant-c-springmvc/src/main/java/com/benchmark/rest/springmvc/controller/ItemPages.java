@@ -0,0 +1,32 @@
+package com.benchmark.rest.springmvc.controller;
+
+import com.benchmark.rest.springmvc.dto.ItemDTO;
+import com.benchmark.rest.springmvc.dto.LeanPage;
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Renders an offset page of items either as the usual {@code Page} or, when the client names
+ * {@value LeanPage#MEDIA_TYPE} in Accept, as a {@link LeanPage}. Decided here rather than with
+ * {@code produces} so that {@code *}{@code /*} and missing Accept headers keep the default body.
+ */
+final class ItemPages {
+
+    private static final MediaType LEAN = MediaType.parseMediaType(LeanPage.MEDIA_TYPE);
+
+    private ItemPages() {
+    }
+
+    static ResponseEntity<?> ok(Page<ItemDTO> page, String accept) {
+        boolean lean = accept != null && accept.contains(LeanPage.MEDIA_TYPE);
+        // Distinct validator per representation, both vary on Accept
+        long discriminator = lean ? ~page.getTotalElements() : page.getTotalElements();
+        ResponseEntity.BodyBuilder builder = Validators.ok(page.getContent(), discriminator, ItemDTO::id, ItemDTO::updatedAt)
+                .varyBy(HttpHeaders.ACCEPT);
+        return lean
+                ? builder.contentType(LEAN).body(LeanPage.of(page))
+                : builder.body(page);
+    }
+}
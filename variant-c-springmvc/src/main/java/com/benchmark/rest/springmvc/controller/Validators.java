@@ -0,0 +1,121 @@
+package com.benchmark.rest.springmvc.controller;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * ETag / Last-Modified pair. Spring MVC compares them against If-None-Match /
+ * If-Modified-Since and answers 304 without writing the body. Pages get a weak tag derived
+ * from {@code updated_at}; single entities a strong tag carrying their {@code @Version},
+ * which {@code If-Match} is checked against. A strong tag is only shared by byte-identical
+ * bodies, so it also names the format the Accept header negotiates: {@code "7"} for JSON,
+ * {@code "7-cbor"} and {@code "7-x-jackson-smile"} otherwise.
+ */
+final class Validators {
+
+    /** Writable formats of a single entity, in converter order. */
+    private static final List<MediaType> FORMATS = List.of(
+            MediaType.APPLICATION_JSON,
+            MediaType.APPLICATION_CBOR,
+            MediaType.parseMediaType("application/x-jackson-smile"));
+
+    private Validators() {
+    }
+
+    static ResponseEntity.BodyBuilder ok(long version, Instant updatedAt, String accept) {
+        return ResponseEntity.ok()
+                .eTag(tag(version, accept))
+                .lastModified(updatedAt)
+                .varyBy(HttpHeaders.ACCEPT);
+    }
+
+    /**
+     * @param discriminator anything else rendered with the rows that can change
+     *                      independently of them (total count, presence of a next cursor)
+     */
+    static <T> ResponseEntity.BodyBuilder ok(List<T> rows, long discriminator,
+                                             ToLongFunction<T> idOf, Function<T, Instant> updatedAtOf) {
+        long hash = discriminator;
+        Instant lastModified = null;
+        for (T row : rows) {
+            Instant updatedAt = updatedAtOf.apply(row);
+            hash = 31 * hash + mix(idOf.applyAsLong(row), updatedAt);
+            if (lastModified == null || updatedAt.isAfter(lastModified)) {
+                lastModified = updatedAt;
+            }
+        }
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok().eTag(etag(hash));
+        return lastModified != null ? builder.lastModified(lastModified) : builder;
+    }
+
+    static String tag(long version, String accept) {
+        MediaType format = format(accept);
+        return MediaType.APPLICATION_JSON.equals(format)
+                ? "\"" + version + "\""
+                : "\"" + version + "-" + format.getSubtype() + "\"";
+    }
+
+    /**
+     * Version required by an {@code If-Match} header, whatever format its tag was given for:
+     * {@code null} when absent or {@code *}, {@code -1} (matching no row) for weak, malformed
+     * or multiple tags.
+     */
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String value = ifMatch.trim();
+        if (value.length() < 3 || value.charAt(0) != '"' || value.charAt(value.length() - 1) != '"') {
+            return -1L;
+        }
+        String tag = value.substring(1, value.length() - 1);
+        int format = tag.indexOf('-');
+        try {
+            return Long.parseLong(format > 0 ? tag.substring(0, format) : tag);
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
+    }
+
+    /**
+     * The format MVC will write: the first one in converter order among those the client
+     * accepts with the highest quality, JSON when nothing matches (a 406 then anyway).
+     */
+    private static MediaType format(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return MediaType.APPLICATION_JSON;
+        }
+        List<MediaType> acceptable;
+        try {
+            acceptable = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return MediaType.APPLICATION_JSON;
+        }
+        MediaType selected = MediaType.APPLICATION_JSON;
+        double quality = 0;
+        for (MediaType format : FORMATS) {
+            for (MediaType type : acceptable) {
+                if (type.includes(format) && type.getQualityValue() > quality) {
+                    selected = format;
+                    quality = type.getQualityValue();
+                }
+            }
+        }
+        return selected;
+    }
+
+    private static String etag(long hash) {
+        return "W/\"" + Long.toHexString(hash) + "\"";
+    }
+
+    private static long mix(long id, Instant updatedAt) {
+        return (31 * id + updatedAt.getEpochSecond()) * 31 + updatedAt.getNano();
+    }
+}
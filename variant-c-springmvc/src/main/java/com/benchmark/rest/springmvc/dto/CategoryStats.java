@@ -0,0 +1,18 @@
+package com.benchmark.rest.springmvc.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Aggregates over the items of one category. The prices are null for a category without items.
+ */
+public record CategoryStats(
+        Long categoryId,
+        String code,
+        String name,
+        Long itemCount,
+        Long totalStock,
+        BigDecimal minPrice,
+        BigDecimal avgPrice,
+        BigDecimal maxPrice
+) {
+}
@@ -1,6 +1,10 @@
 package com.benchmark.rest.springmvc.dto;
 
+import com.benchmark.rest.springmvc.model.Item;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import java.math.BigDecimal;
+import java.time.Instant;
 
 public record ItemDTO(
         Long id,
@@ -8,7 +12,21 @@ public record ItemDTO(
         String name,
         BigDecimal price,
         Integer stock,
-        String categoryCode
+        String categoryCode,
+        @JsonIgnore Instant updatedAt,
+        @JsonIgnore Long version
 ) {
-}
 
+    public static ItemDTO from(Item item) {
+        return new ItemDTO(
+                item.getId(),
+                item.getSku(),
+                item.getName(),
+                item.getPrice(),
+                item.getStock(),
+                item.getCategory().getCode(),
+                item.getUpdatedAt(),
+                item.getVersion()
+        );
+    }
+}
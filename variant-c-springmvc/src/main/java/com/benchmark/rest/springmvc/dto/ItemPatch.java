@@ -0,0 +1,14 @@
+package com.benchmark.rest.springmvc.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Body of {@code PATCH /items/{id}}: {@code null} fields are left unchanged.
+ */
+public record ItemPatch(
+        String sku,
+        String name,
+        BigDecimal price,
+        Integer stock
+) {
+}
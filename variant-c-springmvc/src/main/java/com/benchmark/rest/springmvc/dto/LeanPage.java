@@ -0,0 +1,118 @@
+package com.benchmark.rest.springmvc.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.springframework.data.domain.Page;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Compact page envelope served for {@value #MEDIA_TYPE}: {@code content}, {@code page},
+ * {@code size}, {@code total} and {@code next} (following page number, {@code null} on the
+ * last page) instead of the full {@code PageImpl} with its {@code pageable} and {@code sort}
+ * blocks. Written by hand with pre-encoded field names; {@link ItemDTO} rows skip bean
+ * introspection altogether.
+ */
+@JsonSerialize(using = LeanPage.Serializer.class)
+public record LeanPage<T>(
+        List<T> content,
+        int page,
+        int size,
+        long total,
+        Integer next
+) {
+
+    public static final String MEDIA_TYPE = "application/vnd.benchmark.page+json";
+
+    public static <T> LeanPage<T> of(Page<T> page) {
+        return new LeanPage<>(
+                page.getContent(),
+                page.getNumber(),
+                page.getSize(),
+                page.getTotalElements(),
+                page.hasNext() ? page.getNumber() + 1 : null);
+    }
+
+    static final class Serializer extends StdSerializer<LeanPage<?>> {
+
+        private static final SerializableString CONTENT = new SerializedString("content");
+        private static final SerializableString PAGE = new SerializedString("page");
+        private static final SerializableString SIZE = new SerializedString("size");
+        private static final SerializableString TOTAL = new SerializedString("total");
+        private static final SerializableString NEXT = new SerializedString("next");
+
+        private static final SerializableString ID = new SerializedString("id");
+        private static final SerializableString SKU = new SerializedString("sku");
+        private static final SerializableString NAME = new SerializedString("name");
+        private static final SerializableString PRICE = new SerializedString("price");
+        private static final SerializableString STOCK = new SerializedString("stock");
+        private static final SerializableString CATEGORY_CODE = new SerializedString("categoryCode");
+
+        @SuppressWarnings("unchecked")
+        Serializer() {
+            super((Class<LeanPage<?>>) (Class<?>) LeanPage.class);
+        }
+
+        @Override
+        public void serialize(LeanPage<?> value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject();
+            gen.writeFieldName(CONTENT);
+            gen.writeStartArray();
+            for (Object row : value.content()) {
+                if (row instanceof ItemDTO item) {
+                    writeItem(item, gen);
+                } else {
+                    provider.defaultSerializeValue(row, gen);
+                }
+            }
+            gen.writeEndArray();
+            gen.writeFieldName(PAGE);
+            gen.writeNumber(value.page());
+            gen.writeFieldName(SIZE);
+            gen.writeNumber(value.size());
+            gen.writeFieldName(TOTAL);
+            gen.writeNumber(value.total());
+            gen.writeFieldName(NEXT);
+            if (value.next() != null) {
+                gen.writeNumber(value.next());
+            } else {
+                gen.writeNull();
+            }
+            gen.writeEndObject();
+        }
+
+        private static void writeItem(ItemDTO item, JsonGenerator gen) throws IOException {
+            gen.writeStartObject();
+            gen.writeFieldName(ID);
+            writeNumber(item.id(), gen);
+            gen.writeFieldName(SKU);
+            gen.writeString(item.sku());
+            gen.writeFieldName(NAME);
+            gen.writeString(item.name());
+            gen.writeFieldName(PRICE);
+            if (item.price() != null) {
+                gen.writeNumber(item.price());
+            } else {
+                gen.writeNull();
+            }
+            gen.writeFieldName(STOCK);
+            writeNumber(item.stock(), gen);
+            gen.writeFieldName(CATEGORY_CODE);
+            gen.writeString(item.categoryCode());
+            gen.writeEndObject();
+        }
+
+        private static void writeNumber(Number value, JsonGenerator gen) throws IOException {
+            if (value != null) {
+                gen.writeNumber(value.longValue());
+            } else {
+                gen.writeNull();
+            }
+        }
+    }
+}
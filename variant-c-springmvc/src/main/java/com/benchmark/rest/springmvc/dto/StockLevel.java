@@ -0,0 +1,7 @@
+package com.benchmark.rest.springmvc.dto;
+
+public record StockLevel(
+        Long id,
+        Integer stock
+) {
+}
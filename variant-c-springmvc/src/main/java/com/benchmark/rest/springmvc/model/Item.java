@@ -1,5 +1,7 @@
 package com.benchmark.rest.springmvc.model;
 
+import com.benchmark.rest.items.ItemEntity;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.*;
@@ -8,7 +10,10 @@ import java.math.BigDecimal;
 import java.time.Instant;
 
 @Entity
-@Table(name = "item")
+@Table(name = "item", indexes = {
+        @Index(name = "idx_item_category_id_id", columnList = "category_id, id"),
+        @Index(name = "idx_item_category_id_price", columnList = "category_id, price")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -16,10 +21,11 @@ import java.time.Instant;
 @Builder
 @EqualsAndHashCode(of = "id")
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
-public class Item {
+public class Item implements ItemEntity<Category> {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "item_seq")
+    @SequenceGenerator(name = "item_seq", sequenceName = "item_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "sku", length = 64, nullable = false, unique = true)
@@ -41,6 +47,11 @@ public class Item {
     @Column(name = "updated_at", nullable = false)
     private Instant updatedAt;
 
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @PrePersist
     @PreUpdate
     protected void updateTimestamp() {
@@ -0,0 +1,14 @@
+package com.benchmark.rest.springmvc.repository;
+
+import com.benchmark.rest.springmvc.model.Category;
+
+import java.util.Optional;
+
+public interface CategoryRepositoryCustom {
+
+    /**
+     * Looks a category up by its natural id, going through the natural-id cache
+     * region before hitting the database.
+     */
+    Optional<Category> findByNaturalCode(String code);
+}
@@ -1,27 +1,107 @@
 package com.benchmark.rest.springmvc.repository;
 
+import com.benchmark.rest.springmvc.dto.ItemDTO;
 import com.benchmark.rest.springmvc.model.Item;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface ItemRepository extends JpaRepository<Item, Long> {
+public interface ItemRepository extends JpaRepository<Item, Long>, JpaSpecificationExecutor<Item> {
+
+    String DTO_SELECT = "SELECT new com.benchmark.rest.springmvc.dto.ItemDTO(i.id, i.sku, i.name, i.price, i.stock, c.code, i.updatedAt, i.version) "
+            + "FROM Item i JOIN i.category c ";
 
     Page<Item> findByCategoryId(Long categoryId, Pageable pageable);
 
-    @Query("SELECT i FROM Item i JOIN FETCH i.category c WHERE c.id = :categoryId")
-    List<Item> findByCategoryIdJoinFetch(@Param("categoryId") Long categoryId);
+    @EntityGraph(attributePaths = "category")
+    Optional<Item> findWithCategoryById(Long id);
+
+    @Query("SELECT i FROM Item i JOIN FETCH i.category WHERE i.id IN :ids")
+    List<Item> findAllWithCategoryByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(DTO_SELECT + "WHERE i.id = :id")
+    Optional<ItemDTO> findDtoById(@Param("id") Long id);
 
     @Query(
-        value = "SELECT i FROM Item i JOIN FETCH i.category",
+        value = DTO_SELECT,
         countQuery = "SELECT COUNT(i) FROM Item i"
     )
-    Page<Item> findAllWithCategory(Pageable pageable);
-}
+    Page<ItemDTO> findAllDto(Pageable pageable);
+
+    @Query(
+        value = DTO_SELECT + "WHERE c.id = :categoryId",
+        countQuery = "SELECT COUNT(i) FROM Item i WHERE i.category.id = :categoryId"
+    )
+    Page<ItemDTO> findDtoByCategoryId(@Param("categoryId") Long categoryId, Pageable pageable);
+
+    @Query(DTO_SELECT + "WHERE c.id = :categoryId")
+    List<ItemDTO> findDtoContentByCategoryId(@Param("categoryId") Long categoryId, Pageable pageable);
 
+    @Query(DTO_SELECT + "WHERE i.id > :after ORDER BY i.id")
+    List<ItemDTO> findAllDtoAfter(@Param("after") long after, Limit limit);
+
+    @Query(DTO_SELECT + "WHERE c.id = :categoryId AND i.id > :after ORDER BY i.id")
+    List<ItemDTO> findDtoByCategoryIdAfter(
+            @Param("categoryId") Long categoryId,
+            @Param("after") long after,
+            Limit limit);
+
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(DTO_SELECT + "ORDER BY i.id")
+    Stream<ItemDTO> streamAllDto();
+
+    /**
+     * Overwrites the non-null fields in one statement, without loading the row. With a
+     * {@code version}, only that version of the row is updated.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Item i SET i.sku = COALESCE(:sku, i.sku), i.name = COALESCE(:name, i.name), "
+            + "i.price = COALESCE(:price, i.price), i.stock = COALESCE(:stock, i.stock), "
+            + "i.updatedAt = :updatedAt, i.version = i.version + 1 "
+            + "WHERE i.id = :id AND (:version IS NULL OR i.version = :version)")
+    int patchItem(
+            @Param("id") Long id,
+            @Param("version") Long version,
+            @Param("sku") String sku,
+            @Param("name") String name,
+            @Param("price") BigDecimal price,
+            @Param("stock") Integer stock,
+            @Param("updatedAt") Instant updatedAt);
+
+    /**
+     * Adds {@code delta} to the stock in one statement, unless the result would be negative.
+     * Returns the new stock, empty when the item is missing or its stock too low.
+     */
+    @Transactional
+    @Query(
+        value = "UPDATE item SET stock = stock + :delta, version = version + 1, updated_at = now() "
+                + "WHERE id = :id AND stock + :delta >= 0 RETURNING stock",
+        nativeQuery = true
+    )
+    Optional<Integer> adjustStock(@Param("id") Long id, @Param("delta") int delta);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Item i WHERE i.id = :id")
+    int deleteItemById(@Param("id") Long id);
+}
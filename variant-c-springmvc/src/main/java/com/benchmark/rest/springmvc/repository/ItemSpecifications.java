@@ -0,0 +1,50 @@
+package com.benchmark.rest.springmvc.repository;
+
+import com.benchmark.rest.springmvc.dto.ItemSearch;
+import com.benchmark.rest.springmvc.model.Item;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link ItemSearch} as a JPA {@link Specification}. Each filter is written the way its index
+ * in {@code V3__item_search_indexes.sql} expects it: {@code sku LIKE 'prefix%'},
+ * {@code lower(name) LIKE '%text%'}, and {@code category_id} with a price range.
+ */
+public final class ItemSpecifications {
+
+    private ItemSpecifications() {
+    }
+
+    public static Specification<Item> matching(ItemSearch search) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (search.sku() != null) {
+                predicates.add(cb.like(root.get("sku"), search.skuPattern(), ItemSearch.LIKE_ESCAPE));
+            }
+            if (search.q() != null) {
+                predicates.add(cb.like(cb.lower(root.get("name")), search.namePattern(), ItemSearch.LIKE_ESCAPE));
+            }
+            if (search.minPrice() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.<BigDecimal>get("price"), search.minPrice()));
+            }
+            if (search.maxPrice() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.<BigDecimal>get("price"), search.maxPrice()));
+            }
+            if (search.stockBelow() != null) {
+                predicates.add(cb.lessThan(root.get("stock"), search.stockBelow()));
+            }
+            if (search.categoryId() != null) {
+                predicates.add(cb.equal(root.get("category").get("id"), search.categoryId()));
+            }
+            // Category in the page query only: the count query cannot fetch
+            if (query.getResultType() != Long.class && query.getResultType() != long.class) {
+                root.fetch("category");
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+}
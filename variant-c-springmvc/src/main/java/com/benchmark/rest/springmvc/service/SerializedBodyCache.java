@@ -0,0 +1,74 @@
+package com.benchmark.rest.springmvc.service;
+
+import com.benchmark.rest.springmvc.dto.ItemDTO;
+import com.benchmark.rest.springmvc.model.Category;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * JSON bodies of single items and categories, kept as byte arrays and bounded by their total
+ * size. Entries are keyed by what they were rendered from (the whole item row with its category
+ * code, the category's {@code updated_at}), so writes need no eviction: the next read of a
+ * changed row misses and renders it again, and the superseded body, never read again, is the
+ * first to be evicted. {@code SERIALIZED_CACHE=true} turns it on.
+ */
+@Service
+@ConditionalOnProperty(name = "benchmark.serialized-cache.enabled", havingValue = "true")
+public class SerializedBodyCache {
+
+    private final Cache<Key, byte[]> bodies;
+
+    public SerializedBodyCache(
+            MeterRegistry meterRegistry,
+            @Value("${benchmark.serialized-cache.maximum-size:32MB}") DataSize maximumSize) {
+        this.bodies = Caffeine.newBuilder()
+                .maximumWeight(maximumSize.toBytes())
+                .weigher((Key key, byte[] body) -> body.length)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, bodies, "serialized-bodies");
+    }
+
+    public byte[] item(ItemDTO item, Renderer renderer) throws IOException {
+        // Record equality covers every field, the code of the item's category included
+        return get(new Key(ItemDTO.class, item.id(), item), renderer);
+    }
+
+    public byte[] category(Category category, Renderer renderer) throws IOException {
+        return get(new Key(Category.class, category.getId(), category.getUpdatedAt()), renderer);
+    }
+
+    private byte[] get(Key key, Renderer renderer) throws IOException {
+        if (key.id() == null || key.validator() == null) {
+            return renderer.render();
+        }
+        try {
+            return bodies.get(key, k -> {
+                try {
+                    return renderer.render();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    @FunctionalInterface
+    public interface Renderer {
+        byte[] render() throws IOException;
+    }
+
+    private record Key(Class<?> type, Long id, Object validator) {
+    }
+}
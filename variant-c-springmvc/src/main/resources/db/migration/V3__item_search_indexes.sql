@@ -0,0 +1,11 @@
+-- Index de GET /items/search, identiques dans toutes les variantes :
+--   sku LIKE 'préfixe%' : B-tree en text_pattern_ops, utilisable quelle que soit la collation
+--   (l'index de la contrainte UNIQUE ne sert pas les LIKE hors collation C) ;
+--   lower(name) LIKE '%texte%' : trigrammes GIN ;
+--   category_id + fourchette de prix : B-tree composite.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_item_sku_pattern ON item (sku text_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_item_name_trgm ON item USING gin (lower(name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_item_category_id_price ON item (category_id, price);
@@ -0,0 +1,54 @@
+package com.benchmark.rest.springmvc;
+
+import com.benchmark.rest.testing.ApiClient;
+import com.benchmark.rest.testing.ApiResponse;
+import com.benchmark.rest.testing.TestDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Starts the variant on a random port against the shared {@link TestDatabase}, seeded with 5
+ * categories and 200 items, with the statement budgets enforced: the response of an
+ * over-budget request is aborted once written. Test classes that add no configuration share
+ * one application context.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "benchmark.sql.count-header=true",
+        "benchmark.sql.fail-on-budget-exceeded=true",
+        "spring.flyway.placeholders.categories=5",
+        "spring.flyway.placeholders.items=200"
+})
+abstract class ApiTest {
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        TestDatabase.jdbc(registry);
+    }
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    ApiClient api;
+
+    @BeforeEach
+    void client() {
+        api = new ApiClient(rest, "");
+    }
+
+    long create(int stock) {
+        ApiResponse created = api.post("/items", ApiClient.newItem(stock, 1));
+        assertThat(created.statusCode()).isEqualTo(200);
+        return created.json().get("id").asLong();
+    }
+
+    ApiResponse ok(ApiResponse response) {
+        assertThat(response.statusCode()).isEqualTo(200);
+        return response;
+    }
+}
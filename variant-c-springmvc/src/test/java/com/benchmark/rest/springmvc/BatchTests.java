@@ -0,0 +1,73 @@
+package com.benchmark.rest.springmvc;
+
+import com.benchmark.rest.springmvc.config.RequestStatisticsFilter;
+import com.benchmark.rest.testing.ApiClient;
+import com.benchmark.rest.testing.ApiResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BatchTests extends ApiTest {
+
+    @Test
+    void rowsAreWrittenInJdbcBatches() {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            rows.add(ApiClient.newItem(i, 1 + i % 5));
+        }
+
+        ApiResponse created = ok(api.post("/items/batch", rows));
+        assertThat(created.json()).hasSize(120)
+                .allSatisfy(result -> assertThat(result.get("status").asInt()).isEqualTo(201));
+        assertThat(Integer.parseInt(created.header(RequestStatisticsFilter.STATEMENTS_HEADER))).isLessThan(12);
+
+        List<Map<String, Object>> updates = new ArrayList<>();
+        for (JsonNode result : created.json()) {
+            updates.add(update(result.get("item").get("id").asLong(), null, 7));
+        }
+        ApiResponse updated = ok(api.put("/items/batch", updates));
+        assertThat(updated.json()).hasSize(120)
+                .allSatisfy(result -> assertThat(result.get("item").get("stock").asInt()).isEqualTo(7));
+        assertThat(Integer.parseInt(updated.header(RequestStatisticsFilter.STATEMENTS_HEADER))).isLessThan(12);
+    }
+
+    @Test
+    void batchRowsFailAlone() {
+        Map<String, Object> duplicate = ApiClient.newItem(1, 1);
+        duplicate.put("sku", "SKU-000001");
+        List<Map<String, Object>> rows = List.of(ApiClient.newItem(1, 1), duplicate, ApiClient.newItem(1, 999),
+                ApiClient.newItem(1, 1));
+
+        JsonNode results = ok(api.post("/items/batch", rows)).json();
+        assertThat(results.get(0).get("status").asInt()).isEqualTo(201);
+        assertThat(results.get(1).get("status").asInt()).isEqualTo(409);
+        assertThat(results.get(2).get("status").asInt()).isEqualTo(400);
+        assertThat(results.get(3).get("status").asInt()).isEqualTo(201);
+        ok(api.get("/items/" + results.get(0).get("item").get("id").asLong()));
+        ok(api.get("/items/" + results.get(3).get("item").get("id").asLong()));
+
+        long id = create(5);
+        long version = ok(api.get("/items/" + id)).version();
+        JsonNode updated = ok(api.put("/items/batch", List.of(
+                update(id, version, 6), update(id, version + 7, 7), update(999999, 0L, 1)))).json();
+        assertThat(updated.get(0).get("status").asInt()).isEqualTo(200);
+        assertThat(updated.get(1).get("status").asInt()).isEqualTo(412);
+        assertThat(updated.get(2).get("status").asInt()).isEqualTo(404);
+        assertThat(ok(api.get("/items/" + id)).json().get("stock").asInt()).isEqualTo(6);
+    }
+
+    private static Map<String, Object> update(long id, Long version, int stock) {
+        Map<String, Object> row = ApiClient.newItem(stock, 1);
+        row.remove("category");
+        row.put("id", id);
+        if (version != null) {
+            row.put("version", version);
+        }
+        return row;
+    }
+}
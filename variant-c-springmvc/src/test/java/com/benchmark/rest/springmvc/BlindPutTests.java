@@ -0,0 +1,48 @@
+package com.benchmark.rest.springmvc;
+
+import com.benchmark.rest.testing.ApiClient;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A PUT without {@code If-Match} replaces whatever version it finds, reading the item again
+ * when another write got in first; only a writer that keeps losing gives up with a 409. Those
+ * retries run past the PUT budget, so it is only recorded here.
+ */
+@TestPropertySource(properties = "benchmark.sql.fail-on-budget-exceeded=false")
+class BlindPutTests extends ApiTest {
+
+    @Test
+    void concurrentBlindPutsAreAppliedOrConflict() throws Exception {
+        long id = create(10);
+        long before = ok(api.get("/items/" + id)).version();
+        int applied = 0;
+        ExecutorService writers = Executors.newFixedThreadPool(3);
+        try {
+            List<Future<Integer>> statuses = new ArrayList<>();
+            for (int i = 0; i < 30; i++) {
+                int stock = i;
+                statuses.add(writers.submit(() -> api.put("/items/" + id, ApiClient.newItem(stock, 1)).statusCode()));
+            }
+            for (Future<Integer> status : statuses) {
+                int code = status.get();
+                assertThat(code).isIn(200, 409);
+                if (code == 200) {
+                    applied++;
+                }
+            }
+        } finally {
+            writers.shutdown();
+        }
+        assertThat(applied).isPositive();
+        assertThat(ok(api.get("/items/" + id)).version()).isEqualTo(before + applied);
+    }
+}
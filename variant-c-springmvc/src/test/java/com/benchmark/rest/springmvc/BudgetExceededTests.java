@@ -0,0 +1,30 @@
+package com.benchmark.rest.springmvc;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.web.client.RestClientException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * A single-item read runs one statement; with a budget of none it is counted and its
+ * response, already written by then, is aborted.
+ */
+@TestPropertySource(properties = "benchmark.sql.budgets[GET\\ /items/{id}]=0")
+class BudgetExceededTests extends ApiTest {
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Test
+    void overBudgetRequestsFail() {
+        assertThatThrownBy(() -> api.get("/items/7")).isInstanceOf(RestClientException.class);
+
+        assertThat(registry.get("hibernate.request.budget.exceeded").tag("uri", "/items/{id}").counter().count())
+                .isEqualTo(1);
+        ok(api.get("/categories/1"));
+    }
+}
@@ -0,0 +1,59 @@
+package com.benchmark.rest.springmvc;
+
+import com.benchmark.rest.testing.ApiClient;
+import com.benchmark.rest.testing.ApiResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConditionalGetTests extends ApiTest {
+
+    @Test
+    void matchingIfNoneMatchIsNotModified() {
+        String etag = ok(api.get("/items/2")).etag();
+        assertThat(etag).isNotNull();
+
+        ApiResponse again = api.get("/items/2", ApiClient.header(HttpHeaders.IF_NONE_MATCH, etag));
+        assertThat(again.statusCode()).isEqualTo(304);
+        assertThat(again.body()).isNull();
+
+        String categoryEtag = ok(api.get("/categories/2")).etag();
+        assertThat(api.get("/categories/2", ApiClient.header(HttpHeaders.IF_NONE_MATCH, categoryEtag)).statusCode())
+                .isEqualTo(304);
+    }
+
+    @Test
+    void pagesCarryWeakValidators() {
+        ApiResponse page = ok(api.get("/items?page=1&size=20"));
+        assertThat(page.etag()).startsWith("W/");
+        assertThat(page.headers().getLastModified()).isPositive();
+
+        assertThat(api.get("/items?page=1&size=20", ApiClient.header(HttpHeaders.IF_NONE_MATCH, page.etag())).statusCode())
+                .isEqualTo(304);
+        assertThat(api.get("/items?page=1&size=20",
+                ApiClient.header(HttpHeaders.IF_MODIFIED_SINCE, page.header(HttpHeaders.LAST_MODIFIED))).statusCode())
+                .isEqualTo(304);
+        assertThat(api.get("/items?page=2&size=20", ApiClient.header(HttpHeaders.IF_NONE_MATCH, page.etag())).statusCode())
+                .isEqualTo(200);
+    }
+
+    @Test
+    void writesChangeTheValidators() {
+        long id = create(10);
+        ApiResponse before = ok(api.get("/items/" + id));
+        ApiResponse pageBefore = ok(api.get("/categories/1/items?size=2000"));
+
+        ok(api.put("/items/" + id, ApiClient.newItem(11, 1)));
+
+        assertThat(api.get("/items/" + id, ApiClient.header(HttpHeaders.IF_NONE_MATCH, before.etag())).statusCode())
+                .isEqualTo(200);
+        assertThat(api.get("/categories/1/items?size=2000",
+                ApiClient.header(HttpHeaders.IF_NONE_MATCH, pageBefore.etag())).statusCode())
+                .isEqualTo(200);
+        assertThat(api.patch("/items/" + id, Map.of("name", "patched")).statusCode()).isEqualTo(204);
+        assertThat(ok(api.get("/items/" + id)).etag()).isNotEqualTo(before.etag());
+    }
+}
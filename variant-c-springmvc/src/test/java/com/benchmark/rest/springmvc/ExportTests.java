@@ -0,0 +1,57 @@
+package com.benchmark.rest.springmvc;
+
+import com.benchmark.rest.testing.ApiResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExportTests extends ApiTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void everyItemIsOneJsonLine() {
+        long id = create(4);
+
+        ApiResponse export = ok(api.get("/items/export"));
+        assertThat(export.headers().getContentType().isCompatibleWith(MediaType.APPLICATION_NDJSON)).isTrue();
+
+        String body = new String(export.body(), StandardCharsets.UTF_8);
+        assertThat(body).endsWith("\n");
+        List<Long> ids = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            JsonNode item = read(line);
+            assertThat(item.get("sku").asText()).isNotEmpty();
+            assertThat(item.get("categoryCode").asText()).startsWith("CAT");
+            if (item.get("id").asLong() == id) {
+                assertThat(item.get("stock").asInt()).isEqualTo(4);
+            }
+            ids.add(item.get("id").asLong());
+        }
+        assertThat(ids).containsExactlyInAnyOrderElementsOf(
+                jdbcTemplate.queryForList("SELECT id FROM item", Long.class));
+    }
+
+    private JsonNode read(String line) {
+        try {
+            return objectMapper.readTree(line);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.benchmark.rest.springmvc;
+
+import com.benchmark.rest.testing.ApiClient;
+import com.benchmark.rest.testing.ApiResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NegotiationTests extends ApiTest {
+
+    private static final MediaType CBOR_TYPE = MediaType.APPLICATION_CBOR;
+    private static final MediaType SMILE_TYPE = MediaType.parseMediaType("application/x-jackson-smile");
+    private static final ObjectMapper CBOR = new CBORMapper();
+    private static final ObjectMapper SMILE = new SmileMapper();
+
+    @Test
+    void itemsAreEncodedInTheAcceptedFormat() {
+        JsonNode json = ok(api.get("/items/2")).json();
+
+        ApiResponse cbor = ok(api.get("/items/2", accept(CBOR_TYPE)));
+        assertThat(cbor.headers().getContentType().isCompatibleWith(CBOR_TYPE)).isTrue();
+        assertThat(cbor.read(CBOR)).hasToString(json.toString());
+
+        ApiResponse smile = ok(api.get("/items/2", accept(SMILE_TYPE)));
+        assertThat(smile.headers().getContentType().isCompatibleWith(SMILE_TYPE)).isTrue();
+        assertThat(smile.read(SMILE)).hasToString(json.toString());
+
+        JsonNode page = ok(api.get("/items?page=0&size=20", accept(SMILE_TYPE))).read(SMILE);
+        assertThat(page.get("content")).hasSize(20);
+    }
+
+    @Test
+    void eachFormatHasItsOwnValidator() {
+        ApiResponse json = ok(api.get("/items/2"));
+        ApiResponse cbor = ok(api.get("/items/2", accept(CBOR_TYPE)));
+        ApiResponse smile = ok(api.get("/items/2", accept(SMILE_TYPE)));
+
+        assertThat(json.etag()).isEqualTo("\"" + json.version() + "\"");
+        assertThat(cbor.etag()).isEqualTo("\"" + json.version() + "-cbor\"");
+        assertThat(smile.etag()).isEqualTo("\"" + json.version() + "-x-jackson-smile\"");
+        assertThat(cbor.headers().getVary()).contains(HttpHeaders.ACCEPT);
+
+        HttpHeaders cborRevalidation = accept(CBOR_TYPE);
+        cborRevalidation.setIfNoneMatch(cbor.etag());
+        assertThat(api.get("/items/2", cborRevalidation).statusCode()).isEqualTo(304);
+        assertThat(api.get("/items/2", ApiClient.header(HttpHeaders.IF_NONE_MATCH, cbor.etag())).statusCode())
+                .isEqualTo(200);
+    }
+
+    @Test
+    void binaryBodiesAreAcceptedOnWrites() throws JsonProcessingException {
+        HttpHeaders cbor = accept(CBOR_TYPE);
+        cbor.setContentType(CBOR_TYPE);
+
+        ApiResponse created = api.exchange(HttpMethod.POST, "/items", CBOR.writeValueAsBytes(ApiClient.newItem(4, 1)), cbor);
+        assertThat(created.statusCode()).isEqualTo(200);
+        long id = created.read(CBOR).get("id").asLong();
+
+        ApiResponse read = ok(api.get("/items/" + id, accept(CBOR_TYPE)));
+        cbor.setIfMatch(read.etag());
+        ApiResponse replaced = api.exchange(HttpMethod.PUT, "/items/" + id, CBOR.writeValueAsBytes(ApiClient.newItem(6, 1)), cbor);
+        assertThat(replaced.statusCode()).isEqualTo(200);
+        assertThat(replaced.etag()).endsWith("-cbor\"");
+
+        HttpHeaders smile = ApiClient.header(HttpHeaders.CONTENT_TYPE, SMILE_TYPE.toString());
+        assertThat(api.exchange(HttpMethod.PATCH, "/items/" + id, SMILE.writeValueAsBytes(Map.of("name", "smiled")), smile)
+                .statusCode()).isEqualTo(204);
+        JsonNode item = ok(api.get("/items/" + id)).json();
+        assertThat(item.get("stock").asInt()).isEqualTo(6);
+        assertThat(item.get("name").asText()).isEqualTo("smiled");
+    }
+
+    private static HttpHeaders accept(MediaType type) {
+        return ApiClient.header(HttpHeaders.ACCEPT, type.toString());
+    }
+}
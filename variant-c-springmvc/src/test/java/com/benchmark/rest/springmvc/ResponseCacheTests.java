@@ -0,0 +1,57 @@
+package com.benchmark.rest.springmvc;
+
+import com.benchmark.rest.testing.ApiClient;
+import com.benchmark.rest.testing.ApiResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The connector compresses responses past {@code min-response-size}; category pages are
+ * also kept compressed by the response cache, which a category write empties.
+ */
+@TestPropertySource(properties = "benchmark.response-cache.enabled=true")
+class ResponseCacheTests extends ApiTest {
+
+    private static final HttpHeaders GZIP = ApiClient.header(HttpHeaders.ACCEPT_ENCODING, "gzip");
+
+    @Test
+    void onlyLargeResponsesAreCompressed() throws IOException {
+        ApiResponse page = ok(api.get("/items?page=0&size=200", GZIP));
+        assertThat(page.header(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(gunzip(page).get("content")).hasSize(200);
+
+        assertThat(ok(api.get("/items/1", GZIP)).header(HttpHeaders.CONTENT_ENCODING)).isNull();
+    }
+
+    @Test
+    void cachedCategoryPagesFollowWrites() throws IOException {
+        JsonNode first = ok(api.get("/categories?page=0&size=200")).json();
+
+        ApiResponse repeat = ok(api.get("/categories?page=0&size=200", GZIP));
+        assertThat(repeat.header(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(gunzip(repeat)).isEqualTo(first);
+
+        String code = "Z-" + UUID.randomUUID().toString().substring(0, 8);
+        assertThat(api.post("/categories", Map.of("code", code, "name", "Zipped")).statusCode()).isEqualTo(200);
+
+        assertThat(ok(api.get("/categories?page=0&size=200")).json().get("content"))
+                .anySatisfy(category -> assertThat(category.get("code").asText()).isEqualTo(code));
+    }
+
+    private static JsonNode gunzip(ApiResponse response) throws IOException {
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(response.body()))) {
+            return new ObjectMapper().readTree(gzip);
+        }
+    }
+}
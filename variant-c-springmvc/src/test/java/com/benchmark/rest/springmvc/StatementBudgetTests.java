@@ -0,0 +1,55 @@
+package com.benchmark.rest.springmvc;
+
+import com.benchmark.rest.springmvc.config.RequestStatisticsFilter;
+import com.benchmark.rest.springmvc.config.SqlBudgetProperties;
+import com.benchmark.rest.testing.ApiClient;
+import com.benchmark.rest.testing.ApiResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Every checked response carries its statement count, which must stay within its budget.
+ */
+class StatementBudgetTests extends ApiTest {
+
+    @Autowired
+    private SqlBudgetProperties budgets;
+
+    @Test
+    void readsStayWithinTheirBudgets() {
+        assertWithinBudget(api.get("/items?page=0&size=20"), "GET /items");
+        assertWithinBudget(api.get("/items?after=&size=20"), "GET /items");
+        assertWithinBudget(api.get("/items/search?q=Item&size=20"), "GET /items/search");
+        assertWithinBudget(api.get("/items/1"), "GET /items/{id}");
+        assertWithinBudget(api.get("/categories"), "GET /categories");
+        assertWithinBudget(api.get("/categories/1"), "GET /categories/{id}");
+        assertWithinBudget(api.get("/categories/code/CAT1"), "GET /categories/code/{code}");
+        assertWithinBudget(api.get("/categories/stats"), "GET /categories/stats");
+        assertWithinBudget(api.get("/categories/1/stats"), "GET /categories/{id}/stats");
+        assertWithinBudget(api.get("/categories/1/items?page=0&size=20"), "GET /categories/{id}/items");
+    }
+
+    @Test
+    void writesStayWithinTheirBudgets() {
+        ApiResponse created = api.post("/items", ApiClient.newItem(10, 1));
+        assertThat(created.statusCode()).isEqualTo(200);
+        assertWithinBudget(created, "POST /items");
+        long id = created.json().get("id").asLong();
+
+        assertWithinBudget(api.put("/items/" + id, ApiClient.newItem(20, 1)), "PUT /items/{id}");
+        assertWithinBudget(api.patch("/items/" + id, Map.of("name", "patched")), "PATCH /items/{id}");
+        assertWithinBudget(api.post("/items/" + id + "/stock", Map.of("delta", -1)), "POST /items/{id}/stock");
+        assertWithinBudget(api.delete("/items/" + id), "DELETE /items/{id}");
+    }
+
+    private void assertWithinBudget(ApiResponse response, String endpoint) {
+        assertThat(response.status().is2xxSuccessful()).as(endpoint + " status").isTrue();
+        String statements = response.header(RequestStatisticsFilter.STATEMENTS_HEADER);
+        assertThat(statements).as(endpoint + " statement count").isNotNull();
+        assertThat(Integer.parseInt(statements)).as(endpoint + " statements").isLessThanOrEqualTo(budgets.budgets().get(endpoint));
+    }
+}
@@ -0,0 +1,113 @@
+package com.benchmark.rest.springmvc;
+
+import com.benchmark.rest.testing.ApiClient;
+import com.benchmark.rest.testing.ApiResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * One writer draining a queue of one write: holding the row lock of an item keeps the writer
+ * busy on its update, so the next write fills the queue and the one after is refused.
+ */
+@TestPropertySource(properties = {
+        "benchmark.write-behind.enabled=true",
+        "benchmark.write-behind.capacity=1",
+        "benchmark.write-behind.writers=1"
+})
+class WriteBehindTests extends ApiTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void createIsAcceptedAndTracked() throws Exception {
+        ApiResponse accepted = api.post("/items", ApiClient.newItem(4, 1));
+        assertThat(accepted.statusCode()).isEqualTo(202);
+        String trackingId = accepted.json().get("trackingId").asText();
+        assertThat(accepted.headers().getLocation().getPath()).endsWith("/items/writes/" + trackingId);
+
+        JsonNode status = completed(trackingId);
+        assertThat(status.get("state").asText()).isEqualTo("DONE");
+        assertThat(ok(api.get("/items/" + status.get("itemId").asLong())).json().get("stock").asInt()).isEqualTo(4);
+
+        assertThat(api.get("/items/writes/unknown").statusCode()).isEqualTo(404);
+        assertThat(api.post("/items", Map.of("category", Map.of("id", 1))).statusCode()).isEqualTo(400);
+    }
+
+    @Test
+    void staleUpdateFailsOnceDrained() throws Exception {
+        long id = created();
+        String etag = ok(api.get("/items/" + id)).etag();
+        assertThat(completed(put(id, 5)).get("state").asText()).isEqualTo("DONE");
+
+        ApiResponse stale = api.exchange(HttpMethod.PUT, "/items/" + id, ApiClient.newItem(6, 1),
+                ApiClient.header(HttpHeaders.IF_MATCH, etag));
+        assertThat(stale.statusCode()).isEqualTo(202);
+        assertThat(completed(stale.json().get("trackingId").asText()).get("state").asText()).isEqualTo("FAILED");
+        assertThat(ok(api.get("/items/" + id)).json().get("stock").asInt()).isEqualTo(5);
+    }
+
+    @Test
+    void fullQueueIsTooManyRequests() throws Exception {
+        long id = created();
+        String blocked;
+        String queued;
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement lock = connection.prepareStatement("SELECT id FROM item WHERE id = ? FOR UPDATE")) {
+                lock.setLong(1, id);
+                lock.executeQuery().close();
+            }
+            blocked = put(id, 1);
+            for (int i = 0; i < 100 && meterRegistry.get("item.write-behind.queue.depth").gauge().value() > 0; i++) {
+                Thread.sleep(20);
+            }
+            queued = put(id, 2);
+
+            ApiResponse refused = api.put("/items/" + id, ApiClient.newItem(3, 1));
+            assertThat(refused.statusCode()).isEqualTo(429);
+            assertThat(refused.header(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+            connection.rollback();
+        }
+
+        assertThat(completed(blocked).get("state").asText()).isEqualTo("DONE");
+        assertThat(completed(queued).get("state").asText()).isEqualTo("DONE");
+        assertThat(ok(api.get("/items/" + id)).json().get("stock").asInt()).isEqualTo(2);
+    }
+
+    private long created() throws InterruptedException {
+        ApiResponse accepted = api.post("/items", ApiClient.newItem(10, 1));
+        assertThat(accepted.statusCode()).isEqualTo(202);
+        return completed(accepted.json().get("trackingId").asText()).get("itemId").asLong();
+    }
+
+    private String put(long id, int stock) {
+        ApiResponse accepted = api.put("/items/" + id, ApiClient.newItem(stock, 1));
+        assertThat(accepted.statusCode()).isEqualTo(202);
+        return accepted.json().get("trackingId").asText();
+    }
+
+    private JsonNode completed(String trackingId) throws InterruptedException {
+        JsonNode status = ok(api.get("/items/writes/" + trackingId)).json();
+        for (int i = 0; i < 100 && status.get("state").asText().equals("PENDING"); i++) {
+            Thread.sleep(50);
+            status = ok(api.get("/items/writes/" + trackingId)).json();
+        }
+        return status;
+    }
+}
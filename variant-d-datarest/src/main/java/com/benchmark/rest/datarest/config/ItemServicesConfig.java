@@ -0,0 +1,46 @@
+package com.benchmark.rest.datarest.config;
+
+import com.benchmark.rest.datarest.dto.ItemDTO;
+import com.benchmark.rest.datarest.projection.ItemSummary;
+import com.benchmark.rest.items.ItemCache;
+import com.benchmark.rest.items.StockAccumulator;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+
+/**
+ * Services shared with the other JPA variants, bound to this variant's types and properties. Items
+ * are cached as {@link ItemDTO}s rather than detached entities; Data REST's own writes evict
+ * through {@link com.benchmark.rest.datarest.service.ItemCacheEventHandler}.
+ */
+@Configuration
+public class ItemServicesConfig {
+
+    @Bean
+    public ItemCache<ItemDTO, ItemSummary> itemCache(
+            MeterRegistry meterRegistry,
+            @Value("${benchmark.item-cache.enabled:false}") boolean enabled,
+            @Value("${benchmark.item-cache.maximum-items:10000}") long maximumItems,
+            @Value("${benchmark.item-cache.maximum-pages:1000}") long maximumPages,
+            @Value("${benchmark.item-cache.cached-pages:5}") int cachedPages,
+            @Value("${benchmark.item-cache.expire-after-write:60s}") Duration expireAfterWrite) {
+        return new ItemCache<>(meterRegistry, enabled, maximumItems, maximumPages, cachedPages, expireAfterWrite,
+                ItemSummary::getId);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "benchmark.stock.coalesce.enabled", havingValue = "true")
+    public StockAccumulator stockAccumulator(
+            JdbcTemplate jdbcTemplate,
+            ItemCache<ItemDTO, ItemSummary> itemCache,
+            MeterRegistry meterRegistry,
+            @Value("${benchmark.stock.coalesce.stripes:64}") int stripes,
+            @Value("${benchmark.stock.coalesce.flush-interval:50ms}") Duration flushInterval) {
+        return new StockAccumulator(jdbcTemplate, itemCache, meterRegistry, stripes, flushInterval);
+    }
+}
@@ -0,0 +1,130 @@
+package com.benchmark.rest.datarest.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.filter.ServerHttpObservationFilter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * Counts the Hibernate work of each request ({@link RequestStatistics}), records it per
+ * endpoint and checks it against the configured statement budgets.
+ */
+public class RequestStatisticsFilter extends OncePerRequestFilter {
+
+    public static final String STATEMENTS_HEADER = "X-SQL-Statements";
+
+    private final MeterRegistry registry;
+    private final SqlBudgetProperties properties;
+
+    public RequestStatisticsFilter(MeterRegistry registry, SqlBudgetProperties properties) {
+        this.registry = registry;
+        this.properties = properties;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestStatistics statistics = RequestStatistics.begin();
+        StatementCountResponse counted = properties.countHeader() ? new StatementCountResponse(response, statistics) : null;
+        try {
+            chain.doFilter(request, counted != null ? counted : response);
+        } finally {
+            RequestStatistics.end();
+            if (counted != null) {
+                counted.writeHeader();
+            }
+        }
+
+        String uri = ServerHttpObservationFilter.findObservationContext(request)
+                .map(ServerRequestObservationContext::getPathPattern)
+                .orElse("UNKNOWN");
+        Tags tags = Tags.of("method", request.getMethod(), "uri", uri);
+        record("hibernate.request.statements", tags, statistics.statements());
+        record("hibernate.request.entity.loads", tags, statistics.entityLoads());
+        record("hibernate.request.flushes", tags, statistics.flushes());
+
+        String endpoint = request.getMethod() + ' ' + uri;
+        Integer budget = properties.budgets().get(endpoint);
+        if (budget != null && statistics.statements() > budget) {
+            Counter.builder("hibernate.request.budget.exceeded").tags(tags).register(registry).increment();
+            if (properties.failOnBudgetExceeded()) {
+                throw new IllegalStateException(endpoint + " ran " + statistics.statements()
+                        + " SQL statements, budget is " + budget);
+            }
+        }
+    }
+
+    private void record(String name, Tags tags, int value) {
+        DistributionSummary.builder(name).tags(tags).register(registry).record(value);
+    }
+
+    /**
+     * Sets the statement count header just before the response is committed, once the
+     * handler has run its queries.
+     */
+    private static final class StatementCountResponse extends HttpServletResponseWrapper {
+
+        private final RequestStatistics statistics;
+        private boolean written;
+
+        StatementCountResponse(HttpServletResponse response, RequestStatistics statistics) {
+            super(response);
+            this.statistics = statistics;
+        }
+
+        void writeHeader() {
+            if (!written && !isCommitted()) {
+                setIntHeader(STATEMENTS_HEADER, statistics.statements());
+            }
+            written = true;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeHeader();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeHeader();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeader();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeHeader();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeHeader();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            writeHeader();
+            super.sendRedirect(location);
+        }
+    }
+}
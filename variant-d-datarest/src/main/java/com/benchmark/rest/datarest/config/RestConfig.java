@@ -2,14 +2,36 @@ package com.benchmark.rest.datarest.config;
 
 import com.benchmark.rest.datarest.model.Category;
 import com.benchmark.rest.datarest.model.Item;
+import com.benchmark.rest.datarest.service.SerializedBodyCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.data.rest.core.config.RepositoryRestConfiguration;
 import org.springframework.data.rest.webmvc.config.RepositoryRestConfigurer;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.hateoas.RepresentationModel;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 
+import java.util.List;
+
 @Component
 public class RestConfig implements RepositoryRestConfigurer {
 
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<SerializedBodyCache> serializedBodies;
+
+    public RestConfig(ObjectMapper objectMapper, ObjectProvider<SerializedBodyCache> serializedBodies) {
+        this.objectMapper = objectMapper;
+        this.serializedBodies = serializedBodies;
+    }
+
     @Override
     public void configureRepositoryRestConfiguration(
             RepositoryRestConfiguration config,
@@ -18,5 +40,40 @@ public class RestConfig implements RepositoryRestConfigurer {
         config.exposeIdsFor(Category.class, Item.class);
         config.setBasePath("/api");
     }
-}
 
+    /**
+     * CBOR and Smile converters appended after the JSON ones. Representation models are
+     * written with copies of the HAL mapper, so binary documents keep the
+     * {@code _embedded}/{@code _links} structure; everything else, request bodies included,
+     * goes through copies of Boot's mapper like plain JSON does, since the HAL mapper reads a
+     * nested {@code "category": {"id": N}} as the item's own id. Request bodies are read by
+     * every endpoint; responses only where the mapping lists the binary types in
+     * {@code produces}, as repository resources are pinned to HAL/JSON.
+     * The HAL converter itself is wrapped in a {@link SerializedHalConverter} when the
+     * serialized body cache is on.
+     */
+    @Override
+    public void configureHttpMessageConverters(List<HttpMessageConverter<?>> messageConverters) {
+        messageConverters.stream()
+                .filter(MappingJackson2HttpMessageConverter.class::isInstance)
+                .map(MappingJackson2HttpMessageConverter.class::cast)
+                .filter(converter -> converter.getSupportedMediaTypes().contains(MediaTypes.HAL_JSON))
+                .findFirst()
+                .ifPresent(hal -> {
+                    messageConverters.add(withHalModels(
+                            new MappingJackson2CborHttpMessageConverter(objectMapper.copyWith(new CBORFactory())),
+                            hal.getObjectMapper().copyWith(new CBORFactory())));
+                    messageConverters.add(withHalModels(
+                            new MappingJackson2SmileHttpMessageConverter(objectMapper.copyWith(new SmileFactory())),
+                            hal.getObjectMapper().copyWith(new SmileFactory())));
+                    serializedBodies.ifAvailable(cache -> messageConverters.set(
+                            messageConverters.indexOf(hal), new SerializedHalConverter(hal, cache)));
+                });
+    }
+
+    private static <T extends AbstractJackson2HttpMessageConverter> T withHalModels(T converter, ObjectMapper halMapper) {
+        converter.registerObjectMappersForType(RepresentationModel.class, mappers ->
+                converter.getSupportedMediaTypes().forEach(type -> mappers.put(type, halMapper)));
+        return converter;
+    }
+}
@@ -0,0 +1,136 @@
+package com.benchmark.rest.datarest.config;
+
+import com.benchmark.rest.datarest.model.Category;
+import com.benchmark.rest.datarest.model.Item;
+import com.benchmark.rest.datarest.service.SerializedBodyCache;
+import org.springframework.data.rest.webmvc.PersistentEntityResource;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.GenericHttpMessageConverter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Takes the place of the HAL converter and writes single item and category resources from
+ * {@link SerializedBodyCache}, so a repeat read skips the Jackson pass over the resource and its
+ * links. Projections, collections and everything else are left to the HAL converter, which also
+ * renders what gets cached.
+ */
+public class SerializedHalConverter implements GenericHttpMessageConverter<Object> {
+
+    private final GenericHttpMessageConverter<Object> hal;
+    private final SerializedBodyCache cache;
+
+    public SerializedHalConverter(GenericHttpMessageConverter<Object> hal, SerializedBodyCache cache) {
+        this.hal = hal;
+        this.cache = cache;
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return hal.canRead(clazz, mediaType);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return hal.canRead(type, contextClass, mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+        return hal.canWrite(clazz, mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        return hal.canWrite(type, clazz, mediaType);
+    }
+
+    @Override
+    public List<MediaType> getSupportedMediaTypes() {
+        return hal.getSupportedMediaTypes();
+    }
+
+    @Override
+    public List<MediaType> getSupportedMediaTypes(Class<?> clazz) {
+        return hal.getSupportedMediaTypes(clazz);
+    }
+
+    @Override
+    public Object read(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        return hal.read(clazz, inputMessage);
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) throws IOException {
+        return hal.read(type, contextClass, inputMessage);
+    }
+
+    @Override
+    public void write(Object value, Type type, MediaType contentType, HttpOutputMessage outputMessage)
+            throws IOException {
+        Instant updatedAt = updatedAt(value);
+        if (updatedAt == null || contentType == null || !contentType.isConcrete()) {
+            hal.write(value, type, contentType, outputMessage);
+            return;
+        }
+        String self = ((PersistentEntityResource) value).getLink(IanaLinkRelations.SELF)
+                .map(Link::getHref)
+                .orElse(null);
+        if (self == null) {
+            hal.write(value, type, contentType, outputMessage);
+            return;
+        }
+        byte[] body = cache.resource(self, contentType, updatedAt, () -> {
+            BufferedMessage rendered = new BufferedMessage();
+            hal.write(value, type, contentType, rendered);
+            return rendered.body.toByteArray();
+        });
+        outputMessage.getHeaders().setContentType(contentType);
+        outputMessage.getHeaders().setContentLength(body.length);
+        outputMessage.getBody().write(body);
+    }
+
+    @Override
+    public void write(Object value, MediaType contentType, HttpOutputMessage outputMessage) throws IOException {
+        write(value, null, contentType, outputMessage);
+    }
+
+    private static Instant updatedAt(Object value) {
+        if (value instanceof PersistentEntityResource resource) {
+            Object content = resource.getContent();
+            if (content instanceof Item item) {
+                return item.getUpdatedAt();
+            }
+            if (content instanceof Category category) {
+                return category.getUpdatedAt();
+            }
+        }
+        return null;
+    }
+
+    private static final class BufferedMessage implements HttpOutputMessage {
+
+        private final HttpHeaders headers = new HttpHeaders();
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream(512);
+
+        @Override
+        public OutputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.benchmark.rest.datarest.controller;
+
+import com.benchmark.rest.datarest.model.Item;
+import com.benchmark.rest.datarest.repository.CategoryRepository;
+import com.benchmark.rest.datarest.repository.ItemRepository;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.rest.webmvc.PersistentEntityResourceAssembler;
+import org.springframework.data.rest.webmvc.RepositoryRestController;
+import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.data.web.SortDefault;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+
+/**
+ * Pages the {@code items} association: the default association resource loads and renders
+ * every item of the category, whatever {@code page} and {@code size} say.
+ */
+@RepositoryRestController
+public class CategoryItemsController {
+
+    private final ItemRepository itemRepository;
+    private final CategoryRepository categoryRepository;
+
+    public CategoryItemsController(ItemRepository itemRepository, CategoryRepository categoryRepository) {
+        this.itemRepository = itemRepository;
+        this.categoryRepository = categoryRepository;
+    }
+
+    @GetMapping("/categories/{id}/items")
+    public ResponseEntity<PagedModel<?>> findItems(
+            @PathVariable Long id,
+            @SortDefault("id") Pageable pageable,
+            PagedResourcesAssembler<Object> pagedAssembler,
+            PersistentEntityResourceAssembler entityAssembler) {
+
+        Page<Item> page = itemRepository.findByCategoryId(id, pageable);
+        if (page.isEmpty() && !categoryRepository.existsById(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(pagedAssembler.toModel(page.map(Object.class::cast), entityAssembler));
+    }
+}
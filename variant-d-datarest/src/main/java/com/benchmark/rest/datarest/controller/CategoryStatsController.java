@@ -0,0 +1,36 @@
+package com.benchmark.rest.datarest.controller;
+
+import com.benchmark.rest.datarest.dto.CategoryStats;
+import com.benchmark.rest.datarest.repository.CategoryRepository;
+import org.springframework.data.rest.webmvc.RepositoryRestController;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+
+import java.util.List;
+
+/**
+ * Item count, total stock and price range per category, each request one grouped aggregate
+ * instead of paging through the {@code items} association.
+ */
+@RepositoryRestController
+public class CategoryStatsController {
+
+    private final CategoryRepository categoryRepository;
+
+    public CategoryStatsController(CategoryRepository categoryRepository) {
+        this.categoryRepository = categoryRepository;
+    }
+
+    @GetMapping("/categories/stats")
+    public ResponseEntity<List<CategoryStats>> findAllStats() {
+        return ResponseEntity.ok(categoryRepository.findAllStats());
+    }
+
+    @GetMapping("/categories/{id}/stats")
+    public ResponseEntity<CategoryStats> findStats(@PathVariable Long id) {
+        return categoryRepository.findStatsById(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
@@ -0,0 +1,64 @@
+package com.benchmark.rest.datarest.controller;
+
+import com.benchmark.rest.datarest.dto.ItemDTO;
+import com.benchmark.rest.datarest.model.Category;
+import com.benchmark.rest.datarest.model.Item;
+import com.benchmark.rest.datarest.projection.ItemSummary;
+import com.benchmark.rest.datarest.repository.ItemRepository;
+import com.benchmark.rest.items.ItemCache;
+import org.springframework.data.rest.webmvc.PersistentEntityResource;
+import org.springframework.data.rest.webmvc.PersistentEntityResourceAssembler;
+import org.springframework.data.rest.webmvc.RepositoryRestController;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+
+/**
+ * Item resource served from {@link ItemCache}, with the same body, {@code ETag} (version) and
+ * {@code Last-Modified} headers as the repository resource it replaces; conditional requests
+ * are answered with 304 by Spring MVC from those headers. Like the repository resources, it is
+ * pinned to HAL/JSON (CBOR and Smile get a 406), so the version alone names the body; the
+ * response still varies on Accept for caches.
+ */
+@RepositoryRestController
+public class ItemController {
+
+    private final ItemRepository itemRepository;
+    private final ItemCache<ItemDTO, ItemSummary> itemCache;
+
+    public ItemController(ItemRepository itemRepository, ItemCache<ItemDTO, ItemSummary> itemCache) {
+        this.itemRepository = itemRepository;
+        this.itemCache = itemCache;
+    }
+
+    @GetMapping("/items/{id}")
+    public ResponseEntity<PersistentEntityResource> findItem(
+            @PathVariable Long id,
+            PersistentEntityResourceAssembler entityAssembler) {
+
+        return itemCache.item(id, () -> itemRepository.findById(id).map(ItemDTO::from))
+                .map(item -> ResponseEntity.ok()
+                        .eTag("\"" + item.version() + "\"")
+                        .lastModified(item.updatedAt())
+                        .varyBy(HttpHeaders.ACCEPT)
+                        .body(entityAssembler.toFullResource(toEntity(item))))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * The assembler renders entities; a transient one is enough, the category is only linked.
+     */
+    private static Item toEntity(ItemDTO item) {
+        return Item.builder()
+                .id(item.id())
+                .sku(item.sku())
+                .name(item.name())
+                .price(item.price())
+                .stock(item.stock())
+                .category(Category.builder().id(item.categoryId()).build())
+                .updatedAt(item.updatedAt())
+                .version(item.version())
+                .build();
+    }
+}
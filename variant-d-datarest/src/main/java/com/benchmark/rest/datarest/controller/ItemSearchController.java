@@ -0,0 +1,131 @@
+package com.benchmark.rest.datarest.controller;
+
+import com.benchmark.rest.datarest.dto.CursorPage;
+import com.benchmark.rest.datarest.dto.ItemDTO;
+import com.benchmark.rest.datarest.dto.ItemSearch;
+import com.benchmark.rest.datarest.dto.LeanPage;
+import com.benchmark.rest.datarest.model.Item;
+import com.benchmark.rest.datarest.projection.ItemSummary;
+import com.benchmark.rest.datarest.repository.ItemRepository;
+import com.benchmark.rest.datarest.repository.ItemSpecifications;
+import com.benchmark.rest.items.ItemCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.rest.webmvc.PersistentEntityResourceAssembler;
+import org.springframework.data.rest.webmvc.RepositoryRestController;
+import org.springframework.data.rest.webmvc.support.RepositoryEntityLinks;
+import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.data.web.PagedModel;
+import org.springframework.data.web.SortDefault;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.hateoas.RepresentationModel;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.List;
+
+@RepositoryRestController
+public class ItemSearchController {
+
+    private static final String APPLICATION_SMILE = "application/x-jackson-smile";
+
+    private final ItemRepository itemRepository;
+    private final ItemCache<ItemDTO, ItemSummary> itemCache;
+    private final RepositoryEntityLinks entityLinks;
+    private final int maxPageSize;
+
+    public ItemSearchController(
+            ItemRepository itemRepository,
+            ItemCache<ItemDTO, ItemSummary> itemCache,
+            RepositoryEntityLinks entityLinks,
+            @Value("${spring.data.rest.max-page-size:1000}") int maxPageSize) {
+        this.itemRepository = itemRepository;
+        this.itemCache = itemCache;
+        this.entityLinks = entityLinks;
+        this.maxPageSize = maxPageSize;
+    }
+
+    /**
+     * Filters in the database, paged like {@code GET /items} but ordered by id so that pages
+     * stay stable. Without any filter this stays the listing of the search resources that the
+     * repository resource serves here.
+     */
+    @GetMapping("/items/search")
+    public ResponseEntity<?> findMatching(
+            ItemSearch search,
+            Pageable pageable,
+            PagedResourcesAssembler<Object> pagedAssembler,
+            PersistentEntityResourceAssembler entityAssembler) {
+
+        if (search.isEmpty()) {
+            RepresentationModel<?> searches = new RepresentationModel<>();
+            searches.add(entityLinks.linksToSearchResources(Item.class));
+            searches.add(entityLinks.linkFor(Item.class).slash("search").withSelfRel());
+            return ResponseEntity.ok(searches);
+        }
+        if (!search.hasValidPriceRange()) {
+            return ResponseEntity.badRequest().build();
+        }
+        PageRequest byId = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by("id"));
+        Page<Item> page = itemRepository.findAll(ItemSpecifications.matching(search), byId);
+        return ResponseEntity.ok(pagedAssembler.toModel(page.map(Object.class::cast), entityAssembler));
+    }
+
+    @GetMapping(value = "/items/search/summaries", produces = {
+            MediaTypes.HAL_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE})
+    public ResponseEntity<PagedModel<ItemSummary>> findSummaries(
+            @RequestParam(required = false) Long categoryId,
+            @SortDefault("id") Pageable pageable) {
+
+        return ResponseEntity.ok(new PagedModel<>(summaries(categoryId, pageable)));
+    }
+
+    @GetMapping(value = "/items", produces = LeanPage.MEDIA_TYPE)
+    public ResponseEntity<LeanPage<ItemSummary>> findLean(
+            @RequestParam(required = false) Long categoryId,
+            @SortDefault("id") Pageable pageable) {
+
+        return ResponseEntity.ok()
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(LeanPage.of(summaries(categoryId, pageable)));
+    }
+
+    private Page<ItemSummary> summaries(Long categoryId, Pageable pageable) {
+        return itemCache.page(categoryId, pageable, () -> categoryId != null
+                ? itemRepository.findSummariesByCategoryId(categoryId, pageable)
+                : itemRepository.findAllSummaries(pageable));
+    }
+
+    @GetMapping(value = "/items/search/after", produces = {
+            MediaTypes.HAL_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE})
+    public ResponseEntity<CursorPage<ItemSummary>> findAfter(
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(defaultValue = "") String after,
+            @RequestParam(defaultValue = "20") int size) {
+
+        long afterId;
+        try {
+            afterId = CursorPage.decode(after);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (size < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        int pageSize = Math.min(size, maxPageSize);
+
+        Limit limit = Limit.of(pageSize + 1);
+        List<ItemSummary> items = categoryId != null
+                ? itemRepository.findSummariesByCategoryIdAfter(categoryId, afterId, limit)
+                : itemRepository.findSummariesAfter(afterId, limit);
+
+        return ResponseEntity.ok(CursorPage.of(items, pageSize, ItemSummary::getId));
+    }
+}
@@ -0,0 +1,61 @@
+package com.benchmark.rest.datarest.controller;
+
+import com.benchmark.rest.datarest.dto.ItemDTO;
+import com.benchmark.rest.datarest.dto.StockAdjustment;
+import com.benchmark.rest.datarest.dto.StockLevel;
+import com.benchmark.rest.datarest.projection.ItemSummary;
+import com.benchmark.rest.datarest.repository.ItemRepository;
+import com.benchmark.rest.items.ItemCache;
+import com.benchmark.rest.items.StockAccumulator;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.rest.webmvc.RepositoryRestController;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+import java.util.Optional;
+
+/**
+ * Stock adjustments, applied at once with a conditional {@code UPDATE}: 409 when the stock
+ * would go below zero. With {@code STOCK_COALESCE=true} deltas are checked the same way
+ * against the stock {@link StockAccumulator} expects, then queued and answered with 202 and
+ * that stock once the delta is written.
+ */
+@RepositoryRestController
+public class StockController {
+
+    private final ItemRepository itemRepository;
+    private final ItemCache<ItemDTO, ItemSummary> itemCache;
+    private final StockAccumulator stockAccumulator;
+
+    public StockController(
+            ItemRepository itemRepository,
+            ItemCache<ItemDTO, ItemSummary> itemCache,
+            ObjectProvider<StockAccumulator> stockAccumulator) {
+        this.itemRepository = itemRepository;
+        this.itemCache = itemCache;
+        this.stockAccumulator = stockAccumulator.getIfAvailable();
+    }
+
+    @PostMapping("/items/{id}/stock")
+    public ResponseEntity<StockLevel> adjustStock(
+            @PathVariable Long id,
+            @RequestBody StockAdjustment adjustment) {
+        if (adjustment.delta() == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        Optional<ResponseEntity<StockLevel>> adjusted = stockAccumulator != null
+                ? stockAccumulator.add(id, adjustment.delta())
+                        .map(stock -> ResponseEntity.accepted().body(new StockLevel(id, Math.toIntExact(stock))))
+                : itemRepository.adjustStock(id, adjustment.delta()).map(stock -> {
+                    itemCache.itemUpdated(id);
+                    return ResponseEntity.ok(new StockLevel(id, stock));
+                });
+        return adjusted
+                .orElseGet(() -> ResponseEntity.status(itemRepository.existsById(id)
+                        ? HttpStatus.CONFLICT
+                        : HttpStatus.NOT_FOUND).build());
+    }
+}
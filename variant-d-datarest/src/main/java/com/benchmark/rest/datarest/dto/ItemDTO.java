@@ -0,0 +1,34 @@
+package com.benchmark.rest.datarest.dto;
+
+import com.benchmark.rest.datarest.model.Item;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * The columns the item resource renders. The category is only linked, so its id is enough.
+ */
+public record ItemDTO(
+        Long id,
+        String sku,
+        String name,
+        BigDecimal price,
+        Integer stock,
+        Long categoryId,
+        Instant updatedAt,
+        Long version
+) {
+
+    public static ItemDTO from(Item item) {
+        return new ItemDTO(
+                item.getId(),
+                item.getSku(),
+                item.getName(),
+                item.getPrice(),
+                item.getStock(),
+                item.getCategory().getId(),
+                item.getUpdatedAt(),
+                item.getVersion()
+        );
+    }
+}
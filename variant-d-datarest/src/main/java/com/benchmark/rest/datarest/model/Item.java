@@ -3,12 +3,16 @@ package com.benchmark.rest.datarest.model;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.*;
+import org.springframework.data.annotation.LastModifiedDate;
 
 import java.math.BigDecimal;
 import java.time.Instant;
 
 @Entity
-@Table(name = "item")
+@Table(name = "item", indexes = {
+        @Index(name = "idx_item_category_id_id", columnList = "category_id, id"),
+        @Index(name = "idx_item_category_id_price", columnList = "category_id, price")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -19,7 +23,8 @@ import java.time.Instant;
 public class Item {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "item_seq")
+    @SequenceGenerator(name = "item_seq", sequenceName = "item_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "sku", length = 64, nullable = false, unique = true)
@@ -38,9 +43,14 @@ public class Item {
     @JoinColumn(name = "category_id", nullable = false, foreignKey = @ForeignKey(name = "fk_item_category"))
     private Category category;
 
+    @LastModifiedDate
     @Column(name = "updated_at", nullable = false)
     private Instant updatedAt;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @PrePersist
     @PreUpdate
     protected void updateTimestamp() {
@@ -0,0 +1,18 @@
+package com.benchmark.rest.datarest.projection;
+
+import java.math.BigDecimal;
+
+public interface ItemSummary {
+
+    Long getId();
+
+    String getSku();
+
+    String getName();
+
+    BigDecimal getPrice();
+
+    Integer getStock();
+
+    String getCategoryCode();
+}
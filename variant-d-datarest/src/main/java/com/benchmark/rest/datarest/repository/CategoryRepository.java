@@ -1,10 +1,59 @@
 package com.benchmark.rest.datarest.repository;
 
+import com.benchmark.rest.datarest.dto.CategoryStats;
 import com.benchmark.rest.datarest.model.Category;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import org.springframework.data.rest.core.annotation.RestResource;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
 
 @RepositoryRestResource(collectionResourceRel = "categories", path = "categories")
 public interface CategoryRepository extends JpaRepository<Category, Long> {
-}
 
+    String STATS_SELECT = "SELECT new com.benchmark.rest.datarest.dto.CategoryStats(c.id, c.code, c.name, COUNT(i), "
+            + "COALESCE(SUM(i.stock), 0), MIN(i.price), CAST(ROUND(AVG(i.price), 2) AS BigDecimal), MAX(i.price)) "
+            + "FROM Category c LEFT JOIN c.items i ";
+
+    @Override
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    Page<Category> findAll(Pageable pageable);
+
+    @RestResource(exported = false)
+    @Query(STATS_SELECT + "GROUP BY c.id ORDER BY c.id")
+    List<CategoryStats> findAllStats();
+
+    @RestResource(exported = false)
+    @Query(STATS_SELECT + "WHERE c.id = :id GROUP BY c.id")
+    Optional<CategoryStats> findStatsById(@Param("id") Long id);
+
+    /**
+     * Replaces the cascade, which loads the category's items and deletes them row by row. The
+     * repository resource still loads the category first, to check If-Match and publish the
+     * delete events.
+     */
+    @Override
+    @Transactional
+    @Modifying
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "item"),
+        @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "category")
+    })
+    @Query(
+        value = "WITH deleted_items AS (DELETE FROM item WHERE category_id = :id) "
+                + "DELETE FROM category WHERE id = :id",
+        nativeQuery = true
+    )
+    void deleteById(@Param("id") Long id);
+}
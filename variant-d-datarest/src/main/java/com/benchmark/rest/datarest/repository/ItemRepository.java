@@ -1,14 +1,85 @@
 package com.benchmark.rest.datarest.repository;
 
 import com.benchmark.rest.datarest.model.Item;
+import com.benchmark.rest.datarest.projection.ItemSummary;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import org.springframework.data.rest.core.annotation.RestResource;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
 
 @RepositoryRestResource(collectionResourceRel = "items", path = "items")
-public interface ItemRepository extends JpaRepository<Item, Long> {
+public interface ItemRepository extends JpaRepository<Item, Long>, JpaSpecificationExecutor<Item> {
+
+    String SUMMARY_SELECT = "SELECT i.id AS id, i.sku AS sku, i.name AS name, i.price AS price, "
+            + "i.stock AS stock, c.code AS categoryCode FROM Item i JOIN i.category c ";
+
+    @Override
+    @EntityGraph(attributePaths = "category")
+    Optional<Item> findById(Long id);
 
+    @Override
+    @EntityGraph(attributePaths = "category")
+    Page<Item> findAll(Pageable pageable);
+
+    @EntityGraph(attributePaths = "category")
     Page<Item> findByCategoryId(Long categoryId, Pageable pageable);
-}
 
+    @RestResource(exported = false)
+    @Query(
+        value = SUMMARY_SELECT,
+        countQuery = "SELECT COUNT(i) FROM Item i"
+    )
+    Page<ItemSummary> findAllSummaries(Pageable pageable);
+
+    @RestResource(exported = false)
+    @Query(
+        value = SUMMARY_SELECT + "WHERE c.id = :categoryId",
+        countQuery = "SELECT COUNT(i) FROM Item i WHERE i.category.id = :categoryId"
+    )
+    Page<ItemSummary> findSummariesByCategoryId(@Param("categoryId") Long categoryId, Pageable pageable);
+
+    @RestResource(exported = false)
+    @Query(SUMMARY_SELECT + "WHERE i.id > :after ORDER BY i.id")
+    List<ItemSummary> findSummariesAfter(@Param("after") long after, Limit limit);
+
+    @RestResource(exported = false)
+    @Query(SUMMARY_SELECT + "WHERE c.id = :categoryId AND i.id > :after ORDER BY i.id")
+    List<ItemSummary> findSummariesByCategoryIdAfter(
+            @Param("categoryId") Long categoryId,
+            @Param("after") long after,
+            Limit limit);
+
+    /**
+     * Adds {@code delta} to the stock in one statement, unless the result would be negative.
+     * Returns the new stock, empty when the item is missing or its stock too low.
+     */
+    @RestResource(exported = false)
+    @Transactional
+    @Query(
+        value = "UPDATE item SET stock = stock + :delta, version = version + 1, updated_at = now() "
+                + "WHERE id = :id AND stock + :delta >= 0 RETURNING stock",
+        nativeQuery = true
+    )
+    Optional<Integer> adjustStock(@Param("id") Long id, @Param("delta") int delta);
+
+    /**
+     * The repository resource has already loaded the item to check If-Match, so the default
+     * second lookup is skipped.
+     */
+    @Override
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Item i WHERE i.id = :id")
+    void deleteById(@Param("id") Long id);
+}
@@ -0,0 +1,78 @@
+package com.benchmark.rest.datarest.service;
+
+import com.benchmark.rest.datarest.model.Category;
+import com.benchmark.rest.datarest.model.Item;
+import com.benchmark.rest.items.ItemCache;
+import com.benchmark.rest.items.StockAccumulator;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.rest.core.annotation.HandleAfterCreate;
+import org.springframework.data.rest.core.annotation.HandleAfterDelete;
+import org.springframework.data.rest.core.annotation.HandleAfterLinkDelete;
+import org.springframework.data.rest.core.annotation.HandleAfterLinkSave;
+import org.springframework.data.rest.core.annotation.HandleAfterSave;
+import org.springframework.data.rest.core.annotation.RepositoryEventHandler;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Evicts {@link ItemCache} entries after the repository resources write, once the repository
+ * call has committed. A saved item may have moved to another category, which the event does
+ * not tell, so all pages go; its stock may have been set too, so {@link StockAccumulator}
+ * reads it again.
+ */
+@Component
+@RepositoryEventHandler
+public class ItemCacheEventHandler {
+
+    private final ItemCache<?, ?> itemCache;
+    private final StockAccumulator stockAccumulator;
+
+    public ItemCacheEventHandler(ItemCache<?, ?> itemCache, ObjectProvider<StockAccumulator> stockAccumulator) {
+        this.itemCache = itemCache;
+        this.stockAccumulator = stockAccumulator.getIfAvailable();
+    }
+
+    @HandleAfterCreate
+    public void itemCreated(Item item) {
+        itemCache.itemAdded(item.getCategory().getId());
+    }
+
+    @HandleAfterSave
+    public void itemSaved(Item item) {
+        itemCache.evict(List.of(item.getId()));
+        if (stockAccumulator != null) {
+            stockAccumulator.forget(List.of(item.getId()));
+        }
+    }
+
+    @HandleAfterLinkSave
+    public void itemLinked(Item item, Object linked) {
+        itemCache.evict(List.of(item.getId()));
+    }
+
+    @HandleAfterLinkDelete
+    public void itemUnlinked(Item item, Object linked) {
+        itemCache.evict(List.of(item.getId()));
+    }
+
+    @HandleAfterDelete
+    public void itemDeleted(Item item) {
+        itemCache.evict(List.of(item.getId()));
+    }
+
+    @HandleAfterSave
+    public void categorySaved(Category category) {
+        itemCache.clear();
+    }
+
+    @HandleAfterLinkSave
+    public void categoryLinked(Category category, Object linked) {
+        itemCache.clear();
+    }
+
+    @HandleAfterDelete
+    public void categoryDeleted(Category category) {
+        itemCache.clear();
+    }
+}
@@ -0,0 +1,42 @@
+package com.benchmark.rest.datarest.service;
+
+import com.benchmark.rest.datarest.model.Category;
+import com.benchmark.rest.datarest.model.Item;
+import com.benchmark.rest.datarest.repository.CategoryRepository;
+import org.springframework.data.rest.core.annotation.HandleBeforeCreate;
+import org.springframework.data.rest.core.annotation.HandleBeforeSave;
+import org.springframework.data.rest.core.annotation.RepositoryEventHandler;
+import org.springframework.stereotype.Component;
+
+/**
+ * An item body's {@code "category": {"id": N}} is bound to a new, unversioned instance, which
+ * Hibernate takes for a transient category. Before the item is saved it is swapped for a
+ * reference to the stored category, without loading it; an unknown id fails on the foreign key.
+ */
+@Component
+@RepositoryEventHandler
+public class ItemCategoryEventHandler {
+
+    private final CategoryRepository categoryRepository;
+
+    public ItemCategoryEventHandler(CategoryRepository categoryRepository) {
+        this.categoryRepository = categoryRepository;
+    }
+
+    @HandleBeforeCreate
+    public void itemCreating(Item item) {
+        resolveCategory(item);
+    }
+
+    @HandleBeforeSave
+    public void itemSaving(Item item) {
+        resolveCategory(item);
+    }
+
+    private void resolveCategory(Item item) {
+        Category category = item.getCategory();
+        if (category != null && category.getId() != null && category.getVersion() == null) {
+            item.setCategory(categoryRepository.getReferenceById(category.getId()));
+        }
+    }
+}
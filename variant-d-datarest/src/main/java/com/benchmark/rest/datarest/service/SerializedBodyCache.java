@@ -0,0 +1,66 @@
+package com.benchmark.rest.datarest.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+
+/**
+ * HAL bodies of single items and categories, kept as byte arrays and bounded by their total
+ * size. Entries are keyed by self link (host and id), media type and the entity's
+ * {@code updated_at}, so writes need no eviction: the next read of a changed row misses and
+ * renders it again, and the superseded body, never read again, is the first to be evicted.
+ * {@code SERIALIZED_CACHE=true} turns it on.
+ */
+@Service
+@ConditionalOnProperty(name = "benchmark.serialized-cache.enabled", havingValue = "true")
+public class SerializedBodyCache {
+
+    private final Cache<Key, byte[]> bodies;
+
+    public SerializedBodyCache(
+            MeterRegistry meterRegistry,
+            @Value("${benchmark.serialized-cache.maximum-size:32MB}") DataSize maximumSize) {
+        this.bodies = Caffeine.newBuilder()
+                .maximumWeight(maximumSize.toBytes())
+                .weigher((Key key, byte[] body) -> body.length)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, bodies, "serialized-bodies");
+    }
+
+    public byte[] resource(String self, MediaType contentType, Instant updatedAt, Renderer renderer)
+            throws IOException {
+        if (updatedAt == null) {
+            return renderer.render();
+        }
+        try {
+            return bodies.get(new Key(self, contentType, updatedAt), k -> {
+                try {
+                    return renderer.render();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    @FunctionalInterface
+    public interface Renderer {
+        byte[] render() throws IOException;
+    }
+
+    private record Key(String self, MediaType contentType, Instant updatedAt) {
+    }
+}
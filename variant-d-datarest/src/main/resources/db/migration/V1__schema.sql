@@ -0,0 +1,35 @@
+-- Schéma des entités Category / Item, identique dans toutes les variantes.
+-- Séquences par pas de 50 (allocationSize Hibernate), colonnes version pour le verrou optimiste.
+-- IF NOT EXISTS : une base créée avant Flyway (ddl-auto, script manuel) est reprise telle quelle.
+
+CREATE SEQUENCE IF NOT EXISTS category_id_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS item_id_seq INCREMENT BY 50;
+ALTER SEQUENCE category_id_seq INCREMENT BY 50;
+ALTER SEQUENCE item_id_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS category (
+    id         BIGINT PRIMARY KEY DEFAULT nextval('category_id_seq'),
+    code       VARCHAR(32)  NOT NULL UNIQUE,
+    name       VARCHAR(128) NOT NULL,
+    updated_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    version    BIGINT NOT NULL DEFAULT 0
+);
+
+CREATE TABLE IF NOT EXISTS item (
+    id          BIGINT PRIMARY KEY DEFAULT nextval('item_id_seq'),
+    sku         VARCHAR(64)  NOT NULL UNIQUE,
+    name        VARCHAR(128) NOT NULL,
+    price       NUMERIC(10, 2) NOT NULL,
+    stock       INTEGER NOT NULL,
+    category_id BIGINT NOT NULL CONSTRAINT fk_item_category REFERENCES category,
+    updated_at  TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    version     BIGINT NOT NULL DEFAULT 0
+);
+
+ALTER SEQUENCE category_id_seq OWNED BY category.id;
+ALTER SEQUENCE item_id_seq OWNED BY item.id;
+
+ALTER TABLE category ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE item ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+CREATE INDEX IF NOT EXISTS idx_item_category_id_id ON item (category_id, id);
@@ -0,0 +1,54 @@
+package com.benchmark.rest.datarest;
+
+import com.benchmark.rest.datarest.config.RequestStatisticsFilter;
+import com.benchmark.rest.testing.ApiResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Categories come from the second-level cache by id, listings from the query cache; a repeat
+ * read runs no SQL statement at all.
+ */
+class CategoryCacheTests extends ApiTest {
+
+    @Test
+    void repeatedReadsRunNoStatement() {
+        long id = createCategory();
+        ok(api.get("/categories/" + id));
+        ok(api.get("/categories?page=0&size=50"));
+
+        assertThat(statements(ok(api.get("/categories/" + id)))).isZero();
+        assertThat(statements(ok(api.get("/categories?page=0&size=50")))).isZero();
+    }
+
+    @Test
+    void updatesEvictTheCachedCategory() {
+        long id = createCategory();
+        ok(api.get("/categories/" + id));
+        ok(api.get("/categories?page=0&size=50"));
+
+        String renamed = "C-" + UUID.randomUUID().toString().substring(0, 8);
+        assertThat(api.put("/categories/" + id, Map.of("code", renamed, "name", "Renamed")).status().is2xxSuccessful())
+                .isTrue();
+
+        assertThat(ok(api.get("/categories/" + id)).json().get("name").asText()).isEqualTo("Renamed");
+        assertThat(ok(api.get("/categories?page=0&size=50")).json().get("_embedded").get("categories"))
+                .anySatisfy(category -> assertThat(category.get("code").asText()).isEqualTo(renamed));
+    }
+
+    private long createCategory() {
+        ApiResponse created = api.post("/categories",
+                Map.of("code", "C-" + UUID.randomUUID().toString().substring(0, 8), "name", "Cached"));
+        assertThat(created.statusCode()).isEqualTo(201);
+        String location = created.headers().getLocation().getPath();
+        return Long.parseLong(location.substring(location.lastIndexOf('/') + 1));
+    }
+
+    private static int statements(ApiResponse response) {
+        return Integer.parseInt(response.header(RequestStatisticsFilter.STATEMENTS_HEADER));
+    }
+}
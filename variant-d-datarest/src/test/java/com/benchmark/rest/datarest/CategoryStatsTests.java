@@ -0,0 +1,103 @@
+package com.benchmark.rest.datarest;
+
+import com.benchmark.rest.testing.ApiClient;
+import com.benchmark.rest.testing.ApiResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CategoryStatsTests extends ApiTest {
+
+    private static final String AGGREGATES = "SELECT c.id AS category_id, count(i.id) AS item_count, "
+            + "coalesce(sum(i.stock), 0) AS total_stock, min(i.price) AS min_price, "
+            + "round(avg(i.price), 2) AS avg_price, max(i.price) AS max_price "
+            + "FROM category c LEFT JOIN item i ON i.category_id = c.id GROUP BY c.id ORDER BY c.id";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void everyCategoryMatchesTheSqlAggregates() {
+        JsonNode stats = ok(api.get("/categories/stats")).json();
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(AGGREGATES);
+
+        assertThat(stats).hasSize(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            Map<String, Object> row = rows.get(i);
+            JsonNode category = stats.get(i);
+            assertThat(category.get("categoryId").asLong()).isEqualTo(((Number) row.get("category_id")).longValue());
+            assertThat(category.get("itemCount").asLong()).isEqualTo(((Number) row.get("item_count")).longValue());
+            assertThat(category.get("totalStock").asLong()).isEqualTo(((Number) row.get("total_stock")).longValue());
+            assertDecimal(category.get("minPrice"), row.get("min_price"));
+            assertDecimal(category.get("avgPrice"), row.get("avg_price"));
+            assertDecimal(category.get("maxPrice"), row.get("max_price"));
+        }
+    }
+
+    @Test
+    void categoryStatsFollowItsItems() {
+        long categoryId = category();
+        item(categoryId, "5.00", 1);
+        item(categoryId, "10.00", 2);
+        long id = item(categoryId, "12.50", 3);
+
+        JsonNode stats = ok(api.get("/categories/" + categoryId + "/stats")).json();
+        assertThat(stats.get("itemCount").asLong()).isEqualTo(3);
+        assertThat(stats.get("totalStock").asLong()).isEqualTo(6);
+        assertDecimal(stats.get("minPrice"), new BigDecimal("5.00"));
+        assertDecimal(stats.get("avgPrice"), new BigDecimal("9.17"));
+        assertDecimal(stats.get("maxPrice"), new BigDecimal("12.50"));
+
+        ok(api.post("/items/" + id + "/stock", Map.of("delta", 4)));
+        assertThat(ok(api.get("/categories/" + categoryId + "/stats")).json().get("totalStock").asLong())
+                .isEqualTo(10);
+    }
+
+    @Test
+    void emptyCategoryHasNoPrices() {
+        JsonNode stats = ok(api.get("/categories/" + category() + "/stats")).json();
+
+        assertThat(stats.get("itemCount").asLong()).isZero();
+        assertThat(stats.get("totalStock").asLong()).isZero();
+        assertThat(stats.get("minPrice").isNull()).isTrue();
+        assertThat(stats.get("avgPrice").isNull()).isTrue();
+        assertThat(stats.get("maxPrice").isNull()).isTrue();
+        assertThat(api.get("/categories/999999/stats").statusCode()).isEqualTo(404);
+    }
+
+    private long category() {
+        ApiResponse created = api.post("/categories",
+                Map.of("code", "ST-" + UUID.randomUUID().toString().substring(0, 8), "name", "Stats"));
+        assertThat(created.statusCode()).isEqualTo(201);
+        return id(created);
+    }
+
+    private long item(long categoryId, String price, int stock) {
+        Map<String, Object> item = ApiClient.newItem(stock, categoryId);
+        item.put("price", new BigDecimal(price));
+        ApiResponse created = api.post("/items", item);
+        assertThat(created.statusCode()).isEqualTo(201);
+        return id(created);
+    }
+
+    private static long id(ApiResponse created) {
+        String location = created.headers().getLocation().getPath();
+        return Long.parseLong(location.substring(location.lastIndexOf('/') + 1));
+    }
+
+    private static void assertDecimal(JsonNode value, Object expected) {
+        if (expected == null) {
+            assertThat(value.isNull()).isTrue();
+        } else {
+            assertThat(value.decimalValue()).isEqualByComparingTo((BigDecimal) expected);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.benchmark.rest.datarest;
+
+import com.benchmark.rest.testing.ApiClient;
+import com.benchmark.rest.testing.ApiResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Spring Data REST validates single resources from their {@code @Version} and
+ * {@code @LastModifiedDate}; collections carry no validator.
+ */
+class ConditionalGetTests extends ApiTest {
+
+    @Test
+    void matchingIfNoneMatchIsNotModified() {
+        String etag = ok(api.get("/items/2")).etag();
+        assertThat(etag).isNotNull();
+
+        ApiResponse again = api.get("/items/2", ApiClient.header(HttpHeaders.IF_NONE_MATCH, etag));
+        assertThat(again.statusCode()).isEqualTo(304);
+        assertThat(again.body()).isNull();
+
+        String categoryEtag = ok(api.get("/categories/2")).etag();
+        assertThat(api.get("/categories/2", ApiClient.header(HttpHeaders.IF_NONE_MATCH, categoryEtag)).statusCode())
+                .isEqualTo(304);
+    }
+
+    @Test
+    void unmodifiedSinceLastModifiedIsNotModified() {
+        ApiResponse item = ok(api.get("/items/3"));
+        assertThat(item.headers().getLastModified()).isPositive();
+
+        assertThat(api.get("/items/3",
+                ApiClient.header(HttpHeaders.IF_MODIFIED_SINCE, item.header(HttpHeaders.LAST_MODIFIED))).statusCode())
+                .isEqualTo(304);
+    }
+
+    @Test
+    void writesChangeTheValidators() {
+        long id = create(10);
+        ApiResponse before = ok(api.get("/items/" + id));
+
+        assertThat(api.patch("/items/" + id, Map.of("name", "patched")).status().is2xxSuccessful()).isTrue();
+
+        assertThat(api.get("/items/" + id, ApiClient.header(HttpHeaders.IF_NONE_MATCH, before.etag())).statusCode())
+                .isEqualTo(200);
+        assertThat(ok(api.get("/items/" + id)).etag()).isNotEqualTo(before.etag());
+    }
+}
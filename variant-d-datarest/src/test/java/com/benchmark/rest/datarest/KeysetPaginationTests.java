@@ -0,0 +1,54 @@
+package com.benchmark.rest.datarest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Spring Data REST pages by offset; the cursors are served by {@code /items/search/after}.
+ */
+class KeysetPaginationTests extends ApiTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void cursorsVisitEveryItemOnceInIdOrder() {
+        List<Long> ids = walk("/items/search/after?size=37&after=");
+
+        assertThat(ids).isSorted().doesNotHaveDuplicates()
+                .isEqualTo(jdbcTemplate.queryForList("SELECT id FROM item ORDER BY id", Long.class));
+    }
+
+    @Test
+    void categoryCursorsStayInTheirCategory() {
+        List<Long> ids = walk("/items/search/after?categoryId=3&size=7&after=");
+
+        assertThat(ids).isSorted().doesNotHaveDuplicates()
+                .isEqualTo(jdbcTemplate.queryForList("SELECT id FROM item WHERE category_id = 3 ORDER BY id", Long.class));
+    }
+
+    @Test
+    void pageSizeIsClampedAndCursorsChecked() {
+        assertThat(ok(api.get("/items/search/after?size=5000")).json().get("size").asInt()).isEqualTo(1000);
+        assertThat(api.get("/items/search/after?after=not-a-cursor").statusCode()).isEqualTo(400);
+        assertThat(api.get("/items/search/after?size=0").statusCode()).isEqualTo(400);
+    }
+
+    private List<Long> walk(String firstPage) {
+        List<Long> ids = new ArrayList<>();
+        String next = "";
+        while (next != null) {
+            JsonNode page = ok(api.get(firstPage + next)).json();
+            page.get("content").forEach(row -> ids.add(row.get("id").asLong()));
+            next = page.get("next").isNull() ? null : page.get("next").asText();
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,60 @@
+package com.benchmark.rest.datarest;
+
+import com.benchmark.rest.datarest.dto.LeanPage;
+import com.benchmark.rest.testing.ApiClient;
+import com.benchmark.rest.testing.ApiResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The lean envelope is a separate mapping of {@code /items}, next to the repository resource.
+ */
+class LeanPageTests extends ApiTest {
+
+    private static final HttpHeaders LEAN = ApiClient.header(HttpHeaders.ACCEPT, LeanPage.MEDIA_TYPE);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void leanPagesCarryOnlyTheEnvelope() {
+        ApiResponse response = ok(api.get("/items?page=1&size=20", LEAN));
+        assertThat(response.headers().getContentType().isCompatibleWith(MediaType.parseMediaType(LeanPage.MEDIA_TYPE)))
+                .isTrue();
+
+        JsonNode page = response.json();
+        assertThat(page.properties()).extracting(field -> field.getKey())
+                .containsExactly("content", "page", "size", "total", "next");
+        assertThat(page.get("content")).hasSize(20);
+        assertThat(page.get("page").asInt()).isEqualTo(1);
+        assertThat(page.get("next").asInt()).isEqualTo(2);
+        assertThat(page.get("total").asLong())
+                .isEqualTo(jdbcTemplate.queryForObject("SELECT count(*) FROM item", Long.class));
+        assertThat(page.get("content").get(0).get("sku").asText()).isNotEmpty();
+    }
+
+    @Test
+    void lastLeanPageHasNoNext() {
+        JsonNode page = ok(api.get("/items?categoryId=2&page=0&size=1000", LEAN)).json();
+
+        assertThat(page.get("next").isNull()).isTrue();
+        assertThat(page.get("content")).hasSize(page.get("total").asInt());
+    }
+
+    @Test
+    void defaultAcceptKeepsTheRepositoryResource() {
+        ApiResponse full = ok(api.get("/items?page=0&size=20", ApiClient.header(HttpHeaders.ACCEPT, "*/*")));
+
+        assertThat(full.headers().getContentType().isCompatibleWith(MediaTypes.HAL_JSON)).isTrue();
+        assertThat(full.json().has("_embedded")).isTrue();
+        assertThat(full.json().get("page").get("totalElements").asLong())
+                .isEqualTo(ok(api.get("/items?page=0&size=20", LEAN)).json().get("total").asLong());
+    }
+}
@@ -0,0 +1,68 @@
+package com.benchmark.rest.datarest;
+
+import com.benchmark.rest.testing.ApiClient;
+import com.benchmark.rest.testing.ApiResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Repository resources stay HAL/JSON; the search mappings also answer in CBOR and Smile,
+ * and every endpoint reads binary request bodies.
+ */
+class NegotiationTests extends ApiTest {
+
+    private static final MediaType CBOR_TYPE = MediaType.APPLICATION_CBOR;
+    private static final MediaType SMILE_TYPE = MediaType.parseMediaType("application/x-jackson-smile");
+    private static final ObjectMapper CBOR = new CBORMapper();
+    private static final ObjectMapper SMILE = new SmileMapper();
+
+    @Test
+    void searchPagesAreEncodedInTheAcceptedFormat() {
+        JsonNode json = ok(api.get("/items/search/after?size=20")).json();
+
+        ApiResponse cbor = ok(api.get("/items/search/after?size=20", accept(CBOR_TYPE)));
+        assertThat(cbor.headers().getContentType().isCompatibleWith(CBOR_TYPE)).isTrue();
+        assertThat(cbor.read(CBOR)).hasToString(json.toString());
+
+        ApiResponse smile = ok(api.get("/items/search/summaries?size=20", accept(SMILE_TYPE)));
+        assertThat(smile.headers().getContentType().isCompatibleWith(SMILE_TYPE)).isTrue();
+        assertThat(smile.read(SMILE).get("content")).hasSize(20);
+    }
+
+    @Test
+    void itemResourceStaysJson() {
+        ApiResponse item = ok(api.get("/items/2"));
+        assertThat(item.etag()).isEqualTo("\"" + item.version() + "\"");
+        assertThat(item.headers().getVary()).contains(HttpHeaders.ACCEPT);
+
+        assertThat(api.get("/items/2", accept(CBOR_TYPE)).statusCode()).isEqualTo(406);
+    }
+
+    @Test
+    void binaryBodiesAreAcceptedOnWrites() throws JsonProcessingException {
+        HttpHeaders cbor = ApiClient.header(HttpHeaders.CONTENT_TYPE, CBOR_TYPE.toString());
+        ApiResponse created = api.exchange(HttpMethod.POST, "/items", CBOR.writeValueAsBytes(ApiClient.newItem(4, 1)), cbor);
+        assertThat(created.statusCode()).isEqualTo(201);
+
+        String location = created.headers().getLocation().getPath();
+        ApiResponse read = ok(api.get(location.substring(location.indexOf("/items"))));
+        assertThat(read.json().get("stock").asInt()).isEqualTo(4);
+
+        HttpHeaders smile = ApiClient.header(HttpHeaders.CONTENT_TYPE, SMILE_TYPE.toString());
+        assertThat(api.exchange(HttpMethod.POST, "/items", SMILE.writeValueAsBytes(ApiClient.newItem(5, 2)), smile).statusCode())
+                .isEqualTo(201);
+    }
+
+    private static HttpHeaders accept(MediaType type) {
+        return ApiClient.header(HttpHeaders.ACCEPT, type.toString());
+    }
+}
@@ -0,0 +1,55 @@
+package com.benchmark.rest.datarest;
+
+import com.benchmark.rest.testing.ApiClient;
+import com.benchmark.rest.testing.ApiResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@code If-Match} writes fail with 412 once the version moved on.
+ */
+class OptimisticLockingTests extends ApiTest {
+
+    @Test
+    void staleIfMatchIsPreconditionFailed() {
+        long id = create(10);
+        String etag = ok(api.get("/items/" + id)).etag();
+        HttpHeaders stale = ApiClient.header(HttpHeaders.IF_MATCH, etag);
+
+        ApiResponse updated = api.exchange(HttpMethod.PUT, "/items/" + id, ApiClient.newItem(10, 1), stale);
+        assertThat(updated.status().is2xxSuccessful()).isTrue();
+        assertThat(updated.etag()).isNotEqualTo(etag);
+
+        assertThat(api.exchange(HttpMethod.PUT, "/items/" + id, ApiClient.newItem(10, 1), stale).statusCode())
+                .isEqualTo(412);
+        assertThat(api.exchange(HttpMethod.PATCH, "/items/" + id, Map.of("stock", 1), stale).statusCode())
+                .isEqualTo(412);
+        assertThat(api.exchange(HttpMethod.DELETE, "/items/" + id, null, stale).statusCode()).isEqualTo(412);
+        assertThat(ok(api.get("/items/" + id)).json().get("stock").asInt()).isEqualTo(10);
+    }
+
+    @Test
+    void patchChangesOnlyTheGivenFields() {
+        long id = create(10);
+        ApiResponse before = ok(api.get("/items/" + id));
+
+        ApiResponse patched = api.exchange(HttpMethod.PATCH, "/items/" + id, Map.of("name", "patched"),
+                ApiClient.header(HttpHeaders.IF_MATCH, before.etag()));
+        assertThat(patched.status().is2xxSuccessful()).isTrue();
+
+        ApiResponse after = ok(api.get("/items/" + id));
+        assertThat(after.etag()).isNotEqualTo(before.etag());
+        JsonNode item = after.json();
+        assertThat(item.get("name").asText()).isEqualTo("patched");
+        assertThat(item.get("sku").asText()).isEqualTo(before.json().get("sku").asText());
+        assertThat(item.get("stock").asInt()).isEqualTo(10);
+
+        assertThat(api.patch("/items/999999", Map.of("name", "x")).statusCode()).isEqualTo(404);
+    }
+}
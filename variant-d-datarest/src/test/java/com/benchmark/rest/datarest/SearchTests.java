@@ -0,0 +1,92 @@
+package com.benchmark.rest.datarest;
+
+import com.benchmark.rest.testing.ApiClient;
+import com.benchmark.rest.testing.ApiResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Every search is narrowed to the items of one test by their SKU prefix; matches come back as
+ * a HAL page of item resources.
+ */
+class SearchTests extends ApiTest {
+
+    private String prefix;
+    private String token;
+    private long categoryId;
+
+    @BeforeEach
+    void items() {
+        token = UUID.randomUUID().toString().substring(0, 8);
+        prefix = "F" + token + "-";
+        ApiResponse category = api.post("/categories", Map.of("code", "F-" + token, "name", "Search"));
+        assertThat(category.statusCode()).isEqualTo(201);
+        String location = category.headers().getLocation().getPath();
+        categoryId = Long.parseLong(location.substring(location.lastIndexOf('/') + 1));
+
+        item(1, "Red " + token + " lamp", "5.00", 0, categoryId);
+        item(2, "blue " + token.toUpperCase() + " chair", "10.00", 3, categoryId);
+        item(3, token + " 100% wool", "20.00", 10, 1);
+        item(4, "plain", "10.00", 5, 1);
+    }
+
+    @Test
+    void filtersAreCombined() {
+        assertThat(search("&q= ")).containsExactly(sku(1), sku(2), sku(3), sku(4));
+        assertThat(search("&q=" + token.toUpperCase())).containsExactly(sku(1), sku(2), sku(3));
+        assertThat(search("&minPrice=10&maxPrice=20")).containsExactly(sku(2), sku(3), sku(4));
+        assertThat(search("&stockBelow=3")).containsExactly(sku(1));
+        assertThat(search("&categoryId=" + categoryId)).containsExactly(sku(1), sku(2));
+        assertThat(search("&categoryId=1&minPrice=10&maxPrice=10")).containsExactly(sku(4));
+    }
+
+    @Test
+    void likeWildcardsAreMatchedLiterally() {
+        assertThat(search("&q=%")).containsExactly(sku(3));
+        assertThat(search("&q=_")).isEmpty();
+    }
+
+    @Test
+    void pagesAreOrderedById() {
+        JsonNode page = ok(api.get("/items/search?sku=" + prefix + "&page=1&size=2")).json();
+
+        assertThat(skus(page)).containsExactly(sku(3), sku(4));
+        assertThat(page.get("page").get("totalElements").asInt()).isEqualTo(4);
+    }
+
+    @Test
+    void invertedPriceRangeIsBadRequest() {
+        assertThat(api.get("/items/search?minPrice=20&maxPrice=5").statusCode()).isEqualTo(400);
+    }
+
+    private void item(int number, String name, String price, int stock, long category) {
+        Map<String, Object> item = ApiClient.newItem(stock, category);
+        item.put("sku", sku(number));
+        item.put("name", name);
+        item.put("price", new BigDecimal(price));
+        assertThat(api.post("/items", item).statusCode()).isEqualTo(201);
+    }
+
+    private String sku(int number) {
+        return prefix + number;
+    }
+
+    private List<String> search(String filters) {
+        return skus(ok(api.get("/items/search?sku=" + prefix + filters)).json());
+    }
+
+    private List<String> skus(JsonNode page) {
+        List<String> skus = new ArrayList<>();
+        page.path("_embedded").path("items").forEach(item -> skus.add(item.get("sku").asText()));
+        return skus;
+    }
+}
@@ -0,0 +1,52 @@
+package com.benchmark.rest.datarest;
+
+import com.benchmark.rest.testing.ApiClient;
+import com.benchmark.rest.testing.ApiResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Stored bodies are keyed by the resource's {@code updated_at}: a read right after a write sees it.
+ */
+@TestPropertySource(properties = "benchmark.serialized-cache.enabled=true")
+class SerializedCacheTests extends ApiTest {
+
+    @Test
+    void itemReadsFollowWrites() {
+        long id = create(10);
+        ApiResponse first = ok(api.get("/items/" + id));
+        assertThat(ok(api.get("/items/" + id)).body()).isEqualTo(first.body());
+
+        assertThat(api.put("/items/" + id, ApiClient.newItem(7, 1)).status().is2xxSuccessful()).isTrue();
+        assertThat(ok(api.get("/items/" + id)).json().get("stock").asInt()).isEqualTo(7);
+
+        ok(api.post("/items/" + id + "/stock", Map.of("delta", 2)));
+        ApiResponse adjusted = ok(api.get("/items/" + id));
+        assertThat(adjusted.json().get("stock").asInt()).isEqualTo(9);
+
+        assertThat(api.exchange(HttpMethod.PATCH, "/items/" + id, Map.of("name", "patched"),
+                ApiClient.header(HttpHeaders.IF_MATCH, adjusted.etag())).status().is2xxSuccessful()).isTrue();
+        assertThat(ok(api.get("/items/" + id)).json().get("name").asText()).isEqualTo("patched");
+    }
+
+    @Test
+    void categoryReadsFollowWrites() {
+        String code = "S-" + UUID.randomUUID().toString().substring(0, 8);
+        ApiResponse created = api.post("/categories", Map.of("code", code, "name", "Serialized"));
+        assertThat(created.statusCode()).isEqualTo(201);
+        String location = created.headers().getLocation().getPath();
+        String category = location.substring(location.lastIndexOf("/categories/"));
+        ApiResponse first = ok(api.get(category));
+        assertThat(ok(api.get(category)).body()).isEqualTo(first.body());
+
+        assertThat(api.put(category, Map.of("code", code, "name", "Renamed")).status().is2xxSuccessful()).isTrue();
+        assertThat(ok(api.get(category)).json().get("name").asText()).isEqualTo("Renamed");
+    }
+}
@@ -0,0 +1,51 @@
+package com.benchmark.rest.datarest;
+
+import com.benchmark.rest.datarest.config.RequestStatisticsFilter;
+import com.benchmark.rest.datarest.config.SqlBudgetProperties;
+import com.benchmark.rest.testing.ApiResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Every checked response carries its statement count, which must stay within its budget.
+ */
+class StatementBudgetTests extends ApiTest {
+
+    @Autowired
+    private SqlBudgetProperties budgets;
+
+    @Test
+    void readsStayWithinTheirBudgets() {
+        assertWithinBudget(api.get("/items?page=0&size=20"), "GET /api/items");
+        assertWithinBudget(api.get("/items/search?q=Item&size=20"), "GET /api/items/search");
+        assertWithinBudget(api.get("/items/search/summaries?size=20"), "GET /api/items/search/summaries");
+        assertWithinBudget(api.get("/items/1"), "GET /api/items/{id}");
+        assertWithinBudget(api.get("/items/1/category"), "GET /api/items/{id}/category");
+        assertWithinBudget(api.get("/categories"), "GET /api/categories");
+        assertWithinBudget(api.get("/categories/1"), "GET /api/categories/{id}");
+        assertWithinBudget(api.get("/categories/stats"), "GET /api/categories/stats");
+        assertWithinBudget(api.get("/categories/1/stats"), "GET /api/categories/{id}/stats");
+        assertWithinBudget(api.get("/categories/1/items?page=0&size=20"), "GET /api/categories/{id}/items");
+    }
+
+    @Test
+    void writesStayWithinTheirBudgets() {
+        long id = create(10);
+
+        assertWithinBudget(api.patch("/items/" + id, Map.of("name", "patched")), "PATCH /api/items/{id}");
+        assertWithinBudget(api.post("/items/" + id + "/stock", Map.of("delta", -1)), "POST /api/items/{id}/stock");
+        assertWithinBudget(api.delete("/items/" + id), "DELETE /api/items/{id}");
+        assertThat(api.get("/items/" + id).statusCode()).isEqualTo(404);
+    }
+
+    private void assertWithinBudget(ApiResponse response, String endpoint) {
+        assertThat(response.status().is2xxSuccessful()).as(endpoint + " status").isTrue();
+        String statements = response.header(RequestStatisticsFilter.STATEMENTS_HEADER);
+        assertThat(statements).as(endpoint + " statement count").isNotNull();
+        assertThat(Integer.parseInt(statements)).as(endpoint + " statements").isLessThanOrEqualTo(budgets.budgets().get(endpoint));
+    }
+}
@@ -0,0 +1,141 @@
+package com.benchmark.rest.webflux.controller;
+
+import com.benchmark.rest.webflux.dto.CategoryStats;
+import com.benchmark.rest.webflux.dto.CursorPage;
+import com.benchmark.rest.webflux.dto.ItemDTO;
+import com.benchmark.rest.webflux.model.Category;
+import com.benchmark.rest.webflux.repository.CategoryRepository;
+import com.benchmark.rest.webflux.repository.ItemRepository;
+import jakarta.validation.Valid;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/categories")
+public class CategoryController {
+
+    private final CategoryRepository repository;
+    private final ItemRepository itemRepository;
+
+    public CategoryController(CategoryRepository repository, ItemRepository itemRepository) {
+        this.repository = repository;
+        this.itemRepository = itemRepository;
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<Page<Category>>> getAllCategories(Pageable pageable) {
+        return Mono.zip(repository.findAll(pageable.getPageSize(), pageable.getOffset()).collectList(), repository.count())
+                .map(tuple -> {
+                    Page<Category> page = new PageImpl<>(tuple.getT1(), pageable, tuple.getT2());
+                    return Validators.ok(page.getContent(), page.getTotalElements(), Category::getId, Category::getUpdatedAt)
+                            .body(page);
+                });
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Category>> getCategoryById(@PathVariable Long id) {
+        return repository.findById(id)
+                .map(category -> Validators.ok(category.getId(), category.getUpdatedAt()).body(category))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Item count, total stock and price range of every category, from one grouped aggregate.
+     */
+    @GetMapping("/stats")
+    public Flux<CategoryStats> getAllCategoryStats() {
+        return repository.findAllStats();
+    }
+
+    @GetMapping("/{id}/stats")
+    public Mono<ResponseEntity<CategoryStats>> getCategoryStats(@PathVariable Long id) {
+        return repository.findStatsById(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/code/{code}")
+    public Mono<ResponseEntity<Category>> getCategoryByCode(@PathVariable String code) {
+        return repository.findByCode(code)
+                .map(category -> Validators.ok(category.getId(), category.getUpdatedAt()).body(category))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<Category>> createCategory(@RequestBody @Valid Category category) {
+        category.setId(null);
+        return repository.save(category).map(ResponseEntity::ok);
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<Category>> updateCategory(
+            @PathVariable Long id,
+            @RequestBody @Valid Category category) {
+        return repository.findById(id)
+                .flatMap(existing -> {
+                    existing.setName(category.getName());
+                    existing.setCode(category.getCode());
+                    return repository.save(existing);
+                })
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteCategory(@PathVariable Long id) {
+        return repository.deleteWithItemsById(id)
+                .map(deleted -> deleted == 0
+                        ? ResponseEntity.notFound().<Void>build()
+                        : ResponseEntity.noContent().<Void>build());
+    }
+
+    @GetMapping("/{id}/items")
+    public Mono<ResponseEntity<?>> getCategoryItems(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            Pageable pageable) {
+
+        return repository.countItemsById(id)
+                .<ResponseEntity<?>>flatMap(total -> {
+                    Mono<List<ItemDTO>> content = total > pageable.getOffset()
+                            ? itemRepository.findDtoByCategoryId(id, pageable.getPageSize(), pageable.getOffset()).collectList()
+                            : Mono.just(List.of());
+                    return content.map(rows -> ItemPages.ok(new PageImpl<>(rows, pageable, total), accept));
+                })
+                .defaultIfEmpty(ItemPages.ok(Page.empty(), accept));
+    }
+
+    @GetMapping(value = "/{id}/items", params = "after")
+    public Mono<ResponseEntity<CursorPage<ItemDTO>>> getCategoryItemsAfter(
+            @PathVariable Long id,
+            @RequestParam String after,
+            @RequestParam(defaultValue = "20") int size) {
+
+        long afterId;
+        try {
+            afterId = CursorPage.decode(after);
+        } catch (IllegalArgumentException e) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        if (size < 1) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        int pageSize = Math.min(size, ItemPages.MAX_PAGE_SIZE);
+
+        return itemRepository.findDtoByCategoryIdAfter(id, afterId, pageSize + 1)
+                .collectList()
+                .map(rows -> {
+                    CursorPage<ItemDTO> page = CursorPage.of(rows, pageSize, ItemDTO::id);
+                    return Validators.ok(page.content(), page.next() != null ? 1 : 0, ItemDTO::id, ItemDTO::updatedAt)
+                            .body(page);
+                });
+    }
+}
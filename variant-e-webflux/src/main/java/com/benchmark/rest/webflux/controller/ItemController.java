@@ -0,0 +1,226 @@
+package com.benchmark.rest.webflux.controller;
+
+import com.benchmark.rest.webflux.dto.BatchItemResult;
+import com.benchmark.rest.webflux.dto.CursorPage;
+import com.benchmark.rest.webflux.dto.ItemDTO;
+import com.benchmark.rest.webflux.dto.ItemSearch;
+import com.benchmark.rest.webflux.dto.StockAdjustment;
+import com.benchmark.rest.webflux.dto.StockLevel;
+import com.benchmark.rest.webflux.model.Category;
+import com.benchmark.rest.webflux.model.Item;
+import com.benchmark.rest.webflux.repository.CategoryRepository;
+import com.benchmark.rest.webflux.repository.ItemRepository;
+import com.benchmark.rest.webflux.service.ItemBatchService;
+import com.benchmark.rest.webflux.service.StockAccumulator;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/items")
+public class ItemController {
+
+    private final ItemRepository itemRepository;
+    private final CategoryRepository categoryRepository;
+    private final ItemBatchService batchService;
+    private final StockAccumulator stockAccumulator;
+
+    public ItemController(
+            ItemRepository itemRepository,
+            CategoryRepository categoryRepository,
+            ItemBatchService batchService,
+            ObjectProvider<StockAccumulator> stockAccumulator) {
+        this.itemRepository = itemRepository;
+        this.categoryRepository = categoryRepository;
+        this.batchService = batchService;
+        this.stockAccumulator = stockAccumulator.getIfAvailable();
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<?>> getItems(
+            @RequestParam(required = false) Long categoryId,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            Pageable pageable) {
+
+        Flux<ItemDTO> content = categoryId != null
+                ? itemRepository.findDtoByCategoryId(categoryId, pageable.getPageSize(), pageable.getOffset())
+                : itemRepository.findAllDto(pageable.getPageSize(), pageable.getOffset());
+        Mono<Long> total = categoryId != null
+                ? itemRepository.countByCategoryId(categoryId)
+                : itemRepository.count();
+
+        return Mono.zip(content.collectList(), total)
+                .map(tuple -> ItemPages.ok(new PageImpl<>(tuple.getT1(), pageable, tuple.getT2()), accept));
+    }
+
+    @GetMapping(params = "after")
+    public Mono<ResponseEntity<CursorPage<ItemDTO>>> getItemsAfter(
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam String after,
+            @RequestParam(defaultValue = "20") int size) {
+
+        long afterId;
+        try {
+            afterId = CursorPage.decode(after);
+        } catch (IllegalArgumentException e) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        if (size < 1) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        int pageSize = Math.min(size, ItemPages.MAX_PAGE_SIZE);
+
+        Flux<ItemDTO> dtos = categoryId != null
+                ? itemRepository.findDtoByCategoryIdAfter(categoryId, afterId, pageSize + 1)
+                : itemRepository.findAllDtoAfter(afterId, pageSize + 1);
+
+        return dtos.collectList().map(rows -> {
+            CursorPage<ItemDTO> page = CursorPage.of(rows, pageSize, ItemDTO::id);
+            return Validators.ok(page.content(), page.next() != null ? 1 : 0, ItemDTO::id, ItemDTO::updatedAt)
+                    .body(page);
+        });
+    }
+
+    /**
+     * Filters in the database, paged like {@code GET /items} but ordered by id so that pages
+     * stay stable.
+     */
+    @GetMapping("/search")
+    public Mono<ResponseEntity<?>> searchItems(
+            ItemSearch search,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            Pageable pageable) {
+
+        if (!search.hasValidPriceRange()) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        Flux<ItemDTO> content = itemRepository.findDtoMatching(search, pageable.getPageSize(), pageable.getOffset());
+        return Mono.zip(content.collectList(), itemRepository.countMatching(search))
+                .map(tuple -> ItemPages.ok(new PageImpl<>(tuple.getT1(), pageable, tuple.getT2()), accept));
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ItemDTO> exportItems() {
+        return itemRepository.streamAllDto();
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<ItemDTO>> getItemById(@PathVariable Long id) {
+        return itemRepository.findDtoById(id)
+                .map(item -> Validators.ok(item.id(), item.updatedAt()).body(item))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<ItemDTO>> createItem(@RequestBody @Valid Item item) {
+        if (item.getRequestedCategoryId() == null) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+
+        return categoryRepository.findById(item.getRequestedCategoryId())
+                .flatMap(category -> {
+                    item.setId(null);
+                    item.setCategoryId(category.getId());
+                    return itemRepository.save(item)
+                            .map(saved -> ResponseEntity.ok(ItemDTO.from(saved, category.getCode())));
+                })
+                .defaultIfEmpty(ResponseEntity.badRequest().build());
+    }
+
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<List<BatchItemResult>>> createItems(@RequestBody @Valid List<Item> items) {
+        if (items.isEmpty()) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        return batchService.createAll(items).map(ResponseEntity::ok);
+    }
+
+    @PutMapping("/batch")
+    public Mono<ResponseEntity<List<BatchItemResult>>> updateItems(@RequestBody @Valid List<Item> items) {
+        if (items.isEmpty()) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        return batchService.updateAll(items)
+                .doOnNext(results -> stockWritten(results.stream()
+                        .filter(result -> result.item() != null)
+                        .map(result -> result.item().id())
+                        .toList()))
+                .map(ResponseEntity::ok);
+    }
+
+    /**
+     * The stock {@link StockAccumulator} expects for these items is stale.
+     */
+    private void stockWritten(List<Long> ids) {
+        if (stockAccumulator != null) {
+            stockAccumulator.forget(ids);
+        }
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<ItemDTO>> updateItem(
+            @PathVariable Long id,
+            @RequestBody @Valid Item item) {
+        return itemRepository.findById(id)
+                .flatMap(existing -> {
+                    existing.setName(item.getName());
+                    existing.setPrice(item.getPrice());
+                    existing.setStock(item.getStock());
+                    existing.setSku(item.getSku());
+
+                    Mono<Category> requested = item.getRequestedCategoryId() != null
+                            ? categoryRepository.findById(item.getRequestedCategoryId())
+                            : Mono.empty();
+                    return requested
+                            .switchIfEmpty(Mono.defer(() -> categoryRepository.findById(existing.getCategoryId())))
+                            .flatMap(category -> {
+                                existing.setCategoryId(category.getId());
+                                return itemRepository.save(existing)
+                                        .doOnNext(saved -> stockWritten(List.of(id)))
+                                        .map(saved -> ResponseEntity.ok(ItemDTO.from(saved, category.getCode())));
+                            });
+                })
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Applied at once with a conditional {@code UPDATE}: 409 when the stock would go below
+     * zero. With {@code STOCK_COALESCE=true} the delta is checked the same way against the
+     * stock {@link StockAccumulator} expects, then queued and answered with 202 and that
+     * stock once the delta is written.
+     */
+    @PostMapping("/{id}/stock")
+    public Mono<ResponseEntity<StockLevel>> adjustStock(
+            @PathVariable Long id,
+            @RequestBody StockAdjustment adjustment) {
+        if (adjustment.delta() == null) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        Mono<ResponseEntity<StockLevel>> adjusted = stockAccumulator != null
+                ? stockAccumulator.add(id, adjustment.delta())
+                        .map(stock -> ResponseEntity.accepted().body(new StockLevel(id, Math.toIntExact(stock))))
+                : itemRepository.adjustStock(id, adjustment.delta()).map(stock -> ResponseEntity.ok(new StockLevel(id, stock)));
+        return adjusted
+                .switchIfEmpty(Mono.defer(() -> itemRepository.existsById(id)
+                        .map(exists -> ResponseEntity.status(exists ? HttpStatus.CONFLICT : HttpStatus.NOT_FOUND)
+                                .<StockLevel>build())));
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteItem(@PathVariable Long id) {
+        return itemRepository.deleteItemById(id)
+                .map(deleted -> deleted == 0
+                        ? ResponseEntity.notFound().<Void>build()
+                        : ResponseEntity.noContent().<Void>build());
+    }
+}
@@ -0,0 +1,51 @@
+package com.benchmark.rest.webflux.controller;
+
+import org.springframework.http.ResponseEntity;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Weak ETag / Last-Modified pair derived from {@code updated_at}. WebFlux compares
+ * them against If-None-Match / If-Modified-Since and answers 304 without writing the body.
+ */
+final class Validators {
+
+    private Validators() {
+    }
+
+    static ResponseEntity.BodyBuilder ok(long id, Instant updatedAt) {
+        return ResponseEntity.ok()
+                .eTag(etag(mix(id, updatedAt)))
+                .lastModified(updatedAt);
+    }
+
+    /**
+     * @param discriminator anything else rendered with the rows that can change
+     *                      independently of them (total count, presence of a next cursor)
+     */
+    static <T> ResponseEntity.BodyBuilder ok(List<T> rows, long discriminator,
+                                             ToLongFunction<T> idOf, Function<T, Instant> updatedAtOf) {
+        long hash = discriminator;
+        Instant lastModified = null;
+        for (T row : rows) {
+            Instant updatedAt = updatedAtOf.apply(row);
+            hash = 31 * hash + mix(idOf.applyAsLong(row), updatedAt);
+            if (lastModified == null || updatedAt.isAfter(lastModified)) {
+                lastModified = updatedAt;
+            }
+        }
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok().eTag(etag(hash));
+        return lastModified != null ? builder.lastModified(lastModified) : builder;
+    }
+
+    private static String etag(long hash) {
+        return "W/\"" + Long.toHexString(hash) + "\"";
+    }
+
+    private static long mix(long id, Instant updatedAt) {
+        return (31 * id + updatedAt.getEpochSecond()) * 31 + updatedAt.getNano();
+    }
+}
@@ -0,0 +1,17 @@
+package com.benchmark.rest.webflux.dto;
+
+public record BatchItemResult(
+        int index,
+        int status,
+        ItemDTO item,
+        String error
+) {
+
+    public static BatchItemResult ok(int index, int status, ItemDTO item) {
+        return new BatchItemResult(index, status, item, null);
+    }
+
+    public static BatchItemResult rejected(int index, int status, String error) {
+        return new BatchItemResult(index, status, null, error);
+    }
+}
@@ -0,0 +1,30 @@
+package com.benchmark.rest.webflux.dto;
+
+import com.benchmark.rest.webflux.model.Item;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+public record ItemDTO(
+        Long id,
+        String sku,
+        String name,
+        BigDecimal price,
+        Integer stock,
+        String categoryCode,
+        @JsonIgnore Instant updatedAt
+) {
+
+    public static ItemDTO from(Item item, String categoryCode) {
+        return new ItemDTO(
+                item.getId(),
+                item.getSku(),
+                item.getName(),
+                item.getPrice(),
+                item.getStock(),
+                categoryCode,
+                item.getUpdatedAt()
+        );
+    }
+}
@@ -0,0 +1,26 @@
+package com.benchmark.rest.webflux.model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.Instant;
+
+@Table("category")
+@Getter
+@Setter
+@NoArgsConstructor
+@EqualsAndHashCode(of = "id")
+public class Category {
+
+    @Id
+    private Long id;
+
+    private String code;
+
+    private String name;
+
+    @LastModifiedDate
+    private Instant updatedAt;
+}
@@ -0,0 +1,48 @@
+package com.benchmark.rest.webflux.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@Table("item")
+@Getter
+@Setter
+@NoArgsConstructor
+@EqualsAndHashCode(of = "id")
+public class Item {
+
+    @Id
+    private Long id;
+
+    private String sku;
+
+    private String name;
+
+    private BigDecimal price;
+
+    private Integer stock;
+
+    @JsonIgnore
+    private Long categoryId;
+
+    /**
+     * Request-side reference ({@code "category": {"id": ...}}) kept for contract parity
+     * with the JPA variants; only {@link #categoryId} is persisted.
+     */
+    @Transient
+    private Category category;
+
+    @LastModifiedDate
+    private Instant updatedAt;
+
+    @JsonIgnore
+    public Long getRequestedCategoryId() {
+        return category != null ? category.getId() : null;
+    }
+}
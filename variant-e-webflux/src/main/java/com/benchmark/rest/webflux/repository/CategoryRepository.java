@@ -0,0 +1,37 @@
+package com.benchmark.rest.webflux.repository;
+
+import com.benchmark.rest.webflux.dto.CategoryStats;
+import com.benchmark.rest.webflux.model.Category;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface CategoryRepository extends R2dbcRepository<Category, Long> {
+
+    String STATS_SELECT = "SELECT c.id AS category_id, c.code, c.name, COUNT(i.id) AS item_count, "
+            + "COALESCE(SUM(i.stock), 0) AS total_stock, MIN(i.price) AS min_price, "
+            + "ROUND(AVG(i.price), 2) AS avg_price, MAX(i.price) AS max_price "
+            + "FROM category c LEFT JOIN item i ON i.category_id = c.id ";
+
+    @Query("SELECT * FROM category ORDER BY id LIMIT :limit OFFSET :offset")
+    Flux<Category> findAll(int limit, long offset);
+
+    Mono<Category> findByCode(String code);
+
+    @Query("SELECT COUNT(i.id) FROM category c LEFT JOIN item i ON i.category_id = c.id WHERE c.id = :id GROUP BY c.id")
+    Mono<Long> countItemsById(Long id);
+
+    @Query(STATS_SELECT + "GROUP BY c.id ORDER BY c.id")
+    Flux<CategoryStats> findAllStats();
+
+    @Query(STATS_SELECT + "WHERE c.id = :id GROUP BY c.id")
+    Mono<CategoryStats> findStatsById(Long id);
+
+    @Modifying
+    @Query("WITH deleted_items AS (DELETE FROM item WHERE category_id = :id) DELETE FROM category WHERE id = :id")
+    Mono<Integer> deleteWithItemsById(Long id);
+}
@@ -0,0 +1,49 @@
+package com.benchmark.rest.webflux.repository;
+
+import com.benchmark.rest.webflux.dto.ItemDTO;
+import com.benchmark.rest.webflux.model.Item;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface ItemRepository extends R2dbcRepository<Item, Long>, ItemRepositoryCustom {
+
+    String DTO_SELECT = "SELECT i.id, i.sku, i.name, i.price, i.stock, c.code AS category_code, i.updated_at "
+            + "FROM item i JOIN category c ON c.id = i.category_id ";
+
+    @Query(DTO_SELECT + "WHERE i.id = :id")
+    Mono<ItemDTO> findDtoById(Long id);
+
+    @Query(DTO_SELECT + "ORDER BY i.id LIMIT :limit OFFSET :offset")
+    Flux<ItemDTO> findAllDto(int limit, long offset);
+
+    @Query(DTO_SELECT + "WHERE c.id = :categoryId ORDER BY i.id LIMIT :limit OFFSET :offset")
+    Flux<ItemDTO> findDtoByCategoryId(Long categoryId, int limit, long offset);
+
+    Mono<Long> countByCategoryId(Long categoryId);
+
+    @Query(DTO_SELECT + "WHERE i.id > :after ORDER BY i.id LIMIT :limit")
+    Flux<ItemDTO> findAllDtoAfter(long after, int limit);
+
+    @Query(DTO_SELECT + "WHERE c.id = :categoryId AND i.id > :after ORDER BY i.id LIMIT :limit")
+    Flux<ItemDTO> findDtoByCategoryIdAfter(Long categoryId, long after, int limit);
+
+    @Query(DTO_SELECT + "ORDER BY i.id")
+    Flux<ItemDTO> streamAllDto();
+
+    /**
+     * Adds {@code delta} to the stock in one statement, unless the result would be negative.
+     * Emits the new stock, nothing when the item is missing or its stock too low.
+     */
+    @Query("UPDATE item SET stock = stock + :delta, version = version + 1, updated_at = now() "
+            + "WHERE id = :id AND stock + :delta >= 0 RETURNING stock")
+    Mono<Integer> adjustStock(Long id, int delta);
+
+    @Modifying
+    @Query("DELETE FROM item WHERE id = :id")
+    Mono<Integer> deleteItemById(Long id);
+}
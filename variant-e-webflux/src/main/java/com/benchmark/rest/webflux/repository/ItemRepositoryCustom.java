@@ -0,0 +1,16 @@
+package com.benchmark.rest.webflux.repository;
+
+import com.benchmark.rest.webflux.dto.ItemDTO;
+import com.benchmark.rest.webflux.dto.ItemSearch;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ItemRepositoryCustom {
+
+    /**
+     * Items matching every filter of {@code search}, ordered by id.
+     */
+    Flux<ItemDTO> findDtoMatching(ItemSearch search, int limit, long offset);
+
+    Mono<Long> countMatching(ItemSearch search);
+}
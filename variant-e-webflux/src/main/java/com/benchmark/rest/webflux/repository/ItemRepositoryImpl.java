@@ -0,0 +1,95 @@
+package com.benchmark.rest.webflux.repository;
+
+import com.benchmark.rest.webflux.dto.ItemDTO;
+import com.benchmark.rest.webflux.dto.ItemSearch;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the WHERE clause from the filters that are set, each one a bound parameter, so that
+ * the planner sees only the predicates it can use an index for.
+ */
+class ItemRepositoryImpl implements ItemRepositoryCustom {
+
+    private static final String ESCAPE = " ESCAPE '" + ItemSearch.LIKE_ESCAPE + "'";
+
+    private final DatabaseClient databaseClient;
+
+    ItemRepositoryImpl(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    @Override
+    public Flux<ItemDTO> findDtoMatching(ItemSearch search, int limit, long offset) {
+        Where where = where(search);
+        return bind(databaseClient.sql(ItemRepository.DTO_SELECT + where.clause()
+                        + " ORDER BY i.id LIMIT :limit OFFSET :offset"), where.bindings())
+                .bind("limit", limit)
+                .bind("offset", offset)
+                .map((row, metadata) -> new ItemDTO(
+                        row.get("id", Long.class),
+                        row.get("sku", String.class),
+                        row.get("name", String.class),
+                        row.get("price", BigDecimal.class),
+                        row.get("stock", Integer.class),
+                        row.get("category_code", String.class),
+                        row.get("updated_at", Instant.class)))
+                .all();
+    }
+
+    @Override
+    public Mono<Long> countMatching(ItemSearch search) {
+        Where where = where(search);
+        return bind(databaseClient.sql("SELECT COUNT(*) FROM item i" + where.clause()), where.bindings())
+                .map((row, metadata) -> row.get(0, Long.class))
+                .one();
+    }
+
+    private static Where where(ItemSearch search) {
+        List<String> predicates = new ArrayList<>();
+        Map<String, Object> bindings = new LinkedHashMap<>();
+        if (search.sku() != null) {
+            predicates.add("i.sku LIKE :sku" + ESCAPE);
+            bindings.put("sku", search.skuPattern());
+        }
+        if (search.q() != null) {
+            predicates.add("lower(i.name) LIKE :q" + ESCAPE);
+            bindings.put("q", search.namePattern());
+        }
+        if (search.minPrice() != null) {
+            predicates.add("i.price >= :minPrice");
+            bindings.put("minPrice", search.minPrice());
+        }
+        if (search.maxPrice() != null) {
+            predicates.add("i.price <= :maxPrice");
+            bindings.put("maxPrice", search.maxPrice());
+        }
+        if (search.stockBelow() != null) {
+            predicates.add("i.stock < :stockBelow");
+            bindings.put("stockBelow", search.stockBelow());
+        }
+        if (search.categoryId() != null) {
+            predicates.add("i.category_id = :categoryId");
+            bindings.put("categoryId", search.categoryId());
+        }
+        return new Where(predicates.isEmpty() ? "" : " WHERE " + String.join(" AND ", predicates), bindings);
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bind(DatabaseClient.GenericExecuteSpec spec, Map<String, Object> bindings) {
+        for (Map.Entry<String, Object> binding : bindings.entrySet()) {
+            spec = spec.bind(binding.getKey(), binding.getValue());
+        }
+        return spec;
+    }
+
+    private record Where(String clause, Map<String, Object> bindings) {
+    }
+}
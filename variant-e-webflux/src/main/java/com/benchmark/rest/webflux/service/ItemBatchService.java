@@ -0,0 +1,132 @@
+package com.benchmark.rest.webflux.service;
+
+import com.benchmark.rest.webflux.dto.BatchItemResult;
+import com.benchmark.rest.webflux.dto.ItemDTO;
+import com.benchmark.rest.webflux.model.Category;
+import com.benchmark.rest.webflux.model.Item;
+import com.benchmark.rest.webflux.repository.CategoryRepository;
+import com.benchmark.rest.webflux.repository.ItemRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Writes item batches in a single R2DBC transaction. Categories and update targets are
+ * resolved with one IN query each; rows are then written one statement at a time over
+ * the same connection.
+ */
+@Service
+public class ItemBatchService {
+
+    private final ItemRepository itemRepository;
+    private final CategoryRepository categoryRepository;
+
+    public ItemBatchService(ItemRepository itemRepository, CategoryRepository categoryRepository) {
+        this.itemRepository = itemRepository;
+        this.categoryRepository = categoryRepository;
+    }
+
+    @Transactional
+    public Mono<List<BatchItemResult>> createAll(List<Item> items) {
+        return resolveCategories(items.stream().map(Item::getRequestedCategoryId)).flatMap(categories -> {
+            BatchItemResult[] results = new BatchItemResult[items.size()];
+            List<Item> accepted = new ArrayList<>(items.size());
+
+            for (int i = 0; i < items.size(); i++) {
+                Item item = items.get(i);
+                Category category = categories.get(item.getRequestedCategoryId());
+                if (category == null) {
+                    results[i] = BatchItemResult.rejected(i, 400, "unknown or missing category");
+                    continue;
+                }
+                item.setId(null);
+                item.setCategoryId(category.getId());
+                accepted.add(item);
+            }
+
+            return itemRepository.saveAll(accepted).then(Mono.fromSupplier(() -> {
+                for (int i = 0; i < items.size(); i++) {
+                    if (results[i] == null) {
+                        Item saved = items.get(i);
+                        results[i] = BatchItemResult.ok(i, 201,
+                                ItemDTO.from(saved, categories.get(saved.getCategoryId()).getCode()));
+                    }
+                }
+                return Arrays.asList(results);
+            }));
+        });
+    }
+
+    @Transactional
+    public Mono<List<BatchItemResult>> updateAll(List<Item> items) {
+        Set<Long> ids = items.stream()
+                .map(Item::getId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+
+        return itemRepository.findAllById(ids)
+                .collectMap(Item::getId)
+                .flatMap(existing -> resolveCategories(Stream.concat(
+                        items.stream().map(Item::getRequestedCategoryId),
+                        existing.values().stream().map(Item::getCategoryId)))
+                        .flatMap(categories -> {
+                            List<BatchItemResult> results = new ArrayList<>(items.size());
+                            List<Item> targets = new ArrayList<>(items.size());
+
+                            for (int i = 0; i < items.size(); i++) {
+                                Item item = items.get(i);
+                                if (item.getId() == null) {
+                                    results.add(BatchItemResult.rejected(i, 400, "missing id"));
+                                    continue;
+                                }
+                                Item target = existing.get(item.getId());
+                                if (target == null) {
+                                    results.add(BatchItemResult.rejected(i, 404, "item not found"));
+                                    continue;
+                                }
+                                if (item.getRequestedCategoryId() != null) {
+                                    Category category = categories.get(item.getRequestedCategoryId());
+                                    if (category == null) {
+                                        results.add(BatchItemResult.rejected(i, 400, "unknown category"));
+                                        continue;
+                                    }
+                                    target.setCategoryId(category.getId());
+                                }
+                                target.setName(item.getName());
+                                target.setPrice(item.getPrice());
+                                target.setStock(item.getStock());
+                                target.setSku(item.getSku());
+                                targets.add(target);
+                                results.add(null);
+                            }
+
+                            return itemRepository.saveAll(targets).then(Mono.fromSupplier(() -> {
+                                int next = 0;
+                                for (int i = 0; i < results.size(); i++) {
+                                    if (results.get(i) == null) {
+                                        Item target = targets.get(next++);
+                                        results.set(i, BatchItemResult.ok(i, 200,
+                                                ItemDTO.from(target, categories.get(target.getCategoryId()).getCode())));
+                                    }
+                                }
+                                return results;
+                            }));
+                        }));
+    }
+
+    private Mono<Map<Long, Category>> resolveCategories(Stream<Long> categoryIds) {
+        return categoryRepository.findAllById(categoryIds
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet()))
+                .collectMap(Category::getId);
+    }
+}
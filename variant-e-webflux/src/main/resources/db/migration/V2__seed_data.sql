@@ -0,0 +1,33 @@
+-- Jeu de données synthétique, seulement sur une base vide :
+--   ${categories} catégories (SEED_CATEGORIES) x ${items} items (SEED_ITEMS).
+-- Répartition biaisée comme un vrai catalogue : la catégorie d'un item suit random()^${skew}
+-- (SEED_SKEW), donc les premières catégories concentrent la plupart des items.
+-- Prix log-normaux, ~10 % de stocks à zéro. Graine fixe : même jeu de données à chaque fois.
+
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM category) OR EXISTS (SELECT 1 FROM item) THEN
+        RETURN;
+    END IF;
+
+    PERFORM setseed(0.18);
+
+    INSERT INTO category (id, code, name, updated_at)
+    SELECT g, 'CAT' || g, 'Category ' || g, now()
+    FROM generate_series(1, ${categories}) g;
+
+    INSERT INTO item (id, sku, name, price, stock, category_id, updated_at)
+    SELECT g,
+           'SKU-' || lpad(g::text, greatest(6, length(g::text)), '0'),
+           'Item ' || g,
+           round((1 + exp(random() * 6))::numeric, 2),
+           CASE WHEN random() < 0.1 THEN 0 ELSE floor(power(random(), 2) * 500)::int END,
+           1 + floor(power(random(), ${skew}) * ${categories})::bigint,
+           now()
+    FROM generate_series(1, ${items}) g;
+
+    -- Les blocs Hibernate (pooled, pas de 50) démarrent après les ids générés
+    PERFORM setval('category_id_seq', ${categories});
+    PERFORM setval('item_id_seq', ${items});
+END
+$$;
@@ -0,0 +1,45 @@
+package com.benchmark.rest.webflux;
+
+import com.benchmark.rest.testing.ApiClient;
+import com.benchmark.rest.testing.TestDatabase;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+/**
+ * Starts the variant on a random port against the shared {@link TestDatabase}, seeded with 5
+ * categories and 200 items. Test classes that add no configuration share one application
+ * context.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.flyway.placeholders.categories=5",
+        "spring.flyway.placeholders.items=200"
+})
+abstract class ApiTest {
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        TestDatabase.r2dbc(registry);
+    }
+
+    @Autowired
+    WebTestClient client;
+
+    long create(int stock) {
+        return client.post().uri("/items").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(ApiClient.newItem(stock, 1)).exchange()
+                .expectStatus().isOk()
+                .expectBody(ItemId.class)
+                .returnResult().getResponseBody().id();
+    }
+
+    WebTestClient.ResponseSpec post(String uri, Object body) {
+        return client.post().uri(uri).contentType(MediaType.APPLICATION_JSON).bodyValue(body).exchange();
+    }
+
+    private record ItemId(Long id) {
+    }
+}
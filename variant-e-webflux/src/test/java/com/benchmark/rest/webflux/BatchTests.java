@@ -0,0 +1,38 @@
+package com.benchmark.rest.webflux;
+
+import com.benchmark.rest.testing.ApiClient;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import java.util.List;
+import java.util.Map;
+
+class BatchTests extends ApiTest {
+
+    @Test
+    void batchRowsAreRejectedAlone() {
+        post("/items/batch", List.of(ApiClient.newItem(1, 1), ApiClient.newItem(1, 999), ApiClient.newItem(1, 1)))
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].status").isEqualTo(201)
+                .jsonPath("$[1].status").isEqualTo(400)
+                .jsonPath("$[2].status").isEqualTo(201);
+
+        long id = create(5);
+        Map<String, Object> known = ApiClient.newItem(6, 1);
+        known.remove("category");
+        known.put("id", id);
+        Map<String, Object> unknown = ApiClient.newItem(1, 1);
+        unknown.remove("category");
+        unknown.put("id", 999999);
+        client.put().uri("/items/batch").contentType(MediaType.APPLICATION_JSON).bodyValue(List.of(known, unknown))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].status").isEqualTo(200)
+                .jsonPath("$[1].status").isEqualTo(404);
+        client.get().uri("/items/" + id).exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.stock").isEqualTo(6);
+    }
+}
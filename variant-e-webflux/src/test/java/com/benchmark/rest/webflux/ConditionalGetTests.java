@@ -0,0 +1,58 @@
+package com.benchmark.rest.webflux;
+
+import com.benchmark.rest.testing.ApiClient;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConditionalGetTests extends ApiTest {
+
+    @Test
+    void matchingIfNoneMatchIsNotModified() {
+        String etag = etag("/items/2");
+
+        client.get().uri("/items/2").ifNoneMatch(etag).exchange()
+                .expectStatus().isNotModified()
+                .expectBody().isEmpty();
+        client.get().uri("/categories/2").ifNoneMatch(etag("/categories/2")).exchange()
+                .expectStatus().isNotModified();
+    }
+
+    @Test
+    void pagesCarryWeakValidators() {
+        HttpHeaders page = client.get().uri("/items?page=1&size=20").exchange()
+                .expectStatus().isOk()
+                .returnResult(String.class).getResponseHeaders();
+        assertThat(page.getETag()).startsWith("W/");
+
+        client.get().uri("/items?page=1&size=20").ifNoneMatch(page.getETag()).exchange()
+                .expectStatus().isNotModified();
+        client.get().uri("/items?page=1&size=20").header(HttpHeaders.IF_MODIFIED_SINCE, page.getFirst(HttpHeaders.LAST_MODIFIED))
+                .exchange()
+                .expectStatus().isNotModified();
+        client.get().uri("/items?page=2&size=20").ifNoneMatch(page.getETag()).exchange()
+                .expectStatus().isOk();
+    }
+
+    @Test
+    void writesChangeTheValidators() {
+        long id = create(10);
+        String before = etag("/items/" + id);
+        String pageBefore = etag("/categories/1/items?size=2000");
+
+        client.put().uri("/items/" + id).contentType(MediaType.APPLICATION_JSON).bodyValue(ApiClient.newItem(11, 1))
+                .exchange()
+                .expectStatus().isOk();
+
+        client.get().uri("/items/" + id).ifNoneMatch(before).exchange().expectStatus().isOk();
+        client.get().uri("/categories/1/items?size=2000").ifNoneMatch(pageBefore).exchange().expectStatus().isOk();
+    }
+
+    private String etag(String uri) {
+        return client.get().uri(uri).exchange()
+                .expectStatus().isOk()
+                .returnResult(String.class).getResponseHeaders().getETag();
+    }
+}
@@ -0,0 +1,37 @@
+package com.benchmark.rest.webflux;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExportTests extends ApiTest {
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Test
+    void everyItemIsOneJsonLine() {
+        long id = create(4);
+
+        List<JsonNode> items = client.get().uri("/items/export").accept(MediaType.APPLICATION_NDJSON).exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(JsonNode.class).getResponseBody().collectList().block();
+
+        assertThat(items).allSatisfy(item -> {
+            assertThat(item.get("sku").asText()).isNotEmpty();
+            assertThat(item.get("categoryCode").asText()).startsWith("CAT");
+        });
+        assertThat(items).filteredOn(item -> item.get("id").asLong() == id)
+                .singleElement().satisfies(item -> assertThat(item.get("stock").asInt()).isEqualTo(4));
+        assertThat(items).extracting(item -> item.get("id").asLong())
+                .containsExactlyInAnyOrderElementsOf(databaseClient.sql("SELECT id FROM item")
+                        .map(row -> row.get(0, Long.class)).all().collectList().block());
+    }
+}
@@ -0,0 +1,59 @@
+package com.benchmark.rest.webflux;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KeysetPaginationTests extends ApiTest {
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Test
+    void cursorsVisitEveryItemOnceInIdOrder() {
+        List<Long> ids = walk("/items?size=37&after=");
+
+        assertThat(ids).isSorted().doesNotHaveDuplicates()
+                .isEqualTo(ids("SELECT id FROM item ORDER BY id"));
+    }
+
+    @Test
+    void categoryCursorsStayInTheirCategory() {
+        List<Long> ids = walk("/categories/3/items?size=7&after=");
+
+        assertThat(ids).isSorted().doesNotHaveDuplicates()
+                .isEqualTo(ids("SELECT id FROM item WHERE category_id = 3 ORDER BY id"));
+    }
+
+    @Test
+    void pageSizeIsClampedAndCursorsChecked() {
+        client.get().uri("/items?size=5000&after=").exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.size").isEqualTo(2000);
+        client.get().uri("/items?after=not-a-cursor").exchange().expectStatus().isBadRequest();
+        client.get().uri("/items?size=0&after=").exchange().expectStatus().isBadRequest();
+    }
+
+    private List<Long> walk(String firstPage) {
+        List<Long> ids = new ArrayList<>();
+        String next = "";
+        while (next != null) {
+            JsonNode page = client.get().uri(firstPage + next).exchange()
+                    .expectStatus().isOk()
+                    .expectBody(JsonNode.class).returnResult().getResponseBody();
+            page.get("content").forEach(row -> ids.add(row.get("id").asLong()));
+            next = page.get("next").isNull() ? null : page.get("next").asText();
+        }
+        return ids;
+    }
+
+    private List<Long> ids(String sql) {
+        return databaseClient.sql(sql).map(row -> row.get(0, Long.class)).all().collectList().block();
+    }
+}
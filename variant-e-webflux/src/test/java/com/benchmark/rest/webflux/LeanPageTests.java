@@ -0,0 +1,60 @@
+package com.benchmark.rest.webflux;
+
+import com.benchmark.rest.webflux.dto.LeanPage;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LeanPageTests extends ApiTest {
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Test
+    void leanPagesCarryOnlyTheEnvelope() {
+        JsonNode page = client.get().uri("/items?page=1&size=20").header(HttpHeaders.ACCEPT, LeanPage.MEDIA_TYPE)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(LeanPage.MEDIA_TYPE)
+                .expectBody(JsonNode.class).returnResult().getResponseBody();
+
+        assertThat(page.properties()).extracting(field -> field.getKey())
+                .containsExactly("content", "page", "size", "total", "next");
+        assertThat(page.get("content")).hasSize(20);
+        assertThat(page.get("page").asInt()).isEqualTo(1);
+        assertThat(page.get("next").asInt()).isEqualTo(2);
+        assertThat(page.get("total").asLong()).isEqualTo(databaseClient.sql("SELECT count(*) FROM item")
+                .map(row -> row.get(0, Long.class)).one().block());
+    }
+
+    @Test
+    void lastLeanPageHasNoNext() {
+        JsonNode page = lean("/categories/2/items?page=0&size=2000");
+
+        assertThat(page.get("next").isNull()).isTrue();
+        assertThat(page.get("content")).hasSize(page.get("total").asInt());
+    }
+
+    @Test
+    void defaultAcceptKeepsThePageAndItsOwnValidator() {
+        String leanEtag = client.get().uri("/items?page=0&size=20").header(HttpHeaders.ACCEPT, LeanPage.MEDIA_TYPE)
+                .exchange()
+                .returnResult(String.class).getResponseHeaders().getETag();
+
+        client.get().uri("/items?page=0&size=20").accept(MediaType.ALL).ifNoneMatch(leanEtag).exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_JSON)
+                .expectBody().jsonPath("$.pageable").exists();
+    }
+
+    private JsonNode lean(String uri) {
+        return client.get().uri(uri).header(HttpHeaders.ACCEPT, LeanPage.MEDIA_TYPE).exchange()
+                .expectStatus().isOk()
+                .expectBody(JsonNode.class).returnResult().getResponseBody();
+    }
+}
@@ -0,0 +1,58 @@
+package com.benchmark.rest.webflux;
+
+import com.benchmark.rest.testing.ApiClient;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NegotiationTests extends ApiTest {
+
+    private static final MediaType SMILE_TYPE = MediaType.parseMediaType("application/x-jackson-smile");
+    private static final ObjectMapper CBOR = new CBORMapper();
+    private static final ObjectMapper SMILE = new SmileMapper();
+
+    @Test
+    void itemsAreEncodedInTheAcceptedFormat() throws IOException {
+        JsonNode json = client.get().uri("/items/2").accept(MediaType.APPLICATION_JSON).exchange()
+                .expectStatus().isOk()
+                .expectBody(JsonNode.class).returnResult().getResponseBody();
+
+        assertThat(CBOR.readTree(body("/items/2", MediaType.APPLICATION_CBOR))).hasToString(json.toString());
+        assertThat(SMILE.readTree(body("/items/2", SMILE_TYPE))).hasToString(json.toString());
+        assertThat(SMILE.readTree(body("/items?page=0&size=20", SMILE_TYPE)).get("content")).hasSize(20);
+    }
+
+    @Test
+    void binaryBodiesAreAcceptedOnWrites() throws IOException {
+        byte[] created = client.post().uri("/items").contentType(MediaType.APPLICATION_CBOR)
+                .accept(MediaType.APPLICATION_CBOR)
+                .bodyValue(CBOR.writeValueAsBytes(ApiClient.newItem(4, 1))).exchange()
+                .expectStatus().isOk()
+                .expectBody().returnResult().getResponseBody();
+        long id = CBOR.readTree(created).get("id").asLong();
+
+        client.put().uri("/items/" + id).contentType(SMILE_TYPE)
+                .bodyValue(smile(ApiClient.newItem(6, 1))).exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.stock").isEqualTo(6);
+    }
+
+    private byte[] body(String uri, MediaType accept) {
+        return client.get().uri(uri).accept(accept).exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(accept)
+                .expectBody().returnResult().getResponseBody();
+    }
+
+    private static byte[] smile(Object value) throws JsonProcessingException {
+        return SMILE.writeValueAsBytes(value);
+    }
+}
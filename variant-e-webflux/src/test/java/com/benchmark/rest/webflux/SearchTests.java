@@ -0,0 +1,91 @@
+package com.benchmark.rest.webflux;
+
+import com.benchmark.rest.testing.ApiClient;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Every search is narrowed to the items of one test by their SKU prefix.
+ */
+class SearchTests extends ApiTest {
+
+    private String prefix;
+    private String token;
+
+    @BeforeEach
+    void items() {
+        token = UUID.randomUUID().toString().substring(0, 8);
+        prefix = "F" + token + "-";
+
+        item(1, "Red " + token + " lamp", "5.00", 0, 2);
+        item(2, "blue " + token.toUpperCase() + " chair", "10.00", 3, 2);
+        item(3, token + " 100% wool", "20.00", 10, 1);
+        item(4, "plain", "10.00", 5, 1);
+    }
+
+    @Test
+    void filtersAreCombined() {
+        assertThat(search("&q= ")).containsExactly(sku(1), sku(2), sku(3), sku(4));
+        assertThat(search("&q=" + token.toUpperCase())).containsExactly(sku(1), sku(2), sku(3));
+        assertThat(search("&minPrice=10&maxPrice=20")).containsExactly(sku(2), sku(3), sku(4));
+        assertThat(search("&stockBelow=3")).containsExactly(sku(1));
+        assertThat(search("&categoryId=2")).containsExactly(sku(1), sku(2));
+        assertThat(search("&categoryId=1&minPrice=10&maxPrice=10")).containsExactly(sku(4));
+    }
+
+    @Test
+    void likeWildcardsAreMatchedLiterally() {
+        assertThat(search("&q=%")).containsExactly(sku(3));
+        assertThat(search("&q=_")).isEmpty();
+    }
+
+    @Test
+    void pagesAreOrderedById() {
+        JsonNode page = page("/items/search?sku=" + prefix + "&page=1&size=2");
+
+        assertThat(skus(page)).containsExactly(sku(3), sku(4));
+        assertThat(page.get("totalElements").asInt()).isEqualTo(4);
+    }
+
+    @Test
+    void invertedPriceRangeIsBadRequest() {
+        client.get().uri("/items/search?minPrice=20&maxPrice=5").exchange().expectStatus().isBadRequest();
+    }
+
+    private void item(int number, String name, String price, int stock, long category) {
+        Map<String, Object> item = ApiClient.newItem(stock, category);
+        item.put("sku", sku(number));
+        item.put("name", name);
+        item.put("price", new BigDecimal(price));
+        post("/items", item).expectStatus().isOk();
+    }
+
+    private String sku(int number) {
+        return prefix + number;
+    }
+
+    private List<String> search(String filters) {
+        return skus(page("/items/search?sku=" + prefix + filters));
+    }
+
+    private JsonNode page(String uri) {
+        return client.get().uri(uri).exchange()
+                .expectStatus().isOk()
+                .expectBody(JsonNode.class).returnResult().getResponseBody();
+    }
+
+    private List<String> skus(JsonNode page) {
+        List<String> skus = new ArrayList<>();
+        page.get("content").forEach(item -> skus.add(item.get("sku").asText()));
+        return skus;
+    }
+}
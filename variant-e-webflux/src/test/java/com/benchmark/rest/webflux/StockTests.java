@@ -0,0 +1,54 @@
+package com.benchmark.rest.webflux;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StockTests extends ApiTest {
+
+    @Test
+    void stockNeverGoesNegative() {
+        long id = create(3);
+
+        post("/items/" + id + "/stock", Map.of("delta", -3)).expectStatus().isOk()
+                .expectBody().jsonPath("$.stock").isEqualTo(0);
+        post("/items/" + id + "/stock", Map.of("delta", -1)).expectStatus().isEqualTo(409);
+        post("/items/" + id + "/stock", Map.of()).expectStatus().isBadRequest();
+        post("/items/999999/stock", Map.of("delta", 1)).expectStatus().isNotFound();
+
+        client.get().uri("/items/" + id).exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.stock").isEqualTo(0);
+    }
+
+    @Test
+    void concurrentDecrementsStopAtZero() throws Exception {
+        long id = create(5);
+        List<Integer> codes = new ArrayList<>();
+        ExecutorService buyers = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Integer>> statuses = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                statuses.add(buyers.submit(() -> post("/items/" + id + "/stock", Map.of("delta", -1))
+                        .returnResult(Void.class).getStatus().value()));
+            }
+            for (Future<Integer> status : statuses) {
+                codes.add(status.get());
+            }
+        } finally {
+            buyers.shutdown();
+        }
+
+        assertThat(codes).containsOnly(200, 409).filteredOn(code -> code == 200).hasSize(5);
+        client.get().uri("/items/" + id).exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.stock").isEqualTo(0);
+    }
+}